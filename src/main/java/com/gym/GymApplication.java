@@ -1,11 +1,14 @@
 package com.gym;
 
 import com.gym.dao.UserDAO;
-import com.gym.dao.impl.UserDAOImpl;
+import com.gym.dao.impl.BookingDAOImpl;
+import com.gym.dao.impl.CachingUserDAO;
 import com.gym.model.Admin;
 import com.gym.model.Member;
 import com.gym.model.Receptionist;
 import com.gym.model.UserRole;
+import com.gym.service.BookingSweeper;
+import com.gym.util.DatabaseExecutor;
 import com.gym.util.DatabaseUtil;
 import javafx.application.Application;
 import javafx.fxml.FXMLLoader;
@@ -14,13 +17,19 @@ import javafx.scene.Scene;
 import javafx.stage.Stage;
 
 import java.io.IOException;
+import java.time.LocalTime;
 
 public class GymApplication extends Application {
+    // After the evening classes; anything still inside the grace period waits for the next run
+    private static final LocalTime BOOKING_SWEEP_TIME = LocalTime.of(23, 30);
+
+    private BookingSweeper bookingSweeper;
     
     @Override
     public void start(Stage primaryStage) throws IOException {
         initializeDatabase();
         createDefaultUsers();
+        startBookingSweeper();
         
         FXMLLoader loader = new FXMLLoader(getClass().getResource("/fxml/Login.fxml"));
         Parent root = loader.load();
@@ -42,8 +51,14 @@ public class GymApplication extends Application {
         }
     }
     
+    // The catch-up run at startup covers bookings left over while the app was closed
+    private void startBookingSweeper() {
+        bookingSweeper = new BookingSweeper(new BookingDAOImpl());
+        bookingSweeper.scheduleDaily(BOOKING_SWEEP_TIME, true);
+    }
+    
     private void createDefaultUsers() {
-        UserDAO userDAO = new UserDAOImpl();
+        UserDAO userDAO = CachingUserDAO.shared();
         
         try {
             if (!userDAO.existsByUsername("admin")) {
@@ -83,6 +98,11 @@ public class GymApplication extends Application {
     @Override
     public void stop() {
         System.out.println("Application shutting down...");
+        if (bookingSweeper != null) {
+            bookingSweeper.close();
+        }
+        DatabaseExecutor.shutdownShared();
+        DatabaseUtil.shutdown();
     }
     
     public static void main(String[] args) {
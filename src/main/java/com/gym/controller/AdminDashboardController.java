@@ -1,17 +1,57 @@
 package com.gym.controller;
 
+import com.gym.dao.BookingDAO;
+import com.gym.dao.MemberDAO;
+import com.gym.dao.UserDAO;
+import com.gym.dao.impl.BookingDAOImpl;
+import com.gym.dao.impl.CachingMemberDAO;
+import com.gym.dao.impl.CachingUserDAO;
+import com.gym.dao.impl.ExpenseDAOImpl;
+import com.gym.dao.impl.PaymentDAOImpl;
+import com.gym.dao.impl.RollupDAOImpl;
 import com.gym.model.User;
+import com.gym.service.FinancialService;
+import com.gym.util.DatabaseExecutor;
 import javafx.fxml.FXML;
 import javafx.scene.control.Label;
 import javafx.scene.layout.VBox;
+import javafx.scene.text.Text;
+
+import java.time.LocalDate;
+import java.util.Map;
 
 public class AdminDashboardController {
     @FXML private Label welcomeLabel;
     @FXML private Label adminIdLabel;
     @FXML private VBox mainContent;
+    @FXML private Text totalUsersText;
+    @FXML private Text activeMembersText;
+    @FXML private Text monthlyRevenueText;
+    @FXML private Text todayBookingsText;
+    
+    private final UserDAO userDAO = CachingUserDAO.shared();
+    private final MemberDAO memberDAO = CachingMemberDAO.shared();
+    private final BookingDAO bookingDAO = new BookingDAOImpl();
+    private final FinancialService financialService =
+            new FinancialService(new PaymentDAOImpl(), new ExpenseDAOImpl(), new RollupDAOImpl());
+    private final DashboardLoader loader = new DashboardLoader(DatabaseExecutor.shared().asExecutor());
     
     private User admin;
 
+    @FXML
+    private void initialize() {
+        loader.addTile("totalUsers", totalUsersText::setText, userDAO::countUsers, String::valueOf);
+        loader.addTile("activeMembers", activeMembersText::setText, memberDAO::countActiveMembers, String::valueOf);
+        loader.addTile("monthlyRevenue", monthlyRevenueText::setText, () -> {
+            LocalDate today = LocalDate.now();
+            return financialService.generateMonthlyReport(today.getMonthValue(), today.getYear()).getTotalRevenue();
+        }, revenue -> String.format("$%,.0f", revenue));
+        loader.addTile("todayBookings", todayBookingsText::setText, () -> {
+            LocalDate today = LocalDate.now();
+            return bookingDAO.countByDateRange(null, today.atStartOfDay(), today.plusDays(1).atStartOfDay().minusSeconds(1));
+        }, String::valueOf);
+    }
+
     public void setUser(User user) {
         this.admin = user;
         initializeDashboard();
@@ -22,6 +62,13 @@ public class AdminDashboardController {
             welcomeLabel.setText("Welcome, " + admin.getName() + "!");
             adminIdLabel.setText("Admin ID: " + ((com.gym.model.Admin) admin).getAdminId());
         }
+        // Tiles fill in as their queries finish; the scene is shown without waiting
+        loader.refreshAll();
+    }
+
+    // Most recent load time of each dashboard tile, in milliseconds
+    public Map<String, Long> getTileLoadTimings() {
+        return loader.getLoadTimings();
     }
 
     @FXML
@@ -51,6 +98,7 @@ public class AdminDashboardController {
     @FXML
     private void handleLogout() {
         // Logout and return to login screen
+        loader.cancelAll();
         System.out.println("Logging out...");
     }
 }
@@ -0,0 +1,132 @@
+package com.gym.controller;
+
+import javafx.concurrent.Service;
+import javafx.concurrent.Task;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Executor;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Fills dashboard tiles in the background so a dashboard can be shown as soon as its
+ * FXML is loaded. Each tile is a javafx.concurrent.Service running its query on the
+ * given executor; results are applied on the FX thread as each one arrives, so fast
+ * tiles do not wait for slow ones.
+ *
+ * All methods must be called on the FX application thread.
+ */
+class DashboardLoader {
+    static final String LOADING_TEXT = "…";
+    static final String FAILED_TEXT = "—";
+
+    private final Executor executor;
+    private final Map<String, Tile<?>> tiles = new LinkedHashMap<>();
+
+    DashboardLoader(Executor executor) {
+        this.executor = executor;
+    }
+
+    // Shows LOADING_TEXT while the query runs, the formatted result on success, FAILED_TEXT on error
+    <T> void addTile(String name, Consumer<String> view, Callable<T> query, Function<T, String> format) {
+        tiles.put(name, new Tile<>(name, query, view,
+                value -> view.accept(format.apply(value)),
+                () -> view.accept(FAILED_TEXT)));
+    }
+
+    // For tiles that update more than one control from a single query; placeholder gets
+    // LOADING_TEXT while the query runs and FAILED_TEXT on error, for every control
+    <T> void addTile(String name, Callable<T> query, Consumer<T> onLoaded, Consumer<String> placeholder) {
+        tiles.put(name, new Tile<>(name, query, placeholder, onLoaded, () -> placeholder.accept(FAILED_TEXT)));
+    }
+
+    /**
+     * Starts every tile. A tile that is still loading is not restarted; it runs once
+     * more after the current load finishes, so repeated refreshes coalesce into at
+     * most one extra query per tile.
+     */
+    void refreshAll() {
+        tiles.values().forEach(Tile::refresh);
+    }
+
+    void refresh(String name) {
+        Tile<?> tile = tiles.get(name);
+        if (tile != null) {
+            tile.refresh();
+        }
+    }
+
+    void cancelAll() {
+        tiles.values().forEach(Tile::cancelLoad);
+    }
+
+    // Duration of each tile's most recent completed query in milliseconds, -1 if none yet
+    Map<String, Long> getLoadTimings() {
+        Map<String, Long> timings = new LinkedHashMap<>();
+        tiles.forEach((name, tile) -> timings.put(name, tile.lastLoadMillis));
+        return timings;
+    }
+
+    private final class Tile<T> extends Service<T> {
+        private final String name;
+        private final Callable<T> query;
+        private final Consumer<String> placeholder;
+        private boolean refreshPending;
+        private volatile long lastLoadMillis = -1;
+
+        private Tile(String name, Callable<T> query, Consumer<String> placeholder,
+                     Consumer<T> onLoaded, Runnable onFailed) {
+            this.name = name;
+            this.query = query;
+            this.placeholder = placeholder;
+            setExecutor(executor);
+            setOnSucceeded(event -> {
+                onLoaded.accept(getValue());
+                runPendingRefresh();
+            });
+            setOnFailed(event -> {
+                System.err.println("Error loading dashboard tile '" + name + "': " + getException());
+                onFailed.run();
+                runPendingRefresh();
+            });
+        }
+
+        @Override
+        protected Task<T> createTask() {
+            return new Task<>() {
+                @Override
+                protected T call() throws Exception {
+                    long start = System.nanoTime();
+                    try {
+                        return query.call();
+                    } finally {
+                        lastLoadMillis = (System.nanoTime() - start) / 1_000_000;
+                    }
+                }
+            };
+        }
+
+        private void refresh() {
+            if (isRunning()) {
+                refreshPending = true;
+                return;
+            }
+            placeholder.accept(LOADING_TEXT);
+            restart();
+        }
+
+        private void cancelLoad() {
+            refreshPending = false;
+            cancel();
+        }
+
+        private void runPendingRefresh() {
+            if (refreshPending) {
+                refreshPending = false;
+                refresh();
+            }
+        }
+    }
+}
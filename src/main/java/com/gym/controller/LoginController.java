@@ -1,7 +1,7 @@
 package com.gym.controller;
 
 import com.gym.dao.UserDAO;
-import com.gym.dao.impl.UserDAOImpl;
+import com.gym.dao.impl.CachingUserDAO;
 import com.gym.model.User;
 import javafx.fxml.FXML;
 import javafx.fxml.FXMLLoader;
@@ -19,7 +19,7 @@ public class LoginController {
     @FXML private Button showPasswordButton;
     @FXML private Label errorLabel;
 
-    private final UserDAO userDAO = new UserDAOImpl();
+    private final UserDAO userDAO = CachingUserDAO.shared();
     private boolean isPasswordVisible = false;
 
     @FXML
@@ -1,15 +1,35 @@
 package com.gym.controller;
 
+import com.gym.dao.BookingDAO;
+import com.gym.dao.MemberDAO;
+import com.gym.dao.impl.BookingDAOImpl;
+import com.gym.dao.impl.CachingMemberDAO;
+import com.gym.model.BookingStatus;
+import com.gym.model.Member;
 import com.gym.model.User;
+import com.gym.util.DatabaseExecutor;
 import javafx.fxml.FXML;
 import javafx.scene.control.Label;
 import javafx.scene.layout.VBox;
+import javafx.scene.text.Text;
+
+import java.time.LocalTime;
+import java.time.YearMonth;
+import java.util.List;
+import java.util.Map;
 
 public class MemberDashboardController {
     @FXML private Label welcomeLabel;
     @FXML private Label membershipStatusLabel;
     @FXML private Label membershipTypeLabel;
     @FXML private VBox mainContent;
+    @FXML private Text classesThisMonthText;
+    @FXML private Text workoutsCompletedText;
+    @FXML private Text attendanceRateText;
+    
+    private final MemberDAO memberDAO = CachingMemberDAO.shared();
+    private final BookingDAO bookingDAO = new BookingDAOImpl();
+    private final DashboardLoader loader = new DashboardLoader(DatabaseExecutor.shared().asExecutor());
     
     private User member;
 
@@ -21,17 +41,61 @@ public class MemberDashboardController {
     private void initializeDashboard() {
         if (member != null) {
             welcomeLabel.setText("Welcome, " + member.getName() + "!");
-            
-            com.gym.model.Member m = (com.gym.model.Member) member;
-            membershipTypeLabel.setText("Membership: " + 
-                (m.getMembership() != null ? m.getMembership().getName() : "None"));
-            
-            boolean isActive = m.isMembershipActive();
-            membershipStatusLabel.setText("Status: " + (isActive ? "Active" : "Inactive"));
-            membershipStatusLabel.setStyle(isActive ? "-fx-text-fill: green;" : "-fx-text-fill: red;");
+
+            loader.addTile("overview", this::loadOverview, this::showOverview, this::showPlaceholder);
+            // Tiles fill in as their queries finish; the scene is shown without waiting
+            loader.refreshAll();
         }
     }
 
+    // One read of the member row feeds both the membership labels and the activity tiles
+    private Overview loadOverview() {
+        // The logged-in user may not carry its membership, so read the member row
+        List<Member> rows = memberDAO.findByUserId(member.getId());
+        if (rows.isEmpty()) {
+            return new Overview((Member) member, 0, 0, 0);
+        }
+
+        Member row = rows.get(0);
+        // Counted in SQL so the member's booking history is never loaded
+        YearMonth thisMonth = YearMonth.now();
+        long classesThisMonth = bookingDAO.countByMemberBetween(row.getId(),
+                thisMonth.atDay(1).atStartOfDay(), thisMonth.atEndOfMonth().atTime(LocalTime.MAX));
+        Map<BookingStatus, Long> byStatus = bookingDAO.countByStatusForMember(row.getId());
+        long completed = byStatus.getOrDefault(BookingStatus.COMPLETED, 0L);
+        long attended = completed + byStatus.getOrDefault(BookingStatus.NO_SHOW, 0L);
+        int attendanceRate = attended == 0 ? 0 : Math.round(completed * 100f / attended);
+        return new Overview(row, classesThisMonth, completed, attendanceRate);
+    }
+
+    private void showOverview(Overview overview) {
+        Member m = overview.member;
+        membershipTypeLabel.setText("Membership: " + 
+            (m.getMembership() != null ? m.getMembership().getName() : "None"));
+        
+        boolean isActive = m.isMembershipActive();
+        membershipStatusLabel.setText("Status: " + (isActive ? "Active" : "Inactive"));
+        membershipStatusLabel.setStyle(isActive ? "-fx-text-fill: green;" : "-fx-text-fill: red;");
+
+        classesThisMonthText.setText(String.valueOf(overview.classesThisMonth));
+        workoutsCompletedText.setText(String.valueOf(overview.completed));
+        attendanceRateText.setText(overview.attendanceRate + "%");
+    }
+
+    private void showPlaceholder(String text) {
+        membershipTypeLabel.setText("Membership: " + text);
+        membershipStatusLabel.setText("Status: " + text);
+        membershipStatusLabel.setStyle("");
+        classesThisMonthText.setText(text);
+        workoutsCompletedText.setText(text);
+        attendanceRateText.setText(text);
+    }
+
+    // Most recent load time of each dashboard tile, in milliseconds
+    public Map<String, Long> getTileLoadTimings() {
+        return loader.getLoadTimings();
+    }
+
     @FXML
     private void handleBookClass() {
         // Open class booking interface
@@ -65,6 +129,21 @@ public class MemberDashboardController {
     @FXML
     private void handleLogout() {
         // Logout and return to login screen
+        loader.cancelAll();
         System.out.println("Logging out...");
     }
+
+    private static final class Overview {
+        private final Member member;
+        private final long classesThisMonth;
+        private final long completed;
+        private final int attendanceRate;
+
+        private Overview(Member member, long classesThisMonth, long completed, int attendanceRate) {
+            this.member = member;
+            this.classesThisMonth = classesThisMonth;
+            this.completed = completed;
+            this.attendanceRate = attendanceRate;
+        }
+    }
 }
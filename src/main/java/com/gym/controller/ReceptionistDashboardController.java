@@ -1,17 +1,57 @@
 package com.gym.controller;
 
+import com.gym.dao.BookingDAO;
+import com.gym.dao.MemberDAO;
+import com.gym.dao.PaymentDAO;
+import com.gym.dao.impl.BookingDAOImpl;
+import com.gym.dao.impl.CachingMemberDAO;
+import com.gym.dao.impl.PaymentDAOImpl;
+import com.gym.model.BookingStatus;
 import com.gym.model.User;
+import com.gym.util.DatabaseExecutor;
 import javafx.fxml.FXML;
 import javafx.scene.control.Label;
 import javafx.scene.layout.VBox;
+import javafx.scene.text.Text;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Map;
 
 public class ReceptionistDashboardController {
     @FXML private Label welcomeLabel;
     @FXML private Label employeeIdLabel;
     @FXML private VBox mainContent;
+    @FXML private Text newMembersTodayText;
+    @FXML private Text todayBookingsText;
+    @FXML private Text paymentsTodayText;
+    @FXML private Text pendingCheckInsText;
+    
+    private final MemberDAO memberDAO = CachingMemberDAO.shared();
+    private final BookingDAO bookingDAO = new BookingDAOImpl();
+    private final PaymentDAO paymentDAO = new PaymentDAOImpl();
+    private final DashboardLoader loader = new DashboardLoader(DatabaseExecutor.shared().asExecutor());
     
     private User receptionist;
 
+    @FXML
+    private void initialize() {
+        loader.addTile("newMembersToday", newMembersTodayText::setText, () -> {
+            LocalDate today = LocalDate.now();
+            return memberDAO.countMembersStartedBetween(today, today);
+        }, String::valueOf);
+        loader.addTile("todayBookings", todayBookingsText::setText,
+                () -> bookingDAO.countByDateRange(null, startOfToday(), endOfToday()), String::valueOf);
+        loader.addTile("paymentsToday", paymentsTodayText::setText, () -> {
+            LocalDate today = LocalDate.now();
+            return paymentDAO.sumAmount(null, today, today);
+        }, total -> String.format("$%,.0f", total));
+        // Still BOOKED and not yet started today
+        loader.addTile("pendingCheckIns", pendingCheckInsText::setText,
+                () -> bookingDAO.countByDateRange(BookingStatus.BOOKED, LocalDateTime.now(), endOfToday()),
+                String::valueOf);
+    }
+
     public void setUser(User user) {
         this.receptionist = user;
         initializeDashboard();
@@ -23,6 +63,21 @@ public class ReceptionistDashboardController {
             employeeIdLabel.setText("Employee ID: " + 
                 ((com.gym.model.Receptionist) receptionist).getEmployeeId());
         }
+        // Tiles fill in as their queries finish; the scene is shown without waiting
+        loader.refreshAll();
+    }
+
+    private static LocalDateTime startOfToday() {
+        return LocalDate.now().atStartOfDay();
+    }
+
+    private static LocalDateTime endOfToday() {
+        return LocalDate.now().plusDays(1).atStartOfDay().minusSeconds(1);
+    }
+
+    // Most recent load time of each dashboard tile, in milliseconds
+    public Map<String, Long> getTileLoadTimings() {
+        return loader.getLoadTimings();
     }
 
     @FXML
@@ -58,6 +113,7 @@ public class ReceptionistDashboardController {
     @FXML
     private void handleLogout() {
         // Logout and return to login screen
+        loader.cancelAll();
         System.out.println("Logging out...");
     }
 }
@@ -3,16 +3,43 @@ package com.gym.dao;
 import com.gym.model.Booking;
 import com.gym.model.BookingStatus;
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.stream.Stream;
 
 public interface BookingDAO {
+    // save() and update() leave session seats to the caller (see BookingService);
+    // delete(), updateAll() and deleteAll() free or claim seats to match the rows they change
     Booking save(Booking booking);
     Booking update(Booking booking);
     boolean delete(int id);
+    List<Booking> saveAll(Collection<Booking> bookings);
+    int updateAll(Collection<Booking> bookings);
+    int deleteAll(Collection<Integer> ids);
     java.util.Optional<Booking> findById(int id);
     List<Booking> findByMemberId(int memberId);
+    // True if the member has a BOOKED session with class_time in [from, to]
+    boolean hasBookingBetween(int memberId, LocalDateTime from, LocalDateTime to);
     List<Booking> findByClassName(String className);
     List<Booking> findByStatus(BookingStatus status);
+    // class_time strictly before the given time, oldest first
+    List<Booking> findByStatusBefore(BookingStatus status, LocalDateTime before);
     List<Booking> findByDateRange(LocalDateTime startDate, LocalDateTime endDate);
     List<Booking> findAll();
+    long countByClassName(String className);
+    long countByStatus(BookingStatus status);
+    // Null status counts every status; class_time range is inclusive
+    long countByDateRange(BookingStatus status, LocalDateTime startDate, LocalDateTime endDate);
+    // Statuses the member has no bookings in are left out
+    java.util.Map<BookingStatus, Long> countByStatusForMember(int memberId);
+    // Bookings other than CANCELLED with class_time in [from, to]
+    long countByMemberBetween(int memberId, LocalDateTime from, LocalDateTime to);
+    Page<Booking> findPage(String pageToken, int pageSize);
+    // Moves at most limit of the oldest such bookings to the new status in one statement; returns how many moved
+    int updateStatusBefore(BookingStatus from, BookingStatus to, LocalDateTime before, int limit);
+
+    // Cursor-backed: the stream holds a connection until closed, use try-with-resources
+    Stream<Booking> streamAll();
+    Stream<Booking> streamByDateRange(LocalDateTime startDate, LocalDateTime endDate);
+    Stream<Booking> streamByStatus(BookingStatus status);
 }
@@ -0,0 +1,17 @@
+package com.gym.dao;
+
+import com.gym.model.ClassSession;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+public interface ClassSessionDAO {
+    ClassSession save(ClassSession session);
+    Optional<ClassSession> findById(int id);
+    Optional<ClassSession> findByClassAndTime(String className, LocalDateTime classTime);
+    List<ClassSession> findByDateRange(LocalDateTime startDate, LocalDateTime endDate);
+
+    // Atomic seat counters: each is a single conditional UPDATE, false when no seat was claimed/freed
+    boolean tryReserveSeat(int sessionId);
+    boolean releaseSeat(int sessionId);
+}
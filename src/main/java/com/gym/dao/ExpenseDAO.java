@@ -1,17 +1,46 @@
 package com.gym.dao;
 
+import com.gym.model.AmountSummary;
 import com.gym.model.Expense;
 import com.gym.model.ExpenseCategory;
 import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
 
 public interface ExpenseDAO {
     Expense save(Expense expense);
     Expense update(Expense expense);
     boolean delete(int id);
+    List<Expense> saveAll(Collection<Expense> expenses);
+    int updateAll(Collection<Expense> expenses);
+    int deleteAll(Collection<Integer> ids);
     java.util.Optional<Expense> findById(int id);
     List<Expense> findByCategory(ExpenseCategory category);
     List<Expense> findByDateRange(LocalDate startDate, LocalDate endDate);
     List<Expense> findByMonth(int month, int year);
     List<Expense> findAll();
+
+    // Cursor-backed: the stream holds a connection until closed, use try-with-resources
+    Stream<Expense> streamAll();
+    Stream<Expense> streamByDateRange(LocalDate startDate, LocalDate endDate);
+
+    // Largest amounts first, at most limit rows; null filters are ignored, dates inclusive
+    List<Expense> findTopByAmount(ExpenseCategory category, LocalDate startDate, LocalDate endDate, int limit);
+
+    // Null filters are ignored; the date range is inclusive on both ends
+    AmountSummary summarize(ExpenseCategory category, LocalDate startDate, LocalDate endDate);
+
+    // Months with no rows are absent from the map; the date range is inclusive
+    Map<YearMonth, Double> sumByMonth(LocalDate startDate, LocalDate endDate);
+
+    default double sumAmount(ExpenseCategory category, LocalDate startDate, LocalDate endDate) {
+        return summarize(category, startDate, endDate).getTotal();
+    }
+
+    default long count(ExpenseCategory category, LocalDate startDate, LocalDate endDate) {
+        return summarize(category, startDate, endDate).getCount();
+    }
 }
@@ -1,14 +1,33 @@
 package com.gym.dao;
 
 import com.gym.model.Member;
+import com.gym.model.MemberSummary;
+import java.time.LocalDate;
+import java.util.Map;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 public interface MemberDAO {
     Member save(Member member);
     Optional<Member> findById(int id);
     java.util.List<Member> findByUserId(int userId);
     java.util.List<Member> findAll();
+    Stream<Member> streamAll();
+    Page<Member> findPage(String pageToken, int pageSize);
     Member update(Member member);
     boolean delete(int id);
     java.util.List<Member> findActiveMembers();
+
+    // Projections for list screens and reports: no passwords, no Membership objects
+    java.util.List<MemberSummary> findSummaries();
+    java.util.List<MemberSummary> findActiveSummaries();
+    // Members whose end date falls strictly between the two dates
+    java.util.List<MemberSummary> findSummariesExpiringBetween(LocalDate after, LocalDate before);
+    long countMembers();
+    long countActiveMembers();
+    // Start date range is inclusive
+    long countMembersStartedBetween(LocalDate startDate, LocalDate endDate);
+
+    // Member count per membership_plans id, from one grouped query
+    Map<Integer, Long> countMembersByPlan();
 }
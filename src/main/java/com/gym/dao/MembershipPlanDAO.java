@@ -0,0 +1,14 @@
+package com.gym.dao;
+
+import com.gym.model.Membership;
+import java.util.List;
+import java.util.Optional;
+
+// Plans returned here are shared, frozen instances; never mutate them
+public interface MembershipPlanDAO {
+    List<Membership> findAll();
+    Optional<Membership> findById(int id);
+    // Code is the plan's class simple name, e.g. "VIPMembership"; matched ignoring case
+    Optional<Membership> findByCode(String code);
+    Membership updatePrice(int id, double price);
+}
@@ -0,0 +1,33 @@
+package com.gym.dao;
+
+/**
+ * Thrown by a DAO update() when the row was changed by someone else after the caller
+ * read it: the version the caller holds no longer matches the stored one. Nothing is
+ * written. Re-read the row, re-apply the change and try again.
+ */
+public class OptimisticLockException extends RuntimeException {
+    private static final long serialVersionUID = 1L;
+
+    private final String entity;
+    private final int id;
+    private final int expectedVersion;
+
+    public OptimisticLockException(String entity, int id, int expectedVersion) {
+        super(entity + " " + id + " was modified concurrently (expected version " + expectedVersion + ")");
+        this.entity = entity;
+        this.id = id;
+        this.expectedVersion = expectedVersion;
+    }
+
+    public String getEntity() {
+        return entity;
+    }
+
+    public int getId() {
+        return id;
+    }
+
+    public int getExpectedVersion() {
+        return expectedVersion;
+    }
+}
@@ -0,0 +1,42 @@
+package com.gym.dao;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Seek position for keyset pagination: the (sort key, id) of the last row on the
+ * previous page. Encoded as an opaque string so callers don't depend on the format.
+ */
+public class PageToken {
+    private final long sortKey;
+    private final int id;
+
+    public PageToken(long sortKey, int id) {
+        this.sortKey = sortKey;
+        this.id = id;
+    }
+
+    public long getSortKey() {
+        return sortKey;
+    }
+
+    public int getId() {
+        return id;
+    }
+
+    public String encode() {
+        String raw = sortKey + ":" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static PageToken decode(String token) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int separator = raw.indexOf(':');
+            return new PageToken(Long.parseLong(raw.substring(0, separator)),
+                    Integer.parseInt(raw.substring(separator + 1)));
+        } catch (IllegalArgumentException | IndexOutOfBoundsException e) {
+            throw new IllegalArgumentException("Invalid page token: " + token, e);
+        }
+    }
+}
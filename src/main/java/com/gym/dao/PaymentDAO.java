@@ -1,18 +1,51 @@
 package com.gym.dao;
 
+import com.gym.model.AmountSummary;
 import com.gym.model.Payment;
 import com.gym.model.PaymentType;
 import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
 
 public interface PaymentDAO {
     Payment save(Payment payment);
     Payment update(Payment payment);
     boolean delete(int id);
+    List<Payment> saveAll(Collection<Payment> payments);
+    int updateAll(Collection<Payment> payments);
+    int deleteAll(Collection<Integer> ids);
     java.util.Optional<Payment> findById(int id);
     List<Payment> findByMemberId(int memberId);
     List<Payment> findByType(PaymentType type);
     List<Payment> findByDateRange(LocalDate startDate, LocalDate endDate);
     List<Payment> findByMonth(int month, int year);
     List<Payment> findAll();
+    Page<Payment> findPage(String pageToken, int pageSize);
+
+    // Cursor-backed: the stream holds a connection until closed, use try-with-resources
+    Stream<Payment> streamAll();
+    Stream<Payment> streamByDateRange(LocalDate startDate, LocalDate endDate);
+
+    // Newest first (date, then id, descending), at most limit rows with date >= startDate
+    List<Payment> findRecent(LocalDate startDate, int limit);
+
+    // Largest amounts first, at most limit rows; null filters are ignored, dates inclusive
+    List<Payment> findTopByAmount(PaymentType type, LocalDate startDate, LocalDate endDate, int limit);
+
+    // Null filters are ignored; the date range is inclusive on both ends
+    AmountSummary summarize(PaymentType type, LocalDate startDate, LocalDate endDate);
+
+    // Months with no rows are absent from the map; the date range is inclusive
+    Map<YearMonth, Double> sumByMonth(LocalDate startDate, LocalDate endDate);
+
+    default double sumAmount(PaymentType type, LocalDate startDate, LocalDate endDate) {
+        return summarize(type, startDate, endDate).getTotal();
+    }
+
+    default long count(PaymentType type, LocalDate startDate, LocalDate endDate) {
+        return summarize(type, startDate, endDate).getCount();
+    }
 }
@@ -0,0 +1,10 @@
+package com.gym.dao;
+
+import java.time.LocalDate;
+
+public interface RollupDAO {
+    // Date ranges are inclusive on both ends
+    double sumPayments(LocalDate startDate, LocalDate endDate);
+    double sumExpenses(LocalDate startDate, LocalDate endDate);
+    void rebuild();
+}
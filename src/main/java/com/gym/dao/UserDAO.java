@@ -11,4 +11,6 @@ public interface UserDAO {
     User update(User user);
     boolean delete(int id);
     java.util.List<User> findAll();
+    java.util.List<String> findAllUsernames();
+    long countUsers();
 }
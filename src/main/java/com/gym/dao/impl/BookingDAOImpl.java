@@ -1,92 +1,168 @@
 package com.gym.dao.impl;
 
+import com.gym.dao.Page;
+import com.gym.dao.PageToken;
 import com.gym.dao.BookingDAO;
 import com.gym.model.Booking;
 import com.gym.model.BookingStatus;
 import com.gym.util.DatabaseUtil;
+import com.gym.util.DateCodec;
+import com.gym.util.IndexedRowMapper;
+import com.gym.util.JdbcStreams;
+import com.gym.util.TransactionManager;
 
 import java.sql.*;
 import java.time.LocalDateTime;
-import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 public class BookingDAOImpl implements BookingDAO {
-    
-    private static final DateTimeFormatter DATE_TIME_FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+    // A BOOKED row with a session_id holds one of that session's seats. Run against the
+    // booking before a change to give its seat back, and after it to take the seat again
+    private static final String RELEASE_HELD_SEAT_SQL = "UPDATE class_sessions SET booked_count = booked_count - 1 WHERE id = (SELECT session_id FROM bookings WHERE id = ? AND status = 'BOOKED') AND booked_count > 0";
+    private static final String RESERVE_HELD_SEAT_SQL = "UPDATE class_sessions SET booked_count = booked_count + 1 WHERE id = (SELECT session_id FROM bookings WHERE id = ? AND status = 'BOOKED') AND booked_count < capacity";
     
     @Override
     public Booking save(Booking booking) {
-        String sql = "INSERT INTO bookings (member_id, class_name, booking_time, class_time, status) VALUES (?, ?, ?, ?, ?)";
-        
-        try (Connection conn = DatabaseUtil.getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
-            
-            pstmt.setInt(1, booking.getMemberId());
-            pstmt.setString(2, booking.getClassName());
-            pstmt.setString(3, booking.getBookingTime().format(DATE_TIME_FORMATTER));
-            pstmt.setString(4, booking.getClassTime().format(DATE_TIME_FORMATTER));
-            pstmt.setString(5, booking.getStatus().name());
-            
-            int affectedRows = pstmt.executeUpdate();
-            if (affectedRows == 0) {
-                throw new SQLException("Creating booking failed, no rows affected.");
-            }
+        return TransactionManager.executeWrite(() -> {
+            String sql = "INSERT INTO bookings (member_id, class_name, booking_time, class_time, status, session_id) VALUES (?, ?, ?, ?, ?, ?)";
             
-            try (ResultSet generatedKeys = pstmt.getGeneratedKeys()) {
-                if (generatedKeys.next()) {
-                    booking.setId(generatedKeys.getInt(1));
-                } else {
-                    throw new SQLException("Creating booking failed, no ID obtained.");
+            try (Connection conn = DatabaseUtil.getConnection();
+                 PreparedStatement pstmt = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
+                
+                bindBooking(pstmt, booking);
+                
+                int affectedRows = pstmt.executeUpdate();
+                if (affectedRows == 0) {
+                    throw new SQLException("Creating booking failed, no rows affected.");
                 }
+                
+                try (ResultSet generatedKeys = pstmt.getGeneratedKeys()) {
+                    if (generatedKeys.next()) {
+                        int previousId = booking.getId();
+                        booking.setId(generatedKeys.getInt(1));
+                        TransactionManager.onRollback(() -> booking.setId(previousId));
+                    } else {
+                        throw new SQLException("Creating booking failed, no ID obtained.");
+                    }
+                }
+                
+                return booking;
+            } catch (SQLException e) {
+                throw new RuntimeException("Error saving booking", e);
             }
-            
-            return booking;
-        } catch (SQLException e) {
-            throw new RuntimeException("Error saving booking", e);
-        }
+        });
     }
     
     @Override
     public Booking update(Booking booking) {
-        String sql = "UPDATE bookings SET member_id = ?, class_name = ?, booking_time = ?, class_time = ?, status = ? WHERE id = ?";
-        
-        try (Connection conn = DatabaseUtil.getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+        return TransactionManager.executeWrite(() -> {
+            String sql = "UPDATE bookings SET member_id = ?, class_name = ?, booking_time = ?, class_time = ?, status = ?, session_id = ?, version = version + 1 WHERE id = ? AND version = ?";
             
-            pstmt.setInt(1, booking.getMemberId());
-            pstmt.setString(2, booking.getClassName());
-            pstmt.setString(3, booking.getBookingTime().format(DATE_TIME_FORMATTER));
-            pstmt.setString(4, booking.getClassTime().format(DATE_TIME_FORMATTER));
-            pstmt.setString(5, booking.getStatus().name());
-            pstmt.setInt(6, booking.getId());
+            try (Connection conn = DatabaseUtil.getConnection();
+                 PreparedStatement pstmt = conn.prepareStatement(sql)) {
+                
+                bindBooking(pstmt, booking);
+                pstmt.setInt(7, booking.getId());
+                pstmt.setInt(8, booking.getVersion());
+                
+                int affectedRows = pstmt.executeUpdate();
+                OptimisticLocking.checkUpdated(conn, affectedRows, "bookings", "Booking", booking.getId(), booking.getVersion());
+                
+                int previousVersion = booking.getVersion();
+                booking.setVersion(previousVersion + 1);
+                TransactionManager.onRollback(() -> booking.setVersion(previousVersion));
+                return booking;
+            } catch (SQLException e) {
+                throw new RuntimeException("Error updating booking", e);
+            }
+        });
+    }
+    
+    @Override
+    public boolean delete(int id) {
+        return TransactionManager.executeWrite(() -> {
+            String sql = "DELETE FROM bookings WHERE id = ?";
             
-            int affectedRows = pstmt.executeUpdate();
-            if (affectedRows == 0) {
-                throw new SQLException("Updating booking failed, no rows affected.");
+            try (Connection conn = DatabaseUtil.getConnection();
+                 PreparedStatement release = conn.prepareStatement(RELEASE_HELD_SEAT_SQL);
+                 PreparedStatement pstmt = conn.prepareStatement(sql)) {
+                
+                release.setInt(1, id);
+                release.executeUpdate();
+                pstmt.setInt(1, id);
+                
+                int affectedRows = pstmt.executeUpdate();
+                return affectedRows > 0;
+            } catch (SQLException e) {
+                throw new RuntimeException("Error deleting booking", e);
             }
+        });
+    }
+    
+    @Override
+    public List<Booking> saveAll(Collection<Booking> bookings) {
+        return TransactionManager.executeWrite(() -> {
+            String sql = "INSERT INTO bookings (member_id, class_name, booking_time, class_time, status, session_id) VALUES (?, ?, ?, ?, ?, ?)";
             
-            return booking;
-        } catch (SQLException e) {
-            throw new RuntimeException("Error updating booking", e);
-        }
+            try {
+                return JdbcBatch.insert(sql, bookings, this::bindBooking, Booking::setId);
+            } catch (SQLException e) {
+                throw new RuntimeException("Error saving bookings in batch", e);
+            }
+        });
     }
     
     @Override
-    public boolean delete(int id) {
-        String sql = "DELETE FROM bookings WHERE id = ?";
-        
-        try (Connection conn = DatabaseUtil.getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+    public int updateAll(Collection<Booking> bookings) {
+        return TransactionManager.executeWrite(() -> {
+            // Compare-and-set per row like update(): a row changed since it was read fails the whole batch
+            String sql = "UPDATE bookings SET member_id = ?, class_name = ?, booking_time = ?, class_time = ?, status = ?, session_id = ?, version = version + 1 WHERE id = ? AND version = ?";
             
-            pstmt.setInt(1, id);
+            try {
+                // Seats follow the rows: free what the old rows held, then claim what the new ones hold
+                JdbcBatch.update(RELEASE_HELD_SEAT_SQL, bookings, (pstmt, booking) -> pstmt.setInt(1, booking.getId()));
+                int updated = JdbcBatch.update(sql, bookings, (pstmt, booking) -> {
+                    bindBooking(pstmt, booking);
+                    pstmt.setInt(7, booking.getId());
+                    pstmt.setInt(8, booking.getVersion());
+                }, (conn, booking, affectedRows) -> OptimisticLocking.checkUpdated(
+                        conn, affectedRows, "bookings", "Booking", booking.getId(), booking.getVersion()));
+                for (Booking updatedBooking : bookings) {
+                    int previousVersion = updatedBooking.getVersion();
+                    updatedBooking.setVersion(previousVersion + 1);
+                    TransactionManager.onRollback(() -> updatedBooking.setVersion(previousVersion));
+                }
+                long holding = bookings.stream()
+                        .filter(booking -> booking.getStatus() == BookingStatus.BOOKED && booking.getSessionId() != null)
+                        .count();
+                if (JdbcBatch.update(RESERVE_HELD_SEAT_SQL, bookings, (pstmt, booking) -> pstmt.setInt(1, booking.getId())) < holding) {
+                    throw new IllegalStateException("Class session is full");
+                }
+                return updated;
+            } catch (SQLException e) {
+                throw new RuntimeException("Error updating bookings in batch", e);
+            }
+        });
+    }
+    
+    @Override
+    public int deleteAll(Collection<Integer> ids) {
+        return TransactionManager.executeWrite(() -> {
+            String sql = "DELETE FROM bookings WHERE id = ?";
             
-            int affectedRows = pstmt.executeUpdate();
-            return affectedRows > 0;
-        } catch (SQLException e) {
-            throw new RuntimeException("Error deleting booking", e);
-        }
+            try {
+                JdbcBatch.update(RELEASE_HELD_SEAT_SQL, ids, (pstmt, id) -> pstmt.setInt(1, id));
+                return JdbcBatch.update(sql, ids, (pstmt, id) -> pstmt.setInt(1, id));
+            } catch (SQLException e) {
+                throw new RuntimeException("Error deleting bookings in batch", e);
+            }
+        });
     }
     
     @Override
@@ -100,7 +176,7 @@ public class BookingDAOImpl implements BookingDAO {
             
             try (ResultSet rs = pstmt.executeQuery()) {
                 if (rs.next()) {
-                    return Optional.of(mapResultSetToBooking(rs));
+                    return Optional.of(new BookingRowMapper().map(rs));
                 }
             }
             
@@ -121,8 +197,9 @@ public class BookingDAOImpl implements BookingDAO {
             pstmt.setInt(1, memberId);
             
             try (ResultSet rs = pstmt.executeQuery()) {
+                BookingRowMapper mapper = new BookingRowMapper();
                 while (rs.next()) {
-                    bookings.add(mapResultSetToBooking(rs));
+                    bookings.add(mapper.map(rs));
                 }
             }
             
@@ -132,6 +209,25 @@ public class BookingDAOImpl implements BookingDAO {
         }
     }
     
+    @Override
+    public boolean hasBookingBetween(int memberId, LocalDateTime from, LocalDateTime to) {
+        String sql = "SELECT 1 FROM bookings WHERE member_id = ? AND class_time BETWEEN ? AND ? AND status = 'BOOKED' LIMIT 1";
+        
+        try (Connection conn = DatabaseUtil.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            
+            pstmt.setInt(1, memberId);
+            pstmt.setLong(2, DateCodec.toEpochSecond(from));
+            pstmt.setLong(3, DateCodec.toEpochSecond(to));
+            
+            try (ResultSet rs = pstmt.executeQuery()) {
+                return rs.next();
+            }
+        } catch (SQLException e) {
+            throw new RuntimeException("Error checking bookings in time window", e);
+        }
+    }
+    
     @Override
     public List<Booking> findByClassName(String className) {
         String sql = "SELECT * FROM bookings WHERE class_name = ?";
@@ -143,8 +239,9 @@ public class BookingDAOImpl implements BookingDAO {
             pstmt.setString(1, className);
             
             try (ResultSet rs = pstmt.executeQuery()) {
+                BookingRowMapper mapper = new BookingRowMapper();
                 while (rs.next()) {
-                    bookings.add(mapResultSetToBooking(rs));
+                    bookings.add(mapper.map(rs));
                 }
             }
             
@@ -165,8 +262,9 @@ public class BookingDAOImpl implements BookingDAO {
             pstmt.setString(1, status.name());
             
             try (ResultSet rs = pstmt.executeQuery()) {
+                BookingRowMapper mapper = new BookingRowMapper();
                 while (rs.next()) {
-                    bookings.add(mapResultSetToBooking(rs));
+                    bookings.add(mapper.map(rs));
                 }
             }
             
@@ -176,6 +274,30 @@ public class BookingDAOImpl implements BookingDAO {
         }
     }
     
+    @Override
+    public List<Booking> findByStatusBefore(BookingStatus status, LocalDateTime before) {
+        String sql = "SELECT * FROM bookings WHERE status = ? AND class_time < ? ORDER BY class_time";
+        List<Booking> bookings = new ArrayList<>();
+        
+        try (Connection conn = DatabaseUtil.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            
+            pstmt.setString(1, status.name());
+            pstmt.setLong(2, DateCodec.toEpochSecond(before));
+            
+            try (ResultSet rs = pstmt.executeQuery()) {
+                BookingRowMapper mapper = new BookingRowMapper();
+                while (rs.next()) {
+                    bookings.add(mapper.map(rs));
+                }
+            }
+            
+            return bookings;
+        } catch (SQLException e) {
+            throw new RuntimeException("Error finding bookings by status and time", e);
+        }
+    }
+    
     @Override
     public List<Booking> findByDateRange(LocalDateTime startDate, LocalDateTime endDate) {
         String sql = "SELECT * FROM bookings WHERE class_time BETWEEN ? AND ?";
@@ -184,12 +306,13 @@ public class BookingDAOImpl implements BookingDAO {
         try (Connection conn = DatabaseUtil.getConnection();
              PreparedStatement pstmt = conn.prepareStatement(sql)) {
             
-            pstmt.setString(1, startDate.format(DATE_TIME_FORMATTER));
-            pstmt.setString(2, endDate.format(DATE_TIME_FORMATTER));
+            pstmt.setLong(1, DateCodec.toEpochSecond(startDate));
+            pstmt.setLong(2, DateCodec.toEpochSecond(endDate));
             
             try (ResultSet rs = pstmt.executeQuery()) {
+                BookingRowMapper mapper = new BookingRowMapper();
                 while (rs.next()) {
-                    bookings.add(mapResultSetToBooking(rs));
+                    bookings.add(mapper.map(rs));
                 }
             }
             
@@ -208,8 +331,9 @@ public class BookingDAOImpl implements BookingDAO {
              PreparedStatement pstmt = conn.prepareStatement(sql);
              ResultSet rs = pstmt.executeQuery()) {
             
+            BookingRowMapper mapper = new BookingRowMapper();
             while (rs.next()) {
-                bookings.add(mapResultSetToBooking(rs));
+                bookings.add(mapper.map(rs));
             }
             
             return bookings;
@@ -218,14 +342,241 @@ public class BookingDAOImpl implements BookingDAO {
         }
     }
     
-    private Booking mapResultSetToBooking(ResultSet rs) throws SQLException {
-        Booking booking = new Booking();
-        booking.setId(rs.getInt("id"));
-        booking.setMemberId(rs.getInt("member_id"));
-        booking.setClassName(rs.getString("class_name"));
-        booking.setBookingTime(LocalDateTime.parse(rs.getString("booking_time"), DATE_TIME_FORMATTER));
-        booking.setClassTime(LocalDateTime.parse(rs.getString("class_time"), DATE_TIME_FORMATTER));
-        booking.setStatus(BookingStatus.valueOf(rs.getString("status")));
-        return booking;
+    @Override
+    public long countByClassName(String className) {
+        String sql = "SELECT COUNT(*) FROM bookings WHERE class_name = ?";
+        
+        try (Connection conn = DatabaseUtil.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            
+            pstmt.setString(1, className);
+            
+            try (ResultSet rs = pstmt.executeQuery()) {
+                rs.next();
+                return rs.getLong(1);
+            }
+        } catch (SQLException e) {
+            throw new RuntimeException("Error counting bookings by class name", e);
+        }
+    }
+    
+    @Override
+    public long countByStatus(BookingStatus status) {
+        String sql = "SELECT COUNT(*) FROM bookings WHERE status = ?";
+        
+        try (Connection conn = DatabaseUtil.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            
+            pstmt.setString(1, status.name());
+            
+            try (ResultSet rs = pstmt.executeQuery()) {
+                rs.next();
+                return rs.getLong(1);
+            }
+        } catch (SQLException e) {
+            throw new RuntimeException("Error counting bookings by status", e);
+        }
+    }
+    
+    @Override
+    public long countByDateRange(BookingStatus status, LocalDateTime startDate, LocalDateTime endDate) {
+        String sql = status == null
+                ? "SELECT COUNT(*) FROM bookings WHERE class_time BETWEEN ? AND ?"
+                : "SELECT COUNT(*) FROM bookings WHERE status = ? AND class_time BETWEEN ? AND ?";
+        
+        try (Connection conn = DatabaseUtil.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            
+            int index = 1;
+            if (status != null) {
+                pstmt.setString(index++, status.name());
+            }
+            pstmt.setLong(index++, DateCodec.toEpochSecond(startDate));
+            pstmt.setLong(index, DateCodec.toEpochSecond(endDate));
+            
+            try (ResultSet rs = pstmt.executeQuery()) {
+                rs.next();
+                return rs.getLong(1);
+            }
+        } catch (SQLException e) {
+            throw new RuntimeException("Error counting bookings by date range", e);
+        }
+    }
+    
+    @Override
+    public Map<BookingStatus, Long> countByStatusForMember(int memberId) {
+        String sql = "SELECT status, COUNT(*) AS booking_count FROM bookings WHERE member_id = ? GROUP BY status";
+        Map<BookingStatus, Long> counts = new EnumMap<>(BookingStatus.class);
+        
+        try (Connection conn = DatabaseUtil.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            
+            pstmt.setInt(1, memberId);
+            
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    counts.put(BookingStatus.valueOf(rs.getString("status")), rs.getLong("booking_count"));
+                }
+            }
+            
+            return counts;
+        } catch (SQLException e) {
+            throw new RuntimeException("Error counting member bookings by status", e);
+        }
+    }
+    
+    @Override
+    public long countByMemberBetween(int memberId, LocalDateTime from, LocalDateTime to) {
+        String sql = "SELECT COUNT(*) FROM bookings WHERE member_id = ? AND class_time BETWEEN ? AND ? AND status <> 'CANCELLED'";
+        
+        try (Connection conn = DatabaseUtil.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            
+            pstmt.setInt(1, memberId);
+            pstmt.setLong(2, DateCodec.toEpochSecond(from));
+            pstmt.setLong(3, DateCodec.toEpochSecond(to));
+            
+            try (ResultSet rs = pstmt.executeQuery()) {
+                rs.next();
+                return rs.getLong(1);
+            }
+        } catch (SQLException e) {
+            throw new RuntimeException("Error counting member bookings in time window", e);
+        }
+    }
+    
+    // SQLite has no UPDATE ... LIMIT by default, so the chunk is picked by a subquery that
+    // walks the (status, class_time) index; the version bump makes concurrent update()s conflict
+    @Override
+    public int updateStatusBefore(BookingStatus from, BookingStatus to, LocalDateTime before, int limit) {
+        if (limit < 0) {
+            throw new IllegalArgumentException("Limit must not be negative");
+        }
+        if (limit == 0) {
+            return 0;
+        }
+        
+        return TransactionManager.executeWrite(() -> {
+            String sql = """
+                UPDATE bookings SET status = ?, version = version + 1
+                WHERE id IN (
+                    SELECT id FROM bookings WHERE status = ? AND class_time < ? ORDER BY class_time LIMIT ?
+                )
+            """;
+            
+            try (Connection conn = DatabaseUtil.getConnection();
+                 PreparedStatement pstmt = conn.prepareStatement(sql)) {
+                
+                pstmt.setString(1, to.name());
+                pstmt.setString(2, from.name());
+                pstmt.setLong(3, DateCodec.toEpochSecond(before));
+                pstmt.setInt(4, limit);
+                
+                return pstmt.executeUpdate();
+            } catch (SQLException e) {
+                throw new RuntimeException("Error updating booking status in bulk", e);
+            }
+        });
+    }
+    
+    // Latest class first; (sort key, id) keeps the order stable when keys repeat
+    @Override
+    public Page<Booking> findPage(String pageToken, int pageSize) {
+        String firstPageSql = "SELECT * FROM bookings ORDER BY class_time DESC, id DESC LIMIT ?";
+        String nextPageSql = "SELECT * FROM bookings WHERE (class_time, id) < (?, ?) ORDER BY class_time DESC, id DESC LIMIT ?";
+        
+        try {
+            return KeysetPager.fetch(firstPageSql, nextPageSql, pageToken, pageSize, new BookingRowMapper(),
+                    booking -> new PageToken(DateCodec.toEpochSecond(booking.getClassTime()), booking.getId()));
+        } catch (SQLException e) {
+            throw new RuntimeException("Error finding bookings page", e);
+        }
+    }
+    
+    @Override
+    public Stream<Booking> streamAll() {
+        String sql = "SELECT * FROM bookings";
+        
+        try {
+            return JdbcStreams.stream(sql, pstmt -> {}, new BookingRowMapper());
+        } catch (SQLException e) {
+            throw new RuntimeException("Error streaming all bookings", e);
+        }
+    }
+    
+    @Override
+    public Stream<Booking> streamByDateRange(LocalDateTime startDate, LocalDateTime endDate) {
+        String sql = "SELECT * FROM bookings WHERE class_time BETWEEN ? AND ?";
+        
+        try {
+            return JdbcStreams.stream(sql, pstmt -> {
+                pstmt.setLong(1, DateCodec.toEpochSecond(startDate));
+                pstmt.setLong(2, DateCodec.toEpochSecond(endDate));
+            }, new BookingRowMapper());
+        } catch (SQLException e) {
+            throw new RuntimeException("Error streaming bookings by date range", e);
+        }
+    }
+    
+    @Override
+    public Stream<Booking> streamByStatus(BookingStatus status) {
+        String sql = "SELECT * FROM bookings WHERE status = ?";
+        
+        try {
+            return JdbcStreams.stream(sql, pstmt -> pstmt.setString(1, status.name()), new BookingRowMapper());
+        } catch (SQLException e) {
+            throw new RuntimeException("Error streaming bookings by status", e);
+        }
+    }
+    
+    private void bindBooking(PreparedStatement pstmt, Booking booking) throws SQLException {
+        pstmt.setInt(1, booking.getMemberId());
+        pstmt.setString(2, booking.getClassName());
+        pstmt.setLong(3, DateCodec.toEpochSecond(booking.getBookingTime()));
+        pstmt.setLong(4, DateCodec.toEpochSecond(booking.getClassTime()));
+        pstmt.setString(5, booking.getStatus().name());
+        if (booking.getSessionId() != null) {
+            pstmt.setInt(6, booking.getSessionId());
+        } else {
+            pstmt.setNull(6, Types.INTEGER);
+        }
+    }
+    
+    private static final class BookingRowMapper extends IndexedRowMapper<Booking> {
+        private int id;
+        private int memberId;
+        private int className;
+        private int bookingTime;
+        private int classTime;
+        private int status;
+        private int sessionId;
+        private int version;
+        
+        @Override
+        protected void resolveColumns(ResultSet rs) throws SQLException {
+            id = rs.findColumn("id");
+            memberId = rs.findColumn("member_id");
+            className = rs.findColumn("class_name");
+            bookingTime = rs.findColumn("booking_time");
+            classTime = rs.findColumn("class_time");
+            status = rs.findColumn("status");
+            sessionId = rs.findColumn("session_id");
+            version = rs.findColumn("version");
+        }
+        
+        @Override
+        protected Booking mapRow(ResultSet rs) throws SQLException {
+            Booking booking = new Booking();
+            booking.setId(rs.getInt(id));
+            booking.setMemberId(rs.getInt(memberId));
+            booking.setClassName(rs.getString(className));
+            booking.setBookingTime(DateCodec.fromEpochSecond(rs.getLong(bookingTime)));
+            booking.setClassTime(DateCodec.fromEpochSecond(rs.getLong(classTime)));
+            booking.setStatus(BookingStatus.valueOf(rs.getString(status)));
+            int session = rs.getInt(sessionId);
+            booking.setSessionId(rs.wasNull() ? null : session);
+            booking.setVersion(rs.getInt(version));
+            return booking;
+        }
     }
 }
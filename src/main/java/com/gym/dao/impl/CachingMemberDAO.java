@@ -0,0 +1,192 @@
+package com.gym.dao.impl;
+
+import com.gym.dao.MemberDAO;
+import com.gym.dao.Page;
+import com.gym.model.Member;
+import com.gym.model.MemberSummary;
+import com.gym.util.CacheStats;
+import com.gym.util.LruCache;
+import com.gym.util.TransactionManager;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+/**
+ * Read-through cache for MemberDAO.findById. Writes go straight to the delegate and
+ * invalidate the cached entry. Callers get their own copy of a cached member, so
+ * mutating it before update() cannot leak into other callers.
+ *
+ * Every invalidation bumps a generation counter, and a row loaded from the delegate is
+ * only cached if no invalidation happened while it was being read; otherwise a read
+ * racing an update could put the old row back. Writes made inside a transaction are
+ * invalidated again once it commits. Use shared() so every caller sees the same
+ * invalidations.
+ */
+public class CachingMemberDAO implements MemberDAO {
+    private static final int DEFAULT_MAX_SIZE = 1000;
+    private static final long DEFAULT_TTL_MILLIS = 5 * 60 * 1000L;
+
+    private static CachingMemberDAO shared;
+
+    private final MemberDAO delegate;
+    private final LruCache<Integer, Member> cache;
+    private long generation;
+
+    // Process-wide instance over MemberDAOImpl
+    public static synchronized CachingMemberDAO shared() {
+        if (shared == null) {
+            shared = new CachingMemberDAO(new MemberDAOImpl());
+        }
+        return shared;
+    }
+
+    public CachingMemberDAO(MemberDAO delegate) {
+        this(delegate, DEFAULT_MAX_SIZE, DEFAULT_TTL_MILLIS);
+    }
+
+    public CachingMemberDAO(MemberDAO delegate, int maxSize, long ttlMillis) {
+        this.delegate = delegate;
+        this.cache = new LruCache<>(maxSize, ttlMillis);
+    }
+
+    @Override
+    public Member save(Member member) {
+        Member saved = delegate.save(member);
+        invalidateAfterCommit(saved.getMemberId());
+        return saved;
+    }
+
+    @Override
+    public Optional<Member> findById(int id) {
+        Member cached = cache.get(id);
+        if (cached != null) {
+            return Optional.of(copyOf(cached));
+        }
+
+        long seen = currentGeneration();
+        Optional<Member> loaded = delegate.findById(id);
+        // Rows read inside a transaction may still be rolled back, so only cache committed state
+        if (loaded.isPresent() && !TransactionManager.isActive()) {
+            putIfUnchanged(id, copyOf(loaded.get()), seen);
+        }
+        return loaded;
+    }
+
+    @Override
+    public List<Member> findByUserId(int userId) {
+        return delegate.findByUserId(userId);
+    }
+
+    @Override
+    public List<Member> findAll() {
+        return delegate.findAll();
+    }
+
+    @Override
+    public Stream<Member> streamAll() {
+        return delegate.streamAll();
+    }
+
+    @Override
+    public Page<Member> findPage(String pageToken, int pageSize) {
+        return delegate.findPage(pageToken, pageSize);
+    }
+
+    @Override
+    public Member update(Member member) {
+        try {
+            return delegate.update(member);
+        } finally {
+            invalidateAfterCommit(member.getMemberId());
+        }
+    }
+
+    @Override
+    public boolean delete(int id) {
+        try {
+            return delegate.delete(id);
+        } finally {
+            invalidateAfterCommit(id);
+        }
+    }
+
+    @Override
+    public List<Member> findActiveMembers() {
+        return delegate.findActiveMembers();
+    }
+
+    @Override
+    public List<MemberSummary> findSummaries() {
+        return delegate.findSummaries();
+    }
+
+    @Override
+    public List<MemberSummary> findActiveSummaries() {
+        return delegate.findActiveSummaries();
+    }
+
+    @Override
+    public List<MemberSummary> findSummariesExpiringBetween(LocalDate after, LocalDate before) {
+        return delegate.findSummariesExpiringBetween(after, before);
+    }
+
+    @Override
+    public long countMembers() {
+        return delegate.countMembers();
+    }
+
+    @Override
+    public long countActiveMembers() {
+        return delegate.countActiveMembers();
+    }
+
+    @Override
+    public long countMembersStartedBetween(LocalDate startDate, LocalDate endDate) {
+        return delegate.countMembersStartedBetween(startDate, endDate);
+    }
+
+    @Override
+    public Map<Integer, Long> countMembersByPlan() {
+        return delegate.countMembersByPlan();
+    }
+
+    public CacheStats getStats() {
+        return cache.getStats();
+    }
+
+    public synchronized void invalidateAll() {
+        generation++;
+        cache.invalidateAll();
+    }
+
+    private void invalidateAfterCommit(int id) {
+        invalidate(id);
+        TransactionManager.afterCommit(() -> invalidate(id));
+    }
+
+    private synchronized void invalidate(int id) {
+        generation++;
+        cache.invalidate(id);
+    }
+
+    private synchronized long currentGeneration() {
+        return generation;
+    }
+
+    private synchronized void putIfUnchanged(int id, Member member, long seen) {
+        if (generation == seen) {
+            cache.put(id, member);
+        }
+    }
+
+    private Member copyOf(Member member) {
+        Member copy = new Member(member.getId(), member.getName(), member.getUsername(), member.getPassword(),
+                member.getMemberId(), member.getMembership(), member.getStartDate(), member.getEndDate());
+        copy.setRole(member.getRole());
+        copy.setVersion(member.getVersion());
+        return copy;
+    }
+}
@@ -0,0 +1,237 @@
+package com.gym.dao.impl;
+
+import com.gym.dao.UserDAO;
+import com.gym.model.Admin;
+import com.gym.model.Member;
+import com.gym.model.Receptionist;
+import com.gym.model.User;
+import com.gym.util.BloomFilter;
+import com.gym.util.CacheStats;
+import com.gym.util.LruCache;
+import com.gym.util.TransactionManager;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Username-keyed cache in front of a UserDAO. A Bloom filter over every existing
+ * username answers "no such user" without a database round-trip, which covers
+ * registration duplicate checks and failed logins; known usernames are served from
+ * an LRU cache. The filter is loaded on first use and rebuilt once it outgrows its
+ * sizing, since deleted usernames can only ever cause false positives.
+ *
+ * Usernames saved while there is no filter are kept aside and added when it is
+ * (re)built, because the load may read the table before their rows commit. Use
+ * shared() so a save through one caller is visible to every other caller's filter.
+ *
+ * As in CachingMemberDAO, every invalidation bumps a generation counter and a loaded
+ * user is only cached if none happened during the read, and writes made inside a
+ * transaction are invalidated again once it commits.
+ */
+public class CachingUserDAO implements UserDAO {
+    private static final int DEFAULT_MAX_SIZE = 500;
+    private static final long DEFAULT_TTL_MILLIS = 10 * 60 * 1000L;
+    private static final double BLOOM_FALSE_POSITIVE_RATE = 0.01;
+
+    private static CachingUserDAO shared;
+
+    private final UserDAO delegate;
+    private final LruCache<String, User> cache;
+    private final AtomicLong bloomRejections = new AtomicLong();
+
+    private final List<String> pendingUsernames = new ArrayList<>();
+
+    private BloomFilter usernames;
+    private int bloomCapacity;
+    private int bloomInsertions;
+    private long generation;
+
+    // Process-wide instance over UserDAOImpl
+    public static synchronized CachingUserDAO shared() {
+        if (shared == null) {
+            shared = new CachingUserDAO(new UserDAOImpl());
+        }
+        return shared;
+    }
+
+    public CachingUserDAO(UserDAO delegate) {
+        this(delegate, DEFAULT_MAX_SIZE, DEFAULT_TTL_MILLIS);
+    }
+
+    public CachingUserDAO(UserDAO delegate, int maxSize, long ttlMillis) {
+        this.delegate = delegate;
+        this.cache = new LruCache<>(maxSize, ttlMillis);
+    }
+
+    @Override
+    public User save(User user) {
+        User saved = delegate.save(user);
+        String username = saved.getUsername();
+        rememberUsername(username);
+        invalidate(username);
+        TransactionManager.afterCommit(() -> invalidate(username));
+        return saved;
+    }
+
+    @Override
+    public Optional<User> findById(int id) {
+        return delegate.findById(id);
+    }
+
+    @Override
+    public Optional<User> findByUsername(String username) {
+        if (!mightExist(username)) {
+            bloomRejections.incrementAndGet();
+            return Optional.empty();
+        }
+
+        User cached = cache.get(username);
+        if (cached != null) {
+            return Optional.of(copyOf(cached));
+        }
+
+        long seen = currentGeneration();
+        Optional<User> loaded = delegate.findByUsername(username);
+        if (loaded.isPresent() && !TransactionManager.isActive()) {
+            putIfUnchanged(username, copyOf(loaded.get()), seen);
+        }
+        return loaded;
+    }
+
+    @Override
+    public boolean existsByUsername(String username) {
+        return findByUsername(username).isPresent();
+    }
+
+    @Override
+    public User update(User user) {
+        try {
+            User updated = delegate.update(user);
+            rememberUsername(updated.getUsername());
+            return updated;
+        } finally {
+            // The username itself may have changed, so the old key is unknown here
+            invalidateEntriesAfterCommit();
+        }
+    }
+
+    @Override
+    public boolean delete(int id) {
+        try {
+            return delegate.delete(id);
+        } finally {
+            invalidateEntriesAfterCommit();
+        }
+    }
+
+    @Override
+    public List<User> findAll() {
+        return delegate.findAll();
+    }
+
+    @Override
+    public List<String> findAllUsernames() {
+        return delegate.findAllUsernames();
+    }
+
+    @Override
+    public long countUsers() {
+        return delegate.countUsers();
+    }
+
+    public CacheStats getStats() {
+        return cache.getStats();
+    }
+
+    public long getBloomRejections() {
+        return bloomRejections.get();
+    }
+
+    // Drops the cache and the filter; the filter is reloaded on next use
+    public synchronized void invalidateAll() {
+        generation++;
+        cache.invalidateAll();
+        usernames = null;
+        pendingUsernames.clear();
+    }
+
+    private void invalidateEntriesAfterCommit() {
+        invalidateEntries();
+        TransactionManager.afterCommit(this::invalidateEntries);
+    }
+
+    private synchronized void invalidateEntries() {
+        generation++;
+        cache.invalidateAll();
+    }
+
+    private synchronized void invalidate(String username) {
+        generation++;
+        cache.invalidate(username);
+    }
+
+    private synchronized long currentGeneration() {
+        return generation;
+    }
+
+    private synchronized void putIfUnchanged(String username, User user, long seen) {
+        if (generation == seen) {
+            cache.put(username, user);
+        }
+    }
+
+    private synchronized boolean mightExist(String username) {
+        if (usernames == null) {
+            loadUsernames();
+        }
+        return usernames.mightContain(username);
+    }
+
+    private synchronized void rememberUsername(String username) {
+        if (usernames == null) {
+            pendingUsernames.add(username);
+            return;
+        }
+        if (++bloomInsertions > bloomCapacity) {
+            // Over capacity the false-positive rate climbs; reload with room to grow
+            usernames = null;
+            pendingUsernames.add(username);
+            return;
+        }
+        usernames.add(username);
+    }
+
+    private void loadUsernames() {
+        List<String> existing = delegate.findAllUsernames();
+        bloomCapacity = Math.max(1024, (existing.size() + pendingUsernames.size()) * 2);
+        bloomInsertions = existing.size() + pendingUsernames.size();
+        usernames = new BloomFilter(bloomCapacity, BLOOM_FALSE_POSITIVE_RATE);
+        existing.forEach(usernames::add);
+        pendingUsernames.forEach(usernames::add);
+        pendingUsernames.clear();
+    }
+
+    private User copyOf(User user) {
+        User copy = switch (user.getRole()) {
+            case ADMIN -> {
+                Admin admin = new Admin();
+                admin.setAdminId(((Admin) user).getAdminId());
+                yield admin;
+            }
+            case RECEPTIONIST -> {
+                Receptionist receptionist = new Receptionist();
+                receptionist.setEmployeeId(((Receptionist) user).getEmployeeId());
+                yield receptionist;
+            }
+            case MEMBER -> new Member();
+        };
+        copy.setId(user.getId());
+        copy.setName(user.getName());
+        copy.setUsername(user.getUsername());
+        copy.setPassword(user.getPassword());
+        copy.setRole(user.getRole());
+        return copy;
+    }
+}
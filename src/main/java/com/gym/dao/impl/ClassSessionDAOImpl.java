@@ -0,0 +1,172 @@
+package com.gym.dao.impl;
+
+import com.gym.dao.ClassSessionDAO;
+import com.gym.model.ClassSession;
+import com.gym.util.DatabaseUtil;
+import com.gym.util.DateCodec;
+import com.gym.util.IndexedRowMapper;
+import com.gym.util.TransactionManager;
+
+import java.sql.*;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+public class ClassSessionDAOImpl implements ClassSessionDAO {
+    
+    @Override
+    public ClassSession save(ClassSession session) {
+        return TransactionManager.executeWrite(() -> {
+            String sql = "INSERT INTO class_sessions (class_name, class_time, capacity, booked_count) VALUES (?, ?, ?, ?)";
+            
+            try (Connection conn = DatabaseUtil.getConnection();
+                 PreparedStatement pstmt = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
+                
+                pstmt.setString(1, session.getClassName());
+                pstmt.setLong(2, DateCodec.toEpochSecond(session.getClassTime()));
+                pstmt.setInt(3, session.getCapacity());
+                pstmt.setInt(4, session.getBookedCount());
+                
+                int affectedRows = pstmt.executeUpdate();
+                if (affectedRows == 0) {
+                    throw new SQLException("Creating class session failed, no rows affected.");
+                }
+                
+                try (ResultSet generatedKeys = pstmt.getGeneratedKeys()) {
+                    if (generatedKeys.next()) {
+                        int previousId = session.getId();
+                        session.setId(generatedKeys.getInt(1));
+                        TransactionManager.onRollback(() -> session.setId(previousId));
+                    } else {
+                        throw new SQLException("Creating class session failed, no ID obtained.");
+                    }
+                }
+                
+                return session;
+            } catch (SQLException e) {
+                throw new RuntimeException("Error saving class session", e);
+            }
+        });
+    }
+    
+    @Override
+    public Optional<ClassSession> findById(int id) {
+        String sql = "SELECT * FROM class_sessions WHERE id = ?";
+        
+        try (Connection conn = DatabaseUtil.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            
+            pstmt.setInt(1, id);
+            
+            try (ResultSet rs = pstmt.executeQuery()) {
+                if (rs.next()) {
+                    return Optional.of(new SessionRowMapper().map(rs));
+                }
+            }
+            
+            return Optional.empty();
+        } catch (SQLException e) {
+            throw new RuntimeException("Error finding class session by ID", e);
+        }
+    }
+    
+    @Override
+    public Optional<ClassSession> findByClassAndTime(String className, LocalDateTime classTime) {
+        String sql = "SELECT * FROM class_sessions WHERE class_name = ? AND class_time = ?";
+        
+        try (Connection conn = DatabaseUtil.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            
+            pstmt.setString(1, className);
+            pstmt.setLong(2, DateCodec.toEpochSecond(classTime));
+            
+            try (ResultSet rs = pstmt.executeQuery()) {
+                if (rs.next()) {
+                    return Optional.of(new SessionRowMapper().map(rs));
+                }
+            }
+            
+            return Optional.empty();
+        } catch (SQLException e) {
+            throw new RuntimeException("Error finding class session by class and time", e);
+        }
+    }
+    
+    @Override
+    public List<ClassSession> findByDateRange(LocalDateTime startDate, LocalDateTime endDate) {
+        String sql = "SELECT * FROM class_sessions WHERE class_time BETWEEN ? AND ? ORDER BY class_time";
+        List<ClassSession> sessions = new ArrayList<>();
+        
+        try (Connection conn = DatabaseUtil.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            
+            pstmt.setLong(1, DateCodec.toEpochSecond(startDate));
+            pstmt.setLong(2, DateCodec.toEpochSecond(endDate));
+            
+            try (ResultSet rs = pstmt.executeQuery()) {
+                SessionRowMapper mapper = new SessionRowMapper();
+                while (rs.next()) {
+                    sessions.add(mapper.map(rs));
+                }
+            }
+            
+            return sessions;
+        } catch (SQLException e) {
+            throw new RuntimeException("Error finding class sessions by date range", e);
+        }
+    }
+    
+    @Override
+    public boolean tryReserveSeat(int sessionId) {
+        return adjustSeats("UPDATE class_sessions SET booked_count = booked_count + 1 WHERE id = ? AND booked_count < capacity",
+                sessionId, "Error reserving class session seat");
+    }
+    
+    @Override
+    public boolean releaseSeat(int sessionId) {
+        return adjustSeats("UPDATE class_sessions SET booked_count = booked_count - 1 WHERE id = ? AND booked_count > 0",
+                sessionId, "Error releasing class session seat");
+    }
+    
+    private boolean adjustSeats(String sql, int sessionId, String errorMessage) {
+        return TransactionManager.executeWrite(() -> {
+            try (Connection conn = DatabaseUtil.getConnection();
+                 PreparedStatement pstmt = conn.prepareStatement(sql)) {
+                
+                pstmt.setInt(1, sessionId);
+                return pstmt.executeUpdate() > 0;
+            } catch (SQLException e) {
+                throw new RuntimeException(errorMessage, e);
+            }
+        });
+    }
+    
+    private static final class SessionRowMapper extends IndexedRowMapper<ClassSession> {
+        private int id;
+        private int className;
+        private int classTime;
+        private int capacity;
+        private int bookedCount;
+        
+        @Override
+        protected void resolveColumns(ResultSet rs) throws SQLException {
+            id = rs.findColumn("id");
+            className = rs.findColumn("class_name");
+            classTime = rs.findColumn("class_time");
+            capacity = rs.findColumn("capacity");
+            bookedCount = rs.findColumn("booked_count");
+        }
+        
+        @Override
+        protected ClassSession mapRow(ResultSet rs) throws SQLException {
+            ClassSession session = new ClassSession();
+            session.setId(rs.getInt(id));
+            session.setClassName(rs.getString(className));
+            session.setClassTime(DateCodec.fromEpochSecond(rs.getLong(classTime)));
+            session.setCapacity(rs.getInt(capacity));
+            session.setBookedCount(rs.getInt(bookedCount));
+            return session;
+        }
+    }
+}
@@ -1,87 +1,141 @@
 package com.gym.dao.impl;
 
 import com.gym.dao.ExpenseDAO;
+import com.gym.model.AmountSummary;
 import com.gym.model.Expense;
 import com.gym.model.ExpenseCategory;
 import com.gym.util.DatabaseUtil;
+import com.gym.util.DateCodec;
+import com.gym.util.IndexedRowMapper;
+import com.gym.util.JdbcStreams;
+import com.gym.util.TransactionManager;
 
 import java.sql.*;
 import java.time.LocalDate;
+import java.time.YearMonth;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.stream.Stream;
+import java.util.TreeMap;
 
 public class ExpenseDAOImpl implements ExpenseDAO {
     
     @Override
     public Expense save(Expense expense) {
-        String sql = "INSERT INTO expenses (description, amount, date, category) VALUES (?, ?, ?, ?)";
-        
-        try (Connection conn = DatabaseUtil.getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
-            
-            pstmt.setString(1, expense.getDescription());
-            pstmt.setDouble(2, expense.getAmount());
-            pstmt.setString(3, expense.getDate().toString());
-            pstmt.setString(4, expense.getCategory().name());
-            
-            int affectedRows = pstmt.executeUpdate();
-            if (affectedRows == 0) {
-                throw new SQLException("Creating expense failed, no rows affected.");
-            }
+        return TransactionManager.executeWrite(() -> {
+            String sql = "INSERT INTO expenses (description, amount, date, category) VALUES (?, ?, ?, ?)";
             
-            try (ResultSet generatedKeys = pstmt.getGeneratedKeys()) {
-                if (generatedKeys.next()) {
-                    expense.setId(generatedKeys.getInt(1));
-                } else {
-                    throw new SQLException("Creating expense failed, no ID obtained.");
+            try (Connection conn = DatabaseUtil.getConnection();
+                 PreparedStatement pstmt = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
+                
+                bindExpense(pstmt, expense);
+                
+                int affectedRows = pstmt.executeUpdate();
+                if (affectedRows == 0) {
+                    throw new SQLException("Creating expense failed, no rows affected.");
+                }
+                
+                try (ResultSet generatedKeys = pstmt.getGeneratedKeys()) {
+                    if (generatedKeys.next()) {
+                        int previousId = expense.getId();
+                        expense.setId(generatedKeys.getInt(1));
+                        TransactionManager.onRollback(() -> expense.setId(previousId));
+                    } else {
+                        throw new SQLException("Creating expense failed, no ID obtained.");
+                    }
                 }
+                
+                return expense;
+            } catch (SQLException e) {
+                throw new RuntimeException("Error saving expense", e);
             }
-            
-            return expense;
-        } catch (SQLException e) {
-            throw new RuntimeException("Error saving expense", e);
-        }
+        });
     }
     
     @Override
     public Expense update(Expense expense) {
-        String sql = "UPDATE expenses SET description = ?, amount = ?, date = ?, category = ? WHERE id = ?";
-        
-        try (Connection conn = DatabaseUtil.getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+        return TransactionManager.executeWrite(() -> {
+            String sql = "UPDATE expenses SET description = ?, amount = ?, date = ?, category = ? WHERE id = ?";
             
-            pstmt.setString(1, expense.getDescription());
-            pstmt.setDouble(2, expense.getAmount());
-            pstmt.setString(3, expense.getDate().toString());
-            pstmt.setString(4, expense.getCategory().name());
-            pstmt.setInt(5, expense.getId());
+            try (Connection conn = DatabaseUtil.getConnection();
+                 PreparedStatement pstmt = conn.prepareStatement(sql)) {
+                
+                bindExpense(pstmt, expense);
+                pstmt.setInt(5, expense.getId());
+                
+                int affectedRows = pstmt.executeUpdate();
+                if (affectedRows == 0) {
+                    throw new SQLException("Updating expense failed, no rows affected.");
+                }
+                
+                return expense;
+            } catch (SQLException e) {
+                throw new RuntimeException("Error updating expense", e);
+            }
+        });
+    }
+    
+    @Override
+    public boolean delete(int id) {
+        return TransactionManager.executeWrite(() -> {
+            String sql = "DELETE FROM expenses WHERE id = ?";
             
-            int affectedRows = pstmt.executeUpdate();
-            if (affectedRows == 0) {
-                throw new SQLException("Updating expense failed, no rows affected.");
+            try (Connection conn = DatabaseUtil.getConnection();
+                 PreparedStatement pstmt = conn.prepareStatement(sql)) {
+                
+                pstmt.setInt(1, id);
+                
+                int affectedRows = pstmt.executeUpdate();
+                return affectedRows > 0;
+            } catch (SQLException e) {
+                throw new RuntimeException("Error deleting expense", e);
             }
+        });
+    }
+    
+    @Override
+    public List<Expense> saveAll(Collection<Expense> expenses) {
+        return TransactionManager.executeWrite(() -> {
+            String sql = "INSERT INTO expenses (description, amount, date, category) VALUES (?, ?, ?, ?)";
             
-            return expense;
-        } catch (SQLException e) {
-            throw new RuntimeException("Error updating expense", e);
-        }
+            try {
+                return JdbcBatch.insert(sql, expenses, this::bindExpense, Expense::setId);
+            } catch (SQLException e) {
+                throw new RuntimeException("Error saving expenses in batch", e);
+            }
+        });
     }
     
     @Override
-    public boolean delete(int id) {
-        String sql = "DELETE FROM expenses WHERE id = ?";
-        
-        try (Connection conn = DatabaseUtil.getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+    public int updateAll(Collection<Expense> expenses) {
+        return TransactionManager.executeWrite(() -> {
+            String sql = "UPDATE expenses SET description = ?, amount = ?, date = ?, category = ? WHERE id = ?";
             
-            pstmt.setInt(1, id);
+            try {
+                return JdbcBatch.update(sql, expenses, (pstmt, expense) -> {
+                    bindExpense(pstmt, expense);
+                    pstmt.setInt(5, expense.getId());
+                });
+            } catch (SQLException e) {
+                throw new RuntimeException("Error updating expenses in batch", e);
+            }
+        });
+    }
+    
+    @Override
+    public int deleteAll(Collection<Integer> ids) {
+        return TransactionManager.executeWrite(() -> {
+            String sql = "DELETE FROM expenses WHERE id = ?";
             
-            int affectedRows = pstmt.executeUpdate();
-            return affectedRows > 0;
-        } catch (SQLException e) {
-            throw new RuntimeException("Error deleting expense", e);
-        }
+            try {
+                return JdbcBatch.update(sql, ids, (pstmt, id) -> pstmt.setInt(1, id));
+            } catch (SQLException e) {
+                throw new RuntimeException("Error deleting expenses in batch", e);
+            }
+        });
     }
     
     @Override
@@ -95,7 +149,7 @@ public class ExpenseDAOImpl implements ExpenseDAO {
             
             try (ResultSet rs = pstmt.executeQuery()) {
                 if (rs.next()) {
-                    return Optional.of(mapResultSetToExpense(rs));
+                    return Optional.of(new ExpenseRowMapper().map(rs));
                 }
             }
             
@@ -116,8 +170,9 @@ public class ExpenseDAOImpl implements ExpenseDAO {
             pstmt.setString(1, category.name());
             
             try (ResultSet rs = pstmt.executeQuery()) {
+                ExpenseRowMapper mapper = new ExpenseRowMapper();
                 while (rs.next()) {
-                    expenses.add(mapResultSetToExpense(rs));
+                    expenses.add(mapper.map(rs));
                 }
             }
             
@@ -135,12 +190,13 @@ public class ExpenseDAOImpl implements ExpenseDAO {
         try (Connection conn = DatabaseUtil.getConnection();
              PreparedStatement pstmt = conn.prepareStatement(sql)) {
             
-            pstmt.setString(1, startDate.toString());
-            pstmt.setString(2, endDate.toString());
+            pstmt.setLong(1, DateCodec.toEpochDay(startDate));
+            pstmt.setLong(2, DateCodec.toEpochDay(endDate));
             
             try (ResultSet rs = pstmt.executeQuery()) {
+                ExpenseRowMapper mapper = new ExpenseRowMapper();
                 while (rs.next()) {
-                    expenses.add(mapResultSetToExpense(rs));
+                    expenses.add(mapper.map(rs));
                 }
             }
             
@@ -152,18 +208,19 @@ public class ExpenseDAOImpl implements ExpenseDAO {
     
     @Override
     public List<Expense> findByMonth(int month, int year) {
-        String sql = "SELECT * FROM expenses WHERE strftime('%m', date) = ? AND strftime('%Y', date) = ?";
+        String sql = "SELECT * FROM expenses WHERE date >= ? AND date < ?";
         List<Expense> expenses = new ArrayList<>();
         
         try (Connection conn = DatabaseUtil.getConnection();
              PreparedStatement pstmt = conn.prepareStatement(sql)) {
             
-            pstmt.setString(1, String.format("%02d", month));
-            pstmt.setString(2, String.valueOf(year));
+            pstmt.setLong(1, DateCodec.monthStart(month, year));
+            pstmt.setLong(2, DateCodec.monthEnd(month, year));
             
             try (ResultSet rs = pstmt.executeQuery()) {
+                ExpenseRowMapper mapper = new ExpenseRowMapper();
                 while (rs.next()) {
-                    expenses.add(mapResultSetToExpense(rs));
+                    expenses.add(mapper.map(rs));
                 }
             }
             
@@ -182,8 +239,9 @@ public class ExpenseDAOImpl implements ExpenseDAO {
              PreparedStatement pstmt = conn.prepareStatement(sql);
              ResultSet rs = pstmt.executeQuery()) {
             
+            ExpenseRowMapper mapper = new ExpenseRowMapper();
             while (rs.next()) {
-                expenses.add(mapResultSetToExpense(rs));
+                expenses.add(mapper.map(rs));
             }
             
             return expenses;
@@ -192,13 +250,180 @@ public class ExpenseDAOImpl implements ExpenseDAO {
         }
     }
     
-    private Expense mapResultSetToExpense(ResultSet rs) throws SQLException {
-        Expense expense = new Expense();
-        expense.setId(rs.getInt("id"));
-        expense.setDescription(rs.getString("description"));
-        expense.setAmount(rs.getDouble("amount"));
-        expense.setDate(LocalDate.parse(rs.getString("date")));
-        expense.setCategory(ExpenseCategory.valueOf(rs.getString("category")));
-        return expense;
+    @Override
+    public Stream<Expense> streamAll() {
+        String sql = "SELECT * FROM expenses";
+        
+        try {
+            return JdbcStreams.stream(sql, pstmt -> {}, new ExpenseRowMapper());
+        } catch (SQLException e) {
+            throw new RuntimeException("Error streaming all expenses", e);
+        }
+    }
+    
+    @Override
+    public Stream<Expense> streamByDateRange(LocalDate startDate, LocalDate endDate) {
+        String sql = "SELECT * FROM expenses WHERE date BETWEEN ? AND ?";
+        
+        try {
+            return JdbcStreams.stream(sql, pstmt -> {
+                pstmt.setLong(1, DateCodec.toEpochDay(startDate));
+                pstmt.setLong(2, DateCodec.toEpochDay(endDate));
+            }, new ExpenseRowMapper());
+        } catch (SQLException e) {
+            throw new RuntimeException("Error streaming expenses by date range", e);
+        }
+    }
+    
+    // Largest amounts first; null filters are ignored and the date range is inclusive
+    @Override
+    public List<Expense> findTopByAmount(ExpenseCategory category, LocalDate startDate, LocalDate endDate, int limit) {
+        if (limit < 0) {
+            throw new IllegalArgumentException("Limit must not be negative");
+        }
+        if (limit == 0) {
+            return new ArrayList<>();
+        }
+        StringBuilder sql = new StringBuilder("SELECT * FROM expenses WHERE 1 = 1");
+        if (category != null) {
+            sql.append(" AND category = ?");
+        }
+        if (startDate != null) {
+            sql.append(" AND date >= ?");
+        }
+        if (endDate != null) {
+            sql.append(" AND date <= ?");
+        }
+        sql.append(" ORDER BY amount DESC, id DESC LIMIT ?");
+        List<Expense> expenses = new ArrayList<>(limit);
+        
+        try (Connection conn = DatabaseUtil.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql.toString())) {
+            
+            int index = 1;
+            if (category != null) {
+                pstmt.setString(index++, category.name());
+            }
+            if (startDate != null) {
+                pstmt.setLong(index++, DateCodec.toEpochDay(startDate));
+            }
+            if (endDate != null) {
+                pstmt.setLong(index++, DateCodec.toEpochDay(endDate));
+            }
+            pstmt.setInt(index, limit);
+            
+            try (ResultSet rs = pstmt.executeQuery()) {
+                ExpenseRowMapper mapper = new ExpenseRowMapper();
+                while (rs.next()) {
+                    expenses.add(mapper.map(rs));
+                }
+            }
+            
+            return expenses;
+        } catch (SQLException e) {
+            throw new RuntimeException("Error finding top expenses by amount", e);
+        }
+    }
+    
+    @Override
+    public AmountSummary summarize(ExpenseCategory category, LocalDate startDate, LocalDate endDate) {
+        StringBuilder sql = new StringBuilder(
+                "SELECT COUNT(*), COALESCE(SUM(amount), 0), COALESCE(AVG(amount), 0), " +
+                "COALESCE(MIN(amount), 0), COALESCE(MAX(amount), 0) FROM expenses WHERE 1 = 1");
+        if (category != null) {
+            sql.append(" AND category = ?");
+        }
+        if (startDate != null) {
+            sql.append(" AND date >= ?");
+        }
+        if (endDate != null) {
+            sql.append(" AND date <= ?");
+        }
+        
+        try (Connection conn = DatabaseUtil.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql.toString())) {
+            
+            int index = 1;
+            if (category != null) {
+                pstmt.setString(index++, category.name());
+            }
+            if (startDate != null) {
+                pstmt.setLong(index++, DateCodec.toEpochDay(startDate));
+            }
+            if (endDate != null) {
+                pstmt.setLong(index, DateCodec.toEpochDay(endDate));
+            }
+            
+            try (ResultSet rs = pstmt.executeQuery()) {
+                rs.next();
+                return new AmountSummary(rs.getLong(1), rs.getDouble(2), rs.getDouble(3),
+                        rs.getDouble(4), rs.getDouble(5));
+            }
+        } catch (SQLException e) {
+            throw new RuntimeException("Error summarizing expenses", e);
+        }
+    }
+    
+    @Override
+    public Map<YearMonth, Double> sumByMonth(LocalDate startDate, LocalDate endDate) {
+        String sql = """
+            SELECT strftime('%Y-%m', date * 86400, 'unixepoch') AS month, SUM(amount)
+            FROM expenses
+            WHERE date >= ? AND date <= ?
+            GROUP BY month
+        """;
+        Map<YearMonth, Double> totals = new TreeMap<>();
+        
+        try (Connection conn = DatabaseUtil.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            
+            pstmt.setLong(1, DateCodec.toEpochDay(startDate));
+            pstmt.setLong(2, DateCodec.toEpochDay(endDate));
+            
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    totals.put(YearMonth.parse(rs.getString(1)), rs.getDouble(2));
+                }
+            }
+            
+            return totals;
+        } catch (SQLException e) {
+            throw new RuntimeException("Error summing expenses by month", e);
+        }
+    }
+    
+    private void bindExpense(PreparedStatement pstmt, Expense expense) throws SQLException {
+        pstmt.setString(1, expense.getDescription());
+        pstmt.setDouble(2, expense.getAmount());
+        pstmt.setLong(3, DateCodec.toEpochDay(expense.getDate()));
+        pstmt.setString(4, expense.getCategory().name());
+    }
+    
+    private static final class ExpenseRowMapper extends IndexedRowMapper<Expense> {
+        private int id;
+        private int description;
+        private int amount;
+        private int date;
+        private int category;
+        
+        @Override
+        protected void resolveColumns(ResultSet rs) throws SQLException {
+            id = rs.findColumn("id");
+            description = rs.findColumn("description");
+            amount = rs.findColumn("amount");
+            date = rs.findColumn("date");
+            category = rs.findColumn("category");
+        }
+        
+        @Override
+        protected Expense mapRow(ResultSet rs) throws SQLException {
+            Expense expense = new Expense();
+            expense.setId(rs.getInt(id));
+            expense.setDescription(rs.getString(description));
+            expense.setAmount(rs.getDouble(amount));
+            expense.setDate(DateCodec.fromEpochDay(rs.getLong(date)));
+            expense.setCategory(ExpenseCategory.valueOf(rs.getString(category)));
+            return expense;
+        }
     }
 }
@@ -0,0 +1,142 @@
+package com.gym.dao.impl;
+
+import com.gym.util.DatabaseUtil;
+import com.gym.util.TransactionManager;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Shared addBatch/executeBatch plumbing for the bulk DAO methods. Every call runs in a
+ * single transaction on one connection (joining the caller's TransactionManager
+ * transaction if there is one) and flushes the batch every
+ * DatabaseUtil.getBatchSize() rows to bound driver memory.
+ */
+final class JdbcBatch {
+
+    @FunctionalInterface
+    interface Binder<T> {
+        void bind(PreparedStatement pstmt, T item) throws SQLException;
+    }
+
+    @FunctionalInterface
+    interface IdSetter<T> {
+        void setId(T item, int id);
+    }
+
+    @FunctionalInterface
+    interface RowCheck<T> {
+        void check(Connection conn, T item, int affectedRows) throws SQLException;
+    }
+
+    private JdbcBatch() {}
+
+    static <T> List<T> insert(String sql, Collection<T> items, Binder<T> binder, IdSetter<T> idSetter)
+            throws SQLException {
+        List<T> saved = new ArrayList<>(items);
+        if (saved.isEmpty()) {
+            return saved;
+        }
+
+        int chunkSize = DatabaseUtil.getBatchSize();
+        try (Connection conn = DatabaseUtil.getConnection()) {
+            boolean ownsTransaction = beginIfNeeded(conn);
+            // The items were unsaved, so if the ids never commit they go back to having none
+            TransactionManager.onRollback(() -> saved.forEach(item -> idSetter.setId(item, 0)));
+            try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+                for (int start = 0; start < saved.size(); start += chunkSize) {
+                    List<T> chunk = saved.subList(start, Math.min(start + chunkSize, saved.size()));
+                    for (T item : chunk) {
+                        binder.bind(pstmt, item);
+                        pstmt.addBatch();
+                    }
+                    pstmt.executeBatch();
+                    backFillIds(conn, chunk, idSetter);
+                }
+                if (ownsTransaction) {
+                    conn.commit();
+                }
+            } catch (SQLException | RuntimeException e) {
+                if (ownsTransaction) {
+                    conn.rollback();
+                }
+                throw e;
+            }
+        }
+        return saved;
+    }
+
+    static <T> int update(String sql, Collection<T> items, Binder<T> binder) throws SQLException {
+        return update(sql, items, binder, (conn, item, affectedRows) -> {});
+    }
+
+    // Like update(sql, items, binder), but hands every row's update count to rowCheck
+    // before the batch commits, e.g. to reject a versioned update that matched nothing
+    static <T> int update(String sql, Collection<T> items, Binder<T> binder, RowCheck<T> rowCheck)
+            throws SQLException {
+        List<T> rows = new ArrayList<>(items);
+        if (rows.isEmpty()) {
+            return 0;
+        }
+
+        int chunkSize = DatabaseUtil.getBatchSize();
+        int affected = 0;
+        try (Connection conn = DatabaseUtil.getConnection()) {
+            boolean ownsTransaction = beginIfNeeded(conn);
+            try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+                for (int start = 0; start < rows.size(); start += chunkSize) {
+                    List<T> chunk = rows.subList(start, Math.min(start + chunkSize, rows.size()));
+                    for (T item : chunk) {
+                        binder.bind(pstmt, item);
+                        pstmt.addBatch();
+                    }
+                    int[] results = pstmt.executeBatch();
+                    for (int i = 0; i < chunk.size(); i++) {
+                        int rowCount = results[i] == Statement.SUCCESS_NO_INFO ? 1 : Math.max(results[i], 0);
+                        rowCheck.check(conn, chunk.get(i), rowCount);
+                        affected += rowCount;
+                    }
+                }
+                if (ownsTransaction) {
+                    conn.commit();
+                }
+            } catch (SQLException | RuntimeException e) {
+                if (ownsTransaction) {
+                    conn.rollback();
+                }
+                throw e;
+            }
+        }
+        return affected;
+    }
+
+    private static boolean beginIfNeeded(Connection conn) throws SQLException {
+        if (!conn.getAutoCommit()) {
+            return false;
+        }
+        conn.setAutoCommit(false);
+        return true;
+    }
+
+    // SQLite assigns AUTOINCREMENT ids sequentially and we hold the write lock for the
+    // whole transaction, so the chunk's ids are the contiguous run ending at last_insert_rowid()
+    private static <T> void backFillIds(Connection conn, List<T> chunk, IdSetter<T> idSetter) throws SQLException {
+        try (Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT last_insert_rowid()")) {
+            if (!rs.next()) {
+                throw new SQLException("Batch insert failed, no ID obtained.");
+            }
+            int lastId = rs.getInt(1);
+            int firstId = lastId - chunk.size() + 1;
+            for (int i = 0; i < chunk.size(); i++) {
+                idSetter.setId(chunk.get(i), firstId + i);
+            }
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package com.gym.dao.impl;
+
+import com.gym.dao.Page;
+import com.gym.dao.PageToken;
+import com.gym.util.DatabaseUtil;
+import com.gym.util.JdbcStreams.RowMapper;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Runs seek-style page queries. firstPageSql takes only the LIMIT parameter;
+ * nextPageSql takes the (sort key, id) of the previous page's last row followed by
+ * the LIMIT. One extra row is fetched to know whether another page exists.
+ */
+final class KeysetPager {
+
+    private KeysetPager() {}
+
+    static <T> Page<T> fetch(String firstPageSql, String nextPageSql, String pageToken, int pageSize,
+                             RowMapper<T> mapper, Function<T, PageToken> positionOf) throws SQLException {
+        if (pageSize < 1) {
+            throw new IllegalArgumentException("Page size must be at least 1");
+        }
+
+        PageToken after = pageToken != null ? PageToken.decode(pageToken) : null;
+        List<T> items = new ArrayList<>(pageSize + 1);
+
+        try (Connection conn = DatabaseUtil.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(after == null ? firstPageSql : nextPageSql)) {
+
+            int index = 1;
+            if (after != null) {
+                pstmt.setLong(index++, after.getSortKey());
+                pstmt.setInt(index++, after.getId());
+            }
+            pstmt.setInt(index, pageSize + 1);
+
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    items.add(mapper.map(rs));
+                }
+            }
+        }
+
+        if (items.size() <= pageSize) {
+            return new Page<>(items, null);
+        }
+
+        items.remove(pageSize);
+        return new Page<>(items, positionOf.apply(items.get(pageSize - 1)).encode());
+    }
+}
@@ -1,50 +1,74 @@
 package com.gym.dao.impl;
 
 import com.gym.dao.MemberDAO;
+import com.gym.dao.MembershipPlanDAO;
+import com.gym.dao.Page;
+import com.gym.dao.PageToken;
 import com.gym.model.Member;
+import com.gym.model.MemberSummary;
 import com.gym.model.Membership;
-import com.gym.model.MonthlyMembership;
-import com.gym.model.AnnualMembership;
-import com.gym.model.VIPMembership;
 import com.gym.util.DatabaseUtil;
+import com.gym.util.DateCodec;
+import com.gym.util.IndexedRowMapper;
+import com.gym.util.JdbcStreams;
+import com.gym.util.TransactionManager;
 
 import java.sql.*;
 import java.time.LocalDate;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 public class MemberDAOImpl implements MemberDAO {
     
+    private final MembershipPlanDAO planDAO;
+    
+    public MemberDAOImpl() {
+        this(new MembershipPlanDAOImpl());
+    }
+    
+    public MemberDAOImpl(MembershipPlanDAO planDAO) {
+        this.planDAO = planDAO;
+    }
+    
     @Override
     public Member save(Member member) {
-        String sql = "INSERT INTO members (user_id, membership_type, start_date, end_date) VALUES (?, ?, ?, ?)";
-        
-        try (Connection conn = DatabaseUtil.getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
+        return TransactionManager.executeWrite(() -> {
+            String sql = "INSERT INTO members (user_id, membership_type, start_date, end_date, plan_id) VALUES (?, ?, ?, ?, ?)";
             
-            pstmt.setInt(1, member.getId());
-            pstmt.setString(2, member.getMembership().getClass().getSimpleName());
-            pstmt.setString(3, member.getStartDate() != null ? member.getStartDate().toString() : null);
-            pstmt.setString(4, member.getEndDate() != null ? member.getEndDate().toString() : null);
-            
-            int affectedRows = pstmt.executeUpdate();
-            if (affectedRows == 0) {
-                throw new SQLException("Creating member failed, no rows affected.");
-            }
-            
-            try (ResultSet generatedKeys = pstmt.getGeneratedKeys()) {
-                if (generatedKeys.next()) {
-                    member.setMemberId(generatedKeys.getInt(1));
-                } else {
-                    throw new SQLException("Creating member failed, no ID obtained.");
+            try (Connection conn = DatabaseUtil.getConnection();
+                 PreparedStatement pstmt = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
+                
+                Membership plan = resolvePlan(member.getMembership());
+                pstmt.setInt(1, member.getId());
+                pstmt.setString(2, plan.getClass().getSimpleName());
+                setEpochDay(pstmt, 3, member.getStartDate());
+                setEpochDay(pstmt, 4, member.getEndDate());
+                pstmt.setInt(5, plan.getId());
+                
+                int affectedRows = pstmt.executeUpdate();
+                if (affectedRows == 0) {
+                    throw new SQLException("Creating member failed, no rows affected.");
+                }
+                
+                try (ResultSet generatedKeys = pstmt.getGeneratedKeys()) {
+                    if (generatedKeys.next()) {
+                        int previousId = member.getMemberId();
+                        member.setMemberId(generatedKeys.getInt(1));
+                        TransactionManager.onRollback(() -> member.setMemberId(previousId));
+                    } else {
+                        throw new SQLException("Creating member failed, no ID obtained.");
+                    }
                 }
+                
+                return member;
+            } catch (SQLException e) {
+                throw new RuntimeException("Error saving member", e);
             }
-            
-            return member;
-        } catch (SQLException e) {
-            throw new RuntimeException("Error saving member", e);
-        }
+        });
     }
     
     @Override
@@ -63,7 +87,7 @@ public class MemberDAOImpl implements MemberDAO {
             
             try (ResultSet rs = pstmt.executeQuery()) {
                 if (rs.next()) {
-                    return Optional.of(mapResultSetToMember(rs));
+                    return Optional.of(new MemberRowMapper(planDAO).map(rs));
                 }
             }
             
@@ -89,8 +113,9 @@ public class MemberDAOImpl implements MemberDAO {
             pstmt.setInt(1, userId);
             
             try (ResultSet rs = pstmt.executeQuery()) {
+                MemberRowMapper mapper = new MemberRowMapper(planDAO);
                 while (rs.next()) {
-                    members.add(mapResultSetToMember(rs));
+                    members.add(mapper.map(rs));
                 }
             }
             
@@ -113,8 +138,9 @@ public class MemberDAOImpl implements MemberDAO {
              PreparedStatement pstmt = conn.prepareStatement(sql);
              ResultSet rs = pstmt.executeQuery()) {
             
+            MemberRowMapper mapper = new MemberRowMapper(planDAO);
             while (rs.next()) {
-                members.add(mapResultSetToMember(rs));
+                members.add(mapper.map(rs));
             }
             
             return members;
@@ -124,97 +150,321 @@ public class MemberDAOImpl implements MemberDAO {
     }
     
     @Override
-    public Member update(Member member) {
-        String sql = "UPDATE members SET membership_type = ?, start_date = ?, end_date = ? WHERE id = ?";
+    public Stream<Member> streamAll() {
+        String sql = """
+            SELECT m.*, u.name, u.username, u.password, u.role
+            FROM members m
+            JOIN users u ON m.user_id = u.id
+        """;
         
-        try (Connection conn = DatabaseUtil.getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
-            
-            pstmt.setString(1, member.getMembership().getClass().getSimpleName());
-            pstmt.setString(2, member.getStartDate() != null ? member.getStartDate().toString() : null);
-            pstmt.setString(3, member.getEndDate() != null ? member.getEndDate().toString() : null);
-            pstmt.setInt(4, member.getMemberId());
-            
-            int affectedRows = pstmt.executeUpdate();
-            if (affectedRows == 0) {
-                throw new SQLException("Updating member failed, no rows affected.");
-            }
-            
-            return member;
+        try {
+            return JdbcStreams.stream(sql, pstmt -> {}, new MemberRowMapper(planDAO));
         } catch (SQLException e) {
-            throw new RuntimeException("Error updating member", e);
+            throw new RuntimeException("Error streaming all members", e);
         }
     }
     
     @Override
-    public boolean delete(int id) {
-        String sql = "DELETE FROM members WHERE id = ?";
+    public Page<Member> findPage(String pageToken, int pageSize) {
+        String firstPageSql = """
+            SELECT m.*, u.name, u.username, u.password, u.role
+            FROM members m
+            JOIN users u ON m.user_id = u.id
+            ORDER BY m.user_id, m.id
+            LIMIT ?
+        """;
+        String nextPageSql = """
+            SELECT m.*, u.name, u.username, u.password, u.role
+            FROM members m
+            JOIN users u ON m.user_id = u.id
+            WHERE (m.user_id, m.id) > (?, ?)
+            ORDER BY m.user_id, m.id
+            LIMIT ?
+        """;
         
-        try (Connection conn = DatabaseUtil.getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
-            
-            pstmt.setInt(1, id);
-            
-            int affectedRows = pstmt.executeUpdate();
-            return affectedRows > 0;
+        try {
+            return KeysetPager.fetch(firstPageSql, nextPageSql, pageToken, pageSize, new MemberRowMapper(planDAO),
+                    member -> new PageToken(member.getId(), member.getMemberId()));
         } catch (SQLException e) {
-            throw new RuntimeException("Error deleting member", e);
+            throw new RuntimeException("Error finding members page", e);
         }
     }
     
+    @Override
+    public Member update(Member member) {
+        return TransactionManager.executeWrite(() -> {
+            String sql = "UPDATE members SET membership_type = ?, start_date = ?, end_date = ?, plan_id = ?, version = version + 1 WHERE id = ? AND version = ?";
+            
+            try (Connection conn = DatabaseUtil.getConnection();
+                 PreparedStatement pstmt = conn.prepareStatement(sql)) {
+                
+                Membership plan = resolvePlan(member.getMembership());
+                pstmt.setString(1, plan.getClass().getSimpleName());
+                setEpochDay(pstmt, 2, member.getStartDate());
+                setEpochDay(pstmt, 3, member.getEndDate());
+                pstmt.setInt(4, plan.getId());
+                pstmt.setInt(5, member.getMemberId());
+                pstmt.setInt(6, member.getVersion());
+                
+                int affectedRows = pstmt.executeUpdate();
+                OptimisticLocking.checkUpdated(conn, affectedRows, "members", "Member", member.getMemberId(), member.getVersion());
+                
+                int previousVersion = member.getVersion();
+                member.setVersion(previousVersion + 1);
+                TransactionManager.onRollback(() -> member.setVersion(previousVersion));
+                return member;
+            } catch (SQLException e) {
+                throw new RuntimeException("Error updating member", e);
+            }
+        });
+    }
+    
+    @Override
+    public boolean delete(int id) {
+        return TransactionManager.executeWrite(() -> {
+            String sql = "DELETE FROM members WHERE id = ?";
+            
+            try (Connection conn = DatabaseUtil.getConnection();
+                 PreparedStatement pstmt = conn.prepareStatement(sql)) {
+                
+                pstmt.setInt(1, id);
+                
+                int affectedRows = pstmt.executeUpdate();
+                return affectedRows > 0;
+            } catch (SQLException e) {
+                throw new RuntimeException("Error deleting member", e);
+            }
+        });
+    }
+    
     @Override
     public List<Member> findActiveMembers() {
         String sql = """
             SELECT m.*, u.name, u.username, u.password, u.role 
             FROM members m 
             JOIN users u ON m.user_id = u.id 
-            WHERE m.end_date > date('now')
+            WHERE m.end_date > ?
         """;
         List<Member> members = new ArrayList<>();
         
+        try (Connection conn = DatabaseUtil.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            
+            pstmt.setLong(1, DateCodec.toEpochDay(LocalDate.now()));
+            
+            try (ResultSet rs = pstmt.executeQuery()) {
+                MemberRowMapper mapper = new MemberRowMapper(planDAO);
+                while (rs.next()) {
+                    members.add(mapper.map(rs));
+                }
+            }
+            
+            return members;
+        } catch (SQLException e) {
+            throw new RuntimeException("Error finding active members", e);
+        }
+    }
+    
+    @Override
+    public List<MemberSummary> findSummaries() {
+        String sql = """
+            SELECT m.id, m.user_id, m.plan_id, m.end_date, u.name
+            FROM members m
+            JOIN users u ON m.user_id = u.id
+        """;
+        
+        return findSummaries(sql, pstmt -> {}, "Error finding member summaries");
+    }
+    
+    @Override
+    public List<MemberSummary> findActiveSummaries() {
+        String sql = """
+            SELECT m.id, m.user_id, m.plan_id, m.end_date, u.name
+            FROM members m
+            JOIN users u ON m.user_id = u.id
+            WHERE m.end_date > ?
+        """;
+        
+        return findSummaries(sql, pstmt -> pstmt.setLong(1, DateCodec.toEpochDay(LocalDate.now())),
+                "Error finding active member summaries");
+    }
+    
+    @Override
+    public List<MemberSummary> findSummariesExpiringBetween(LocalDate after, LocalDate before) {
+        String sql = """
+            SELECT m.id, m.user_id, m.plan_id, m.end_date, u.name
+            FROM members m
+            JOIN users u ON m.user_id = u.id
+            WHERE m.end_date > ? AND m.end_date < ?
+            ORDER BY m.end_date
+        """;
+        
+        return findSummaries(sql, pstmt -> {
+            pstmt.setLong(1, DateCodec.toEpochDay(after));
+            pstmt.setLong(2, DateCodec.toEpochDay(before));
+        }, "Error finding expiring member summaries");
+    }
+    
+    @Override
+    public long countMembers() {
+        return count("SELECT COUNT(*) FROM members", pstmt -> {}, "Error counting members");
+    }
+    
+    @Override
+    public long countActiveMembers() {
+        return count("SELECT COUNT(*) FROM members WHERE end_date > ?",
+                pstmt -> pstmt.setLong(1, DateCodec.toEpochDay(LocalDate.now())), "Error counting active members");
+    }
+    
+    @Override
+    public long countMembersStartedBetween(LocalDate startDate, LocalDate endDate) {
+        return count("SELECT COUNT(*) FROM members WHERE start_date BETWEEN ? AND ?", pstmt -> {
+            pstmt.setLong(1, DateCodec.toEpochDay(startDate));
+            pstmt.setLong(2, DateCodec.toEpochDay(endDate));
+        }, "Error counting members by start date");
+    }
+    
+    @Override
+    public Map<Integer, Long> countMembersByPlan() {
+        String sql = "SELECT plan_id, COUNT(*) AS member_count FROM members GROUP BY plan_id";
+        Map<Integer, Long> counts = new HashMap<>();
+        
         try (Connection conn = DatabaseUtil.getConnection();
              PreparedStatement pstmt = conn.prepareStatement(sql);
              ResultSet rs = pstmt.executeQuery()) {
             
             while (rs.next()) {
-                members.add(mapResultSetToMember(rs));
+                counts.put(rs.getInt("plan_id"), rs.getLong("member_count"));
             }
             
-            return members;
+            return counts;
         } catch (SQLException e) {
-            throw new RuntimeException("Error finding active members", e);
+            throw new RuntimeException("Error counting members by plan", e);
         }
     }
     
-    private Member mapResultSetToMember(ResultSet rs) throws SQLException {
-        Member member = new Member();
-        member.setMemberId(rs.getInt("id"));
-        member.setId(rs.getInt("user_id"));
-        member.setName(rs.getString("name"));
-        member.setUsername(rs.getString("username"));
-        member.setPassword(rs.getString("password"));
+    private List<MemberSummary> findSummaries(String sql, JdbcStreams.StatementBinder binder, String errorMessage) {
+        List<MemberSummary> summaries = new ArrayList<>();
         
-        // Map membership type
-        String membershipType = rs.getString("membership_type");
-        Membership membership = switch (membershipType) {
-            case "MonthlyMembership" -> new MonthlyMembership();
-            case "AnnualMembership" -> new AnnualMembership();
-            case "VIPMembership" -> new VIPMembership();
-            default -> new MonthlyMembership(); // Default
-        };
-        member.setMembership(membership);
+        try (Connection conn = DatabaseUtil.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            
+            binder.bind(pstmt);
+            
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    // Plan names come from the cached catalog rather than a join
+                    int planId = rs.getInt(3);
+                    String planName = planDAO.findById(planId).map(Membership::getName).orElse(null);
+                    long endDay = rs.getLong(4);
+                    LocalDate endDate = rs.wasNull() ? null : DateCodec.fromEpochDay(endDay);
+                    summaries.add(new MemberSummary(rs.getInt(1), rs.getInt(2), rs.getString(5), planName, endDate));
+                }
+            }
+            
+            return summaries;
+        } catch (SQLException e) {
+            throw new RuntimeException(errorMessage, e);
+        }
+    }
+    
+    private long count(String sql, JdbcStreams.StatementBinder binder, String errorMessage) {
+        try (Connection conn = DatabaseUtil.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            
+            binder.bind(pstmt);
+            
+            try (ResultSet rs = pstmt.executeQuery()) {
+                rs.next();
+                return rs.getLong(1);
+            }
+        } catch (SQLException e) {
+            throw new RuntimeException(errorMessage, e);
+        }
+    }
+    
+    // Custom Membership objects (e.g. from MembershipService.createMembership) are stored
+    // against the catalog plan of the same type
+    private Membership resolvePlan(Membership membership) {
+        if (membership.getId() > 0) {
+            Optional<Membership> byId = planDAO.findById(membership.getId());
+            if (byId.isPresent() && byId.get().getClass() == membership.getClass()) {
+                return byId.get();
+            }
+        }
+        return planDAO.findByCode(membership.getClass().getSimpleName())
+                .orElseThrow(() -> new IllegalArgumentException(
+                        "No membership plan for " + membership.getClass().getSimpleName()));
+    }
+    
+    private void setEpochDay(PreparedStatement pstmt, int index, LocalDate date) throws SQLException {
+        if (date != null) {
+            pstmt.setLong(index, DateCodec.toEpochDay(date));
+        } else {
+            pstmt.setNull(index, Types.INTEGER);
+        }
+    }
+    
+    private static final class MemberRowMapper extends IndexedRowMapper<Member> {
+        private final MembershipPlanDAO planDAO;
+        private int id;
+        private int userId;
+        private int name;
+        private int username;
+        private int password;
+        private int membershipType;
+        private int planId;
+        private int startDate;
+        private int endDate;
+        private int version;
         
-        // Map dates
-        String startDateStr = rs.getString("start_date");
-        if (startDateStr != null && !startDateStr.isEmpty()) {
-            member.setStartDate(LocalDate.parse(startDateStr));
+        private MemberRowMapper(MembershipPlanDAO planDAO) {
+            this.planDAO = planDAO;
         }
         
-        String endDateStr = rs.getString("end_date");
-        if (endDateStr != null && !endDateStr.isEmpty()) {
-            member.setEndDate(LocalDate.parse(endDateStr));
+        @Override
+        protected void resolveColumns(ResultSet rs) throws SQLException {
+            id = rs.findColumn("id");
+            userId = rs.findColumn("user_id");
+            name = rs.findColumn("name");
+            username = rs.findColumn("username");
+            password = rs.findColumn("password");
+            membershipType = rs.findColumn("membership_type");
+            planId = rs.findColumn("plan_id");
+            startDate = rs.findColumn("start_date");
+            endDate = rs.findColumn("end_date");
+            version = rs.findColumn("version");
         }
         
-        return member;
+        @Override
+        protected Member mapRow(ResultSet rs) throws SQLException {
+            Member member = new Member();
+            member.setMemberId(rs.getInt(id));
+            member.setId(rs.getInt(userId));
+            member.setName(rs.getString(name));
+            member.setUsername(rs.getString(username));
+            member.setPassword(rs.getString(password));
+            
+            // Shared catalog instance; rows written before plan_id existed fall back to the type name
+            int plan = rs.getInt(planId);
+            Optional<Membership> membership = rs.wasNull()
+                    ? planDAO.findByCode(rs.getString(membershipType))
+                    : planDAO.findById(plan);
+            member.setMembership(membership.or(() -> planDAO.findByCode("MonthlyMembership")).orElse(null));
+            
+            // Map dates
+            long startDay = rs.getLong(startDate);
+            if (!rs.wasNull()) {
+                member.setStartDate(DateCodec.fromEpochDay(startDay));
+            }
+            
+            long endDay = rs.getLong(endDate);
+            if (!rs.wasNull()) {
+                member.setEndDate(DateCodec.fromEpochDay(endDay));
+            }
+            
+            member.setVersion(rs.getInt(version));
+            return member;
+        }
     }
 }
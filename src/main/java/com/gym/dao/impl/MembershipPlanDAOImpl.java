@@ -0,0 +1,133 @@
+package com.gym.dao.impl;
+
+import com.gym.dao.MembershipPlanDAO;
+import com.gym.model.AnnualMembership;
+import com.gym.model.Membership;
+import com.gym.model.MonthlyMembership;
+import com.gym.model.VIPMembership;
+import com.gym.util.DatabaseUtil;
+import com.gym.util.TransactionManager;
+
+import java.sql.*;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Flyweight catalog of membership plans. The handful of rows in membership_plans is
+ * loaded once per process into frozen Membership instances that every member mapped
+ * by MemberDAOImpl points at, so loading thousands of members allocates no plans.
+ * The catalog is shared by all instances and reloaded after a price change.
+ */
+public class MembershipPlanDAOImpl implements MembershipPlanDAO {
+    
+    private static volatile Catalog catalog;
+    
+    @Override
+    public List<Membership> findAll() {
+        return catalog().plans;
+    }
+    
+    @Override
+    public Optional<Membership> findById(int id) {
+        return Optional.ofNullable(catalog().byId.get(id));
+    }
+    
+    @Override
+    public Optional<Membership> findByCode(String code) {
+        if (code == null) {
+            return Optional.empty();
+        }
+        return Optional.ofNullable(catalog().byCode.get(code.toLowerCase(Locale.ROOT)));
+    }
+    
+    @Override
+    public Membership updatePrice(int id, double price) {
+        String sql = "UPDATE membership_plans SET price = ? WHERE id = ?";
+        
+        TransactionManager.runWrite(() -> {
+            try (Connection conn = DatabaseUtil.getConnection();
+                 PreparedStatement pstmt = conn.prepareStatement(sql)) {
+                
+                pstmt.setDouble(1, price);
+                pstmt.setInt(2, id);
+                
+                int affectedRows = pstmt.executeUpdate();
+                if (affectedRows == 0) {
+                    throw new SQLException("Updating membership plan failed, no rows affected.");
+                }
+            } catch (SQLException e) {
+                throw new RuntimeException("Error updating membership plan price", e);
+            }
+        });
+        
+        // Members already loaded keep the old instance until they are read again
+        catalog = null;
+        return findById(id).orElseThrow();
+    }
+    
+    private static Catalog catalog() {
+        Catalog current = catalog;
+        if (current == null) {
+            synchronized (MembershipPlanDAOImpl.class) {
+                current = catalog;
+                if (current == null) {
+                    current = loadCatalog();
+                    catalog = current;
+                }
+            }
+        }
+        return current;
+    }
+    
+    private static Catalog loadCatalog() {
+        String sql = "SELECT * FROM membership_plans ORDER BY id";
+        List<Membership> plans = new ArrayList<>();
+        
+        try (Connection conn = DatabaseUtil.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql);
+             ResultSet rs = pstmt.executeQuery()) {
+            
+            while (rs.next()) {
+                plans.add(mapResultSetToPlan(rs));
+            }
+        } catch (SQLException e) {
+            throw new RuntimeException("Error loading membership plans", e);
+        }
+        
+        return new Catalog(plans);
+    }
+    
+    private static Membership mapResultSetToPlan(ResultSet rs) throws SQLException {
+        int id = rs.getInt("id");
+        String code = rs.getString("code");
+        String name = rs.getString("name");
+        double price = rs.getDouble("price");
+        
+        Membership plan = switch (code) {
+            case "AnnualMembership" -> new AnnualMembership(id, name, price);
+            case "VIPMembership" -> new VIPMembership(id, name, price);
+            default -> new MonthlyMembership(id, name, price);
+        };
+        plan.setDurationMonths(rs.getInt("duration_months"));
+        return plan.freeze();
+    }
+    
+    private static final class Catalog {
+        private final List<Membership> plans;
+        private final Map<Integer, Membership> byId = new HashMap<>();
+        private final Map<String, Membership> byCode = new HashMap<>();
+        
+        private Catalog(List<Membership> plans) {
+            this.plans = Collections.unmodifiableList(plans);
+            for (Membership plan : plans) {
+                byId.put(plan.getId(), plan);
+                byCode.put(plan.getClass().getSimpleName().toLowerCase(Locale.ROOT), plan);
+            }
+        }
+    }
+}
@@ -0,0 +1,35 @@
+package com.gym.dao.impl;
+
+import com.gym.dao.OptimisticLockException;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Locale;
+
+/**
+ * Shared check for the versioned updates (UPDATE ... SET version = version + 1
+ * WHERE id = ? AND version = ?). When no row matched, the row either no longer exists
+ * or was changed since the caller read it; only the second is a lock conflict.
+ */
+final class OptimisticLocking {
+
+    private OptimisticLocking() {}
+
+    static void checkUpdated(Connection conn, int affectedRows, String table, String entity,
+                             int id, int expectedVersion) throws SQLException {
+        if (affectedRows > 0) {
+            return;
+        }
+        try (PreparedStatement pstmt = conn.prepareStatement("SELECT 1 FROM " + table + " WHERE id = ?")) {
+            pstmt.setInt(1, id);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                if (rs.next()) {
+                    throw new OptimisticLockException(entity, id, expectedVersion);
+                }
+            }
+        }
+        throw new SQLException("Updating " + entity.toLowerCase(Locale.ROOT) + " failed, no rows affected.");
+    }
+}
@@ -1,87 +1,154 @@
 package com.gym.dao.impl;
 
+import com.gym.dao.Page;
+import com.gym.dao.PageToken;
 import com.gym.dao.PaymentDAO;
+import com.gym.model.AmountSummary;
 import com.gym.model.Payment;
 import com.gym.model.PaymentType;
 import com.gym.util.DatabaseUtil;
+import com.gym.util.DateCodec;
+import com.gym.util.IndexedRowMapper;
+import com.gym.util.JdbcStreams;
+import com.gym.util.TransactionManager;
 
 import java.sql.*;
 import java.time.LocalDate;
+import java.time.YearMonth;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.stream.Stream;
+import java.util.TreeMap;
 
 public class PaymentDAOImpl implements PaymentDAO {
     
     @Override
     public Payment save(Payment payment) {
-        String sql = "INSERT INTO payments (member_id, amount, date, type) VALUES (?, ?, ?, ?)";
-        
-        try (Connection conn = DatabaseUtil.getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
-            
-            pstmt.setInt(1, payment.getMemberId());
-            pstmt.setDouble(2, payment.getAmount());
-            pstmt.setString(3, payment.getDate().toString());
-            pstmt.setString(4, payment.getType().name());
-            
-            int affectedRows = pstmt.executeUpdate();
-            if (affectedRows == 0) {
-                throw new SQLException("Creating payment failed, no rows affected.");
-            }
+        return TransactionManager.executeWrite(() -> {
+            String sql = "INSERT INTO payments (member_id, amount, date, type) VALUES (?, ?, ?, ?)";
             
-            try (ResultSet generatedKeys = pstmt.getGeneratedKeys()) {
-                if (generatedKeys.next()) {
-                    payment.setId(generatedKeys.getInt(1));
-                } else {
-                    throw new SQLException("Creating payment failed, no ID obtained.");
+            try (Connection conn = DatabaseUtil.getConnection();
+                 PreparedStatement pstmt = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
+                
+                bindPayment(pstmt, payment);
+                
+                int affectedRows = pstmt.executeUpdate();
+                if (affectedRows == 0) {
+                    throw new SQLException("Creating payment failed, no rows affected.");
                 }
+                
+                try (ResultSet generatedKeys = pstmt.getGeneratedKeys()) {
+                    if (generatedKeys.next()) {
+                        int previousId = payment.getId();
+                        payment.setId(generatedKeys.getInt(1));
+                        TransactionManager.onRollback(() -> payment.setId(previousId));
+                    } else {
+                        throw new SQLException("Creating payment failed, no ID obtained.");
+                    }
+                }
+                
+                return payment;
+            } catch (SQLException e) {
+                throw new RuntimeException("Error saving payment", e);
             }
-            
-            return payment;
-        } catch (SQLException e) {
-            throw new RuntimeException("Error saving payment", e);
-        }
+        });
     }
     
     @Override
     public Payment update(Payment payment) {
-        String sql = "UPDATE payments SET member_id = ?, amount = ?, date = ?, type = ? WHERE id = ?";
-        
-        try (Connection conn = DatabaseUtil.getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+        return TransactionManager.executeWrite(() -> {
+            String sql = "UPDATE payments SET member_id = ?, amount = ?, date = ?, type = ?, version = version + 1 WHERE id = ? AND version = ?";
             
-            pstmt.setInt(1, payment.getMemberId());
-            pstmt.setDouble(2, payment.getAmount());
-            pstmt.setString(3, payment.getDate().toString());
-            pstmt.setString(4, payment.getType().name());
-            pstmt.setInt(5, payment.getId());
+            try (Connection conn = DatabaseUtil.getConnection();
+                 PreparedStatement pstmt = conn.prepareStatement(sql)) {
+                
+                bindPayment(pstmt, payment);
+                pstmt.setInt(5, payment.getId());
+                pstmt.setInt(6, payment.getVersion());
+                
+                int affectedRows = pstmt.executeUpdate();
+                OptimisticLocking.checkUpdated(conn, affectedRows, "payments", "Payment", payment.getId(), payment.getVersion());
+                
+                int previousVersion = payment.getVersion();
+                payment.setVersion(previousVersion + 1);
+                TransactionManager.onRollback(() -> payment.setVersion(previousVersion));
+                return payment;
+            } catch (SQLException e) {
+                throw new RuntimeException("Error updating payment", e);
+            }
+        });
+    }
+    
+    @Override
+    public boolean delete(int id) {
+        return TransactionManager.executeWrite(() -> {
+            String sql = "DELETE FROM payments WHERE id = ?";
             
-            int affectedRows = pstmt.executeUpdate();
-            if (affectedRows == 0) {
-                throw new SQLException("Updating payment failed, no rows affected.");
+            try (Connection conn = DatabaseUtil.getConnection();
+                 PreparedStatement pstmt = conn.prepareStatement(sql)) {
+                
+                pstmt.setInt(1, id);
+                
+                int affectedRows = pstmt.executeUpdate();
+                return affectedRows > 0;
+            } catch (SQLException e) {
+                throw new RuntimeException("Error deleting payment", e);
             }
+        });
+    }
+    
+    @Override
+    public List<Payment> saveAll(Collection<Payment> payments) {
+        return TransactionManager.executeWrite(() -> {
+            String sql = "INSERT INTO payments (member_id, amount, date, type) VALUES (?, ?, ?, ?)";
             
-            return payment;
-        } catch (SQLException e) {
-            throw new RuntimeException("Error updating payment", e);
-        }
+            try {
+                return JdbcBatch.insert(sql, payments, this::bindPayment, Payment::setId);
+            } catch (SQLException e) {
+                throw new RuntimeException("Error saving payments in batch", e);
+            }
+        });
     }
     
     @Override
-    public boolean delete(int id) {
-        String sql = "DELETE FROM payments WHERE id = ?";
-        
-        try (Connection conn = DatabaseUtil.getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+    public int updateAll(Collection<Payment> payments) {
+        return TransactionManager.executeWrite(() -> {
+            // Compare-and-set per row like update(): a row changed since it was read fails the whole batch
+            String sql = "UPDATE payments SET member_id = ?, amount = ?, date = ?, type = ?, version = version + 1 WHERE id = ? AND version = ?";
             
-            pstmt.setInt(1, id);
+            try {
+                int updated = JdbcBatch.update(sql, payments, (pstmt, payment) -> {
+                    bindPayment(pstmt, payment);
+                    pstmt.setInt(5, payment.getId());
+                    pstmt.setInt(6, payment.getVersion());
+                }, (conn, payment, affectedRows) -> OptimisticLocking.checkUpdated(
+                        conn, affectedRows, "payments", "Payment", payment.getId(), payment.getVersion()));
+                for (Payment updatedPayment : payments) {
+                    int previousVersion = updatedPayment.getVersion();
+                    updatedPayment.setVersion(previousVersion + 1);
+                    TransactionManager.onRollback(() -> updatedPayment.setVersion(previousVersion));
+                }
+                return updated;
+            } catch (SQLException e) {
+                throw new RuntimeException("Error updating payments in batch", e);
+            }
+        });
+    }
+    
+    @Override
+    public int deleteAll(Collection<Integer> ids) {
+        return TransactionManager.executeWrite(() -> {
+            String sql = "DELETE FROM payments WHERE id = ?";
             
-            int affectedRows = pstmt.executeUpdate();
-            return affectedRows > 0;
-        } catch (SQLException e) {
-            throw new RuntimeException("Error deleting payment", e);
-        }
+            try {
+                return JdbcBatch.update(sql, ids, (pstmt, id) -> pstmt.setInt(1, id));
+            } catch (SQLException e) {
+                throw new RuntimeException("Error deleting payments in batch", e);
+            }
+        });
     }
     
     @Override
@@ -95,7 +162,7 @@ public class PaymentDAOImpl implements PaymentDAO {
             
             try (ResultSet rs = pstmt.executeQuery()) {
                 if (rs.next()) {
-                    return Optional.of(mapResultSetToPayment(rs));
+                    return Optional.of(new PaymentRowMapper().map(rs));
                 }
             }
             
@@ -116,8 +183,9 @@ public class PaymentDAOImpl implements PaymentDAO {
             pstmt.setInt(1, memberId);
             
             try (ResultSet rs = pstmt.executeQuery()) {
+                PaymentRowMapper mapper = new PaymentRowMapper();
                 while (rs.next()) {
-                    payments.add(mapResultSetToPayment(rs));
+                    payments.add(mapper.map(rs));
                 }
             }
             
@@ -138,8 +206,9 @@ public class PaymentDAOImpl implements PaymentDAO {
             pstmt.setString(1, type.name());
             
             try (ResultSet rs = pstmt.executeQuery()) {
+                PaymentRowMapper mapper = new PaymentRowMapper();
                 while (rs.next()) {
-                    payments.add(mapResultSetToPayment(rs));
+                    payments.add(mapper.map(rs));
                 }
             }
             
@@ -157,12 +226,13 @@ public class PaymentDAOImpl implements PaymentDAO {
         try (Connection conn = DatabaseUtil.getConnection();
              PreparedStatement pstmt = conn.prepareStatement(sql)) {
             
-            pstmt.setString(1, startDate.toString());
-            pstmt.setString(2, endDate.toString());
+            pstmt.setLong(1, DateCodec.toEpochDay(startDate));
+            pstmt.setLong(2, DateCodec.toEpochDay(endDate));
             
             try (ResultSet rs = pstmt.executeQuery()) {
+                PaymentRowMapper mapper = new PaymentRowMapper();
                 while (rs.next()) {
-                    payments.add(mapResultSetToPayment(rs));
+                    payments.add(mapper.map(rs));
                 }
             }
             
@@ -174,18 +244,19 @@ public class PaymentDAOImpl implements PaymentDAO {
     
     @Override
     public List<Payment> findByMonth(int month, int year) {
-        String sql = "SELECT * FROM payments WHERE strftime('%m', date) = ? AND strftime('%Y', date) = ?";
+        String sql = "SELECT * FROM payments WHERE date >= ? AND date < ?";
         List<Payment> payments = new ArrayList<>();
         
         try (Connection conn = DatabaseUtil.getConnection();
              PreparedStatement pstmt = conn.prepareStatement(sql)) {
             
-            pstmt.setString(1, String.format("%02d", month));
-            pstmt.setString(2, String.valueOf(year));
+            pstmt.setLong(1, DateCodec.monthStart(month, year));
+            pstmt.setLong(2, DateCodec.monthEnd(month, year));
             
             try (ResultSet rs = pstmt.executeQuery()) {
+                PaymentRowMapper mapper = new PaymentRowMapper();
                 while (rs.next()) {
-                    payments.add(mapResultSetToPayment(rs));
+                    payments.add(mapper.map(rs));
                 }
             }
             
@@ -204,8 +275,9 @@ public class PaymentDAOImpl implements PaymentDAO {
              PreparedStatement pstmt = conn.prepareStatement(sql);
              ResultSet rs = pstmt.executeQuery()) {
             
+            PaymentRowMapper mapper = new PaymentRowMapper();
             while (rs.next()) {
-                payments.add(mapResultSetToPayment(rs));
+                payments.add(mapper.map(rs));
             }
             
             return payments;
@@ -214,13 +286,228 @@ public class PaymentDAOImpl implements PaymentDAO {
         }
     }
     
-    private Payment mapResultSetToPayment(ResultSet rs) throws SQLException {
-        Payment payment = new Payment();
-        payment.setId(rs.getInt("id"));
-        payment.setMemberId(rs.getInt("member_id"));
-        payment.setAmount(rs.getDouble("amount"));
-        payment.setDate(LocalDate.parse(rs.getString("date")));
-        payment.setType(PaymentType.valueOf(rs.getString("type")));
-        return payment;
+    // Newest first; (sort key, id) keeps the order stable when keys repeat
+    @Override
+    public Page<Payment> findPage(String pageToken, int pageSize) {
+        String firstPageSql = "SELECT * FROM payments ORDER BY date DESC, id DESC LIMIT ?";
+        String nextPageSql = "SELECT * FROM payments WHERE (date, id) < (?, ?) ORDER BY date DESC, id DESC LIMIT ?";
+        
+        try {
+            return KeysetPager.fetch(firstPageSql, nextPageSql, pageToken, pageSize, new PaymentRowMapper(),
+                    payment -> new PageToken(DateCodec.toEpochDay(payment.getDate()), payment.getId()));
+        } catch (SQLException e) {
+            throw new RuntimeException("Error finding payments page", e);
+        }
+    }
+    
+    @Override
+    public Stream<Payment> streamAll() {
+        String sql = "SELECT * FROM payments";
+        
+        try {
+            return JdbcStreams.stream(sql, pstmt -> {}, new PaymentRowMapper());
+        } catch (SQLException e) {
+            throw new RuntimeException("Error streaming all payments", e);
+        }
+    }
+    
+    @Override
+    public Stream<Payment> streamByDateRange(LocalDate startDate, LocalDate endDate) {
+        String sql = "SELECT * FROM payments WHERE date BETWEEN ? AND ?";
+        
+        try {
+            return JdbcStreams.stream(sql, pstmt -> {
+                pstmt.setLong(1, DateCodec.toEpochDay(startDate));
+                pstmt.setLong(2, DateCodec.toEpochDay(endDate));
+            }, new PaymentRowMapper());
+        } catch (SQLException e) {
+            throw new RuntimeException("Error streaming payments by date range", e);
+        }
+    }
+    
+    // Newest first (ties broken by id), on or after startDate, at most limit rows
+    @Override
+    public List<Payment> findRecent(LocalDate startDate, int limit) {
+        if (limit < 0) {
+            throw new IllegalArgumentException("Limit must not be negative");
+        }
+        if (limit == 0) {
+            return new ArrayList<>();
+        }
+        String sql = "SELECT * FROM payments WHERE date >= ? ORDER BY date DESC, id DESC LIMIT ?";
+        List<Payment> payments = new ArrayList<>();
+        
+        try (Connection conn = DatabaseUtil.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            
+            pstmt.setLong(1, DateCodec.toEpochDay(startDate));
+            pstmt.setInt(2, limit);
+            
+            try (ResultSet rs = pstmt.executeQuery()) {
+                PaymentRowMapper mapper = new PaymentRowMapper();
+                while (rs.next()) {
+                    payments.add(mapper.map(rs));
+                }
+            }
+            
+            return payments;
+        } catch (SQLException e) {
+            throw new RuntimeException("Error finding recent payments", e);
+        }
+    }
+    
+    // Largest amounts first; null filters are ignored and the date range is inclusive
+    @Override
+    public List<Payment> findTopByAmount(PaymentType type, LocalDate startDate, LocalDate endDate, int limit) {
+        if (limit < 0) {
+            throw new IllegalArgumentException("Limit must not be negative");
+        }
+        if (limit == 0) {
+            return new ArrayList<>();
+        }
+        StringBuilder sql = new StringBuilder("SELECT * FROM payments WHERE 1 = 1");
+        if (type != null) {
+            sql.append(" AND type = ?");
+        }
+        if (startDate != null) {
+            sql.append(" AND date >= ?");
+        }
+        if (endDate != null) {
+            sql.append(" AND date <= ?");
+        }
+        sql.append(" ORDER BY amount DESC, id DESC LIMIT ?");
+        List<Payment> payments = new ArrayList<>(limit);
+        
+        try (Connection conn = DatabaseUtil.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql.toString())) {
+            
+            int index = 1;
+            if (type != null) {
+                pstmt.setString(index++, type.name());
+            }
+            if (startDate != null) {
+                pstmt.setLong(index++, DateCodec.toEpochDay(startDate));
+            }
+            if (endDate != null) {
+                pstmt.setLong(index++, DateCodec.toEpochDay(endDate));
+            }
+            pstmt.setInt(index, limit);
+            
+            try (ResultSet rs = pstmt.executeQuery()) {
+                PaymentRowMapper mapper = new PaymentRowMapper();
+                while (rs.next()) {
+                    payments.add(mapper.map(rs));
+                }
+            }
+            
+            return payments;
+        } catch (SQLException e) {
+            throw new RuntimeException("Error finding top payments by amount", e);
+        }
+    }
+    
+    @Override
+    public AmountSummary summarize(PaymentType type, LocalDate startDate, LocalDate endDate) {
+        StringBuilder sql = new StringBuilder(
+                "SELECT COUNT(*), COALESCE(SUM(amount), 0), COALESCE(AVG(amount), 0), " +
+                "COALESCE(MIN(amount), 0), COALESCE(MAX(amount), 0) FROM payments WHERE 1 = 1");
+        if (type != null) {
+            sql.append(" AND type = ?");
+        }
+        if (startDate != null) {
+            sql.append(" AND date >= ?");
+        }
+        if (endDate != null) {
+            sql.append(" AND date <= ?");
+        }
+        
+        try (Connection conn = DatabaseUtil.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql.toString())) {
+            
+            int index = 1;
+            if (type != null) {
+                pstmt.setString(index++, type.name());
+            }
+            if (startDate != null) {
+                pstmt.setLong(index++, DateCodec.toEpochDay(startDate));
+            }
+            if (endDate != null) {
+                pstmt.setLong(index, DateCodec.toEpochDay(endDate));
+            }
+            
+            try (ResultSet rs = pstmt.executeQuery()) {
+                rs.next();
+                return new AmountSummary(rs.getLong(1), rs.getDouble(2), rs.getDouble(3),
+                        rs.getDouble(4), rs.getDouble(5));
+            }
+        } catch (SQLException e) {
+            throw new RuntimeException("Error summarizing payments", e);
+        }
+    }
+    
+    @Override
+    public Map<YearMonth, Double> sumByMonth(LocalDate startDate, LocalDate endDate) {
+        String sql = """
+            SELECT strftime('%Y-%m', date * 86400, 'unixepoch') AS month, SUM(amount)
+            FROM payments
+            WHERE date >= ? AND date <= ?
+            GROUP BY month
+        """;
+        Map<YearMonth, Double> totals = new TreeMap<>();
+        
+        try (Connection conn = DatabaseUtil.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            
+            pstmt.setLong(1, DateCodec.toEpochDay(startDate));
+            pstmt.setLong(2, DateCodec.toEpochDay(endDate));
+            
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    totals.put(YearMonth.parse(rs.getString(1)), rs.getDouble(2));
+                }
+            }
+            
+            return totals;
+        } catch (SQLException e) {
+            throw new RuntimeException("Error summing payments by month", e);
+        }
+    }
+    
+    private void bindPayment(PreparedStatement pstmt, Payment payment) throws SQLException {
+        pstmt.setInt(1, payment.getMemberId());
+        pstmt.setDouble(2, payment.getAmount());
+        pstmt.setLong(3, DateCodec.toEpochDay(payment.getDate()));
+        pstmt.setString(4, payment.getType().name());
+    }
+    
+    private static final class PaymentRowMapper extends IndexedRowMapper<Payment> {
+        private int id;
+        private int memberId;
+        private int amount;
+        private int date;
+        private int type;
+        private int version;
+        
+        @Override
+        protected void resolveColumns(ResultSet rs) throws SQLException {
+            id = rs.findColumn("id");
+            memberId = rs.findColumn("member_id");
+            amount = rs.findColumn("amount");
+            date = rs.findColumn("date");
+            type = rs.findColumn("type");
+            version = rs.findColumn("version");
+        }
+        
+        @Override
+        protected Payment mapRow(ResultSet rs) throws SQLException {
+            Payment payment = new Payment();
+            payment.setId(rs.getInt(id));
+            payment.setMemberId(rs.getInt(memberId));
+            payment.setAmount(rs.getDouble(amount));
+            payment.setDate(DateCodec.fromEpochDay(rs.getLong(date)));
+            payment.setType(PaymentType.valueOf(rs.getString(type)));
+            payment.setVersion(rs.getInt(version));
+            return payment;
+        }
     }
 }
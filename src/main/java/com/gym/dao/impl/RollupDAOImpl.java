@@ -0,0 +1,63 @@
+package com.gym.dao.impl;
+
+import com.gym.dao.RollupDAO;
+import com.gym.util.DatabaseUtil;
+import com.gym.util.DateCodec;
+import com.gym.util.TransactionManager;
+
+import java.sql.*;
+import java.time.LocalDate;
+
+public class RollupDAOImpl implements RollupDAO {
+    
+    @Override
+    public double sumPayments(LocalDate startDate, LocalDate endDate) {
+        return sum("PAYMENT", startDate, endDate);
+    }
+    
+    @Override
+    public double sumExpenses(LocalDate startDate, LocalDate endDate) {
+        return sum("EXPENSE", startDate, endDate);
+    }
+    
+    // Recomputes the whole rollup from the raw tables, e.g. after rows were edited outside the app
+    @Override
+    public void rebuild() {
+        TransactionManager.runWrite(() -> {
+            try (Connection conn = DatabaseUtil.getConnection();
+                 Statement stmt = conn.createStatement()) {
+                
+                stmt.executeUpdate("DELETE FROM daily_rollup");
+                stmt.executeUpdate("""
+                    INSERT INTO daily_rollup (day, source, bucket, total, entry_count)
+                    SELECT date, 'PAYMENT', type, SUM(amount), COUNT(*) FROM payments GROUP BY date, type
+                """);
+                stmt.executeUpdate("""
+                    INSERT INTO daily_rollup (day, source, bucket, total, entry_count)
+                    SELECT date, 'EXPENSE', category, SUM(amount), COUNT(*) FROM expenses GROUP BY date, category
+                """);
+            } catch (SQLException e) {
+                throw new RuntimeException("Error rebuilding daily rollup", e);
+            }
+        });
+    }
+    
+    private double sum(String source, LocalDate startDate, LocalDate endDate) {
+        String sql = "SELECT COALESCE(SUM(total), 0) FROM daily_rollup WHERE source = ? AND day BETWEEN ? AND ?";
+        
+        try (Connection conn = DatabaseUtil.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            
+            pstmt.setString(1, source);
+            pstmt.setLong(2, DateCodec.toEpochDay(startDate));
+            pstmt.setLong(3, DateCodec.toEpochDay(endDate));
+            
+            try (ResultSet rs = pstmt.executeQuery()) {
+                rs.next();
+                return rs.getDouble(1);
+            }
+        } catch (SQLException e) {
+            throw new RuntimeException("Error summing daily rollup", e);
+        }
+    }
+}
@@ -1,9 +1,14 @@
 package com.gym.dao.impl;
 
 import com.gym.dao.UserDAO;
+import com.gym.model.Admin;
+import com.gym.model.Member;
+import com.gym.model.Receptionist;
 import com.gym.model.User;
 import com.gym.model.UserRole;
 import com.gym.util.DatabaseUtil;
+import com.gym.util.IndexedRowMapper;
+import com.gym.util.TransactionManager;
 
 import java.sql.*;
 import java.util.ArrayList;
@@ -14,33 +19,37 @@ public class UserDAOImpl implements UserDAO {
     
     @Override
     public User save(User user) {
-        String sql = "INSERT INTO users (name, username, password, role) VALUES (?, ?, ?, ?)";
-        
-        try (Connection conn = DatabaseUtil.getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
+        return TransactionManager.executeWrite(() -> {
+            String sql = "INSERT INTO users (name, username, password, role) VALUES (?, ?, ?, ?)";
             
-            pstmt.setString(1, user.getName());
-            pstmt.setString(2, user.getUsername());
-            pstmt.setString(3, user.getPassword());
-            pstmt.setString(4, user.getRole().name());
-            
-            int affectedRows = pstmt.executeUpdate();
-            if (affectedRows == 0) {
-                throw new SQLException("Creating user failed, no rows affected.");
-            }
-            
-            try (ResultSet generatedKeys = pstmt.getGeneratedKeys()) {
-                if (generatedKeys.next()) {
-                    user.setId(generatedKeys.getInt(1));
-                } else {
-                    throw new SQLException("Creating user failed, no ID obtained.");
+            try (Connection conn = DatabaseUtil.getConnection();
+                 PreparedStatement pstmt = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
+                
+                pstmt.setString(1, user.getName());
+                pstmt.setString(2, user.getUsername());
+                pstmt.setString(3, user.getPassword());
+                pstmt.setString(4, user.getRole().name());
+                
+                int affectedRows = pstmt.executeUpdate();
+                if (affectedRows == 0) {
+                    throw new SQLException("Creating user failed, no rows affected.");
+                }
+                
+                try (ResultSet generatedKeys = pstmt.getGeneratedKeys()) {
+                    if (generatedKeys.next()) {
+                        int previousId = user.getId();
+                        user.setId(generatedKeys.getInt(1));
+                        TransactionManager.onRollback(() -> user.setId(previousId));
+                    } else {
+                        throw new SQLException("Creating user failed, no ID obtained.");
+                    }
                 }
+                
+                return user;
+            } catch (SQLException e) {
+                throw new RuntimeException("Error saving user", e);
             }
-            
-            return user;
-        } catch (SQLException e) {
-            throw new RuntimeException("Error saving user", e);
-        }
+        });
     }
     
     @Override
@@ -54,7 +63,7 @@ public class UserDAOImpl implements UserDAO {
             
             try (ResultSet rs = pstmt.executeQuery()) {
                 if (rs.next()) {
-                    return Optional.of(mapResultSetToUser(rs));
+                    return Optional.of(new UserRowMapper().map(rs));
                 }
             }
             
@@ -75,7 +84,7 @@ public class UserDAOImpl implements UserDAO {
             
             try (ResultSet rs = pstmt.executeQuery()) {
                 if (rs.next()) {
-                    return Optional.of(mapResultSetToUser(rs));
+                    return Optional.of(new UserRowMapper().map(rs));
                 }
             }
             
@@ -92,42 +101,46 @@ public class UserDAOImpl implements UserDAO {
     
     @Override
     public User update(User user) {
-        String sql = "UPDATE users SET name = ?, username = ?, password = ?, role = ? WHERE id = ?";
-        
-        try (Connection conn = DatabaseUtil.getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
-            
-            pstmt.setString(1, user.getName());
-            pstmt.setString(2, user.getUsername());
-            pstmt.setString(3, user.getPassword());
-            pstmt.setString(4, user.getRole().name());
-            pstmt.setInt(5, user.getId());
+        return TransactionManager.executeWrite(() -> {
+            String sql = "UPDATE users SET name = ?, username = ?, password = ?, role = ? WHERE id = ?";
             
-            int affectedRows = pstmt.executeUpdate();
-            if (affectedRows == 0) {
-                throw new SQLException("Updating user failed, no rows affected.");
+            try (Connection conn = DatabaseUtil.getConnection();
+                 PreparedStatement pstmt = conn.prepareStatement(sql)) {
+                
+                pstmt.setString(1, user.getName());
+                pstmt.setString(2, user.getUsername());
+                pstmt.setString(3, user.getPassword());
+                pstmt.setString(4, user.getRole().name());
+                pstmt.setInt(5, user.getId());
+                
+                int affectedRows = pstmt.executeUpdate();
+                if (affectedRows == 0) {
+                    throw new SQLException("Updating user failed, no rows affected.");
+                }
+                
+                return user;
+            } catch (SQLException e) {
+                throw new RuntimeException("Error updating user", e);
             }
-            
-            return user;
-        } catch (SQLException e) {
-            throw new RuntimeException("Error updating user", e);
-        }
+        });
     }
     
     @Override
     public boolean delete(int id) {
-        String sql = "DELETE FROM users WHERE id = ?";
-        
-        try (Connection conn = DatabaseUtil.getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
-            
-            pstmt.setInt(1, id);
+        return TransactionManager.executeWrite(() -> {
+            String sql = "DELETE FROM users WHERE id = ?";
             
-            int affectedRows = pstmt.executeUpdate();
-            return affectedRows > 0;
-        } catch (SQLException e) {
-            throw new RuntimeException("Error deleting user", e);
-        }
+            try (Connection conn = DatabaseUtil.getConnection();
+                 PreparedStatement pstmt = conn.prepareStatement(sql)) {
+                
+                pstmt.setInt(1, id);
+                
+                int affectedRows = pstmt.executeUpdate();
+                return affectedRows > 0;
+            } catch (SQLException e) {
+                throw new RuntimeException("Error deleting user", e);
+            }
+        });
     }
     
     @Override
@@ -139,8 +152,9 @@ public class UserDAOImpl implements UserDAO {
              PreparedStatement pstmt = conn.prepareStatement(sql);
              ResultSet rs = pstmt.executeQuery()) {
             
+            UserRowMapper mapper = new UserRowMapper();
             while (rs.next()) {
-                users.add(mapResultSetToUser(rs));
+                users.add(mapper.map(rs));
             }
             
             return users;
@@ -149,42 +163,94 @@ public class UserDAOImpl implements UserDAO {
         }
     }
     
-    private User mapResultSetToUser(ResultSet rs) throws SQLException {
-        int id = rs.getInt("id");
-        String name = rs.getString("name");
-        String username = rs.getString("username");
-        String password = rs.getString("password");
-        UserRole role = UserRole.valueOf(rs.getString("role"));
+    @Override
+    public List<String> findAllUsernames() {
+        String sql = "SELECT username FROM users";
+        List<String> usernames = new ArrayList<>();
         
-        // Create appropriate user type based on role
-        return switch (role) {
-            case ADMIN -> {
-                Admin admin = new Admin();
-                admin.setId(id);
-                admin.setName(name);
-                admin.setUsername(username);
-                admin.setPassword(password);
-                admin.setRole(role);
-                yield admin;
-            }
-            case RECEPTIONIST -> {
-                Receptionist receptionist = new Receptionist();
-                receptionist.setId(id);
-                receptionist.setName(name);
-                receptionist.setUsername(username);
-                receptionist.setPassword(password);
-                receptionist.setRole(role);
-                yield receptionist;
-            }
-            case MEMBER -> {
-                Member member = new Member();
-                member.setId(id);
-                member.setName(name);
-                member.setUsername(username);
-                member.setPassword(password);
-                member.setRole(role);
-                yield member;
+        try (Connection conn = DatabaseUtil.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql);
+             ResultSet rs = pstmt.executeQuery()) {
+            
+            while (rs.next()) {
+                usernames.add(rs.getString(1));
             }
-        };
+            
+            return usernames;
+        } catch (SQLException e) {
+            throw new RuntimeException("Error finding all usernames", e);
+        }
+    }
+    
+    @Override
+    public long countUsers() {
+        String sql = "SELECT COUNT(*) FROM users";
+        
+        try (Connection conn = DatabaseUtil.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql);
+             ResultSet rs = pstmt.executeQuery()) {
+            
+            rs.next();
+            return rs.getLong(1);
+        } catch (SQLException e) {
+            throw new RuntimeException("Error counting users", e);
+        }
+    }
+    
+    private static final class UserRowMapper extends IndexedRowMapper<User> {
+        private int idColumn;
+        private int nameColumn;
+        private int usernameColumn;
+        private int passwordColumn;
+        private int roleColumn;
+        
+        @Override
+        protected void resolveColumns(ResultSet rs) throws SQLException {
+            idColumn = rs.findColumn("id");
+            nameColumn = rs.findColumn("name");
+            usernameColumn = rs.findColumn("username");
+            passwordColumn = rs.findColumn("password");
+            roleColumn = rs.findColumn("role");
+        }
+        
+        @Override
+        protected User mapRow(ResultSet rs) throws SQLException {
+            int id = rs.getInt(idColumn);
+            String name = rs.getString(nameColumn);
+            String username = rs.getString(usernameColumn);
+            String password = rs.getString(passwordColumn);
+            UserRole role = UserRole.valueOf(rs.getString(roleColumn));
+        
+            // Create appropriate user type based on role
+            return switch (role) {
+                case ADMIN -> {
+                    Admin admin = new Admin();
+                    admin.setId(id);
+                    admin.setName(name);
+                    admin.setUsername(username);
+                    admin.setPassword(password);
+                    admin.setRole(role);
+                    yield admin;
+                }
+                case RECEPTIONIST -> {
+                    Receptionist receptionist = new Receptionist();
+                    receptionist.setId(id);
+                    receptionist.setName(name);
+                    receptionist.setUsername(username);
+                    receptionist.setPassword(password);
+                    receptionist.setRole(role);
+                    yield receptionist;
+                }
+                case MEMBER -> {
+                    Member member = new Member();
+                    member.setId(id);
+                    member.setName(name);
+                    member.setUsername(username);
+                    member.setPassword(password);
+                    member.setRole(role);
+                    yield member;
+                }
+            };
+        }
     }
 }
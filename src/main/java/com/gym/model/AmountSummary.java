@@ -0,0 +1,48 @@
+package com.gym.model;
+
+public class AmountSummary {
+    private final long count;
+    private final double total;
+    private final double average;
+    private final double min;
+    private final double max;
+
+    public AmountSummary(long count, double total, double average, double min, double max) {
+        this.count = count;
+        this.total = total;
+        this.average = average;
+        this.min = min;
+        this.max = max;
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public double getTotal() {
+        return total;
+    }
+
+    public double getAverage() {
+        return average;
+    }
+
+    public double getMin() {
+        return min;
+    }
+
+    public double getMax() {
+        return max;
+    }
+
+    @Override
+    public String toString() {
+        return "AmountSummary{" +
+                "count=" + count +
+                ", total=" + total +
+                ", average=" + average +
+                ", min=" + min +
+                ", max=" + max +
+                '}';
+    }
+}
@@ -9,6 +9,10 @@ public class Booking {
     private LocalDateTime bookingTime;
     private LocalDateTime classTime;
     private BookingStatus status;
+    // Set when the booking holds a seat in a capacity-limited ClassSession
+    private Integer sessionId;
+    // Bumped on every update; update() only succeeds against the version it was read at
+    private int version;
 
     public Booking() {}
 
@@ -69,6 +73,22 @@ public class Booking {
         this.status = status;
     }
 
+    public Integer getSessionId() {
+        return sessionId;
+    }
+
+    public void setSessionId(Integer sessionId) {
+        this.sessionId = sessionId;
+    }
+
+    public int getVersion() {
+        return version;
+    }
+
+    public void setVersion(int version) {
+        this.version = version;
+    }
+
     @Override
     public String toString() {
         return "Booking{" +
@@ -78,6 +98,7 @@ public class Booking {
                 ", bookingTime=" + bookingTime +
                 ", classTime=" + classTime +
                 ", status=" + status +
+                ", sessionId=" + sessionId +
                 '}';
     }
 }
@@ -0,0 +1,80 @@
+package com.gym.model;
+
+import java.time.LocalDateTime;
+
+public class ClassSession {
+    private int id;
+    private String className;
+    private LocalDateTime classTime;
+    private int capacity;
+    private int bookedCount;
+
+    public ClassSession() {}
+
+    public ClassSession(int id, String className, LocalDateTime classTime, int capacity) {
+        this.id = id;
+        this.className = className;
+        this.classTime = classTime;
+        this.capacity = capacity;
+        this.bookedCount = 0;
+    }
+
+    public int getId() {
+        return id;
+    }
+
+    public void setId(int id) {
+        this.id = id;
+    }
+
+    public String getClassName() {
+        return className;
+    }
+
+    public void setClassName(String className) {
+        this.className = className;
+    }
+
+    public LocalDateTime getClassTime() {
+        return classTime;
+    }
+
+    public void setClassTime(LocalDateTime classTime) {
+        this.classTime = classTime;
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    public void setCapacity(int capacity) {
+        this.capacity = capacity;
+    }
+
+    public int getBookedCount() {
+        return bookedCount;
+    }
+
+    public void setBookedCount(int bookedCount) {
+        this.bookedCount = bookedCount;
+    }
+
+    public int getAvailableSpots() {
+        return capacity - bookedCount;
+    }
+
+    public boolean isFull() {
+        return bookedCount >= capacity;
+    }
+
+    @Override
+    public String toString() {
+        return "ClassSession{" +
+                "id=" + id +
+                ", className='" + className + '\'' +
+                ", classTime=" + classTime +
+                ", capacity=" + capacity +
+                ", bookedCount=" + bookedCount +
+                '}';
+    }
+}
@@ -55,6 +55,14 @@ public class FinancialReport {
         return netCashFlow;
     }
 
+    public double getTotalRevenue() {
+        return totalIncome;
+    }
+
+    public double getNetProfit() {
+        return netCashFlow;
+    }
+
     @Override
     public String toString() {
         return "FinancialReport{" +
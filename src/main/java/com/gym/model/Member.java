@@ -7,6 +7,8 @@ public class Member extends User {
     private Membership membership;
     private LocalDate startDate;
     private LocalDate endDate;
+    // Version of the members row, not the users row
+    private int version;
 
     public Member() {
         super();
@@ -58,6 +60,14 @@ public class Member extends User {
         return endDate != null && endDate.isAfter(LocalDate.now());
     }
 
+    public int getVersion() {
+        return version;
+    }
+
+    public void setVersion(int version) {
+        this.version = version;
+    }
+
     @Override
     public String toString() {
         return "Member{" +
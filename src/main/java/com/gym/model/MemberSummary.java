@@ -0,0 +1,58 @@
+package com.gym.model;
+
+import java.time.LocalDate;
+
+/**
+ * Read-only projection of a member for list screens and reports. Carries no
+ * credentials and no Membership object, only the plan's display name.
+ */
+public class MemberSummary {
+    private final int memberId;
+    private final int userId;
+    private final String name;
+    private final String planName;
+    private final LocalDate endDate;
+
+    public MemberSummary(int memberId, int userId, String name, String planName, LocalDate endDate) {
+        this.memberId = memberId;
+        this.userId = userId;
+        this.name = name;
+        this.planName = planName;
+        this.endDate = endDate;
+    }
+
+    public int getMemberId() {
+        return memberId;
+    }
+
+    public int getUserId() {
+        return userId;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public String getPlanName() {
+        return planName;
+    }
+
+    public LocalDate getEndDate() {
+        return endDate;
+    }
+
+    public boolean isMembershipActive() {
+        return endDate != null && endDate.isAfter(LocalDate.now());
+    }
+
+    @Override
+    public String toString() {
+        return "MemberSummary{" +
+                "memberId=" + memberId +
+                ", userId=" + userId +
+                ", name='" + name + '\'' +
+                ", planName='" + planName + '\'' +
+                ", endDate=" + endDate +
+                '}';
+    }
+}
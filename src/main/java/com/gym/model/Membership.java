@@ -5,6 +5,8 @@ public abstract class Membership {
     private String name;
     private double price;
     private int durationMonths;
+    // Catalog plans are shared by every loaded member, so they are frozen once built
+    private boolean frozen;
 
     public Membership() {}
 
@@ -20,6 +22,7 @@ public abstract class Membership {
     }
 
     public void setId(int id) {
+        checkMutable();
         this.id = id;
     }
 
@@ -28,6 +31,7 @@ public abstract class Membership {
     }
 
     public void setName(String name) {
+        checkMutable();
         this.name = name;
     }
 
@@ -36,6 +40,7 @@ public abstract class Membership {
     }
 
     public void setPrice(double price) {
+        checkMutable();
         this.price = price;
     }
 
@@ -44,9 +49,25 @@ public abstract class Membership {
     }
 
     public void setDurationMonths(int durationMonths) {
+        checkMutable();
         this.durationMonths = durationMonths;
     }
 
+    public Membership freeze() {
+        this.frozen = true;
+        return this;
+    }
+
+    public boolean isFrozen() {
+        return frozen;
+    }
+
+    private void checkMutable() {
+        if (frozen) {
+            throw new IllegalStateException("Catalog membership plans are shared and cannot be modified");
+        }
+    }
+
     public abstract double calculateDiscount();
     public abstract String getBenefits();
 
@@ -8,6 +8,7 @@ public class Payment {
     private double amount;
     private LocalDate date;
     private PaymentType type;
+    private int version;
 
     public Payment() {}
 
@@ -59,6 +60,14 @@ public class Payment {
         this.type = type;
     }
 
+    public int getVersion() {
+        return version;
+    }
+
+    public void setVersion(int version) {
+        this.version = version;
+    }
+
     @Override
     public String toString() {
         return "Payment{" +
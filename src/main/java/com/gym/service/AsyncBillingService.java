@@ -0,0 +1,54 @@
+package com.gym.service;
+
+import com.gym.model.Membership;
+import com.gym.model.Payment;
+import com.gym.util.DatabaseExecutor;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * CompletableFuture variants of the BillingService calls used from the UI, run on the
+ * shared DatabaseExecutor.
+ */
+public class AsyncBillingService {
+    private final BillingService billingService;
+    private final DatabaseExecutor executor;
+
+    public AsyncBillingService(BillingService billingService, DatabaseExecutor executor) {
+        this.billingService = billingService;
+        this.executor = executor;
+    }
+
+    public CompletableFuture<Payment> recordMembershipPayment(int memberId, double amount) {
+        return executor.submit(() -> billingService.recordMembershipPayment(memberId, amount));
+    }
+
+    public CompletableFuture<Payment> recordClassPayment(int memberId, double amount) {
+        return executor.submit(() -> billingService.recordClassPayment(memberId, amount));
+    }
+
+    public CompletableFuture<Payment> recordOtherPayment(int memberId, double amount) {
+        return executor.submit(() -> billingService.recordOtherPayment(memberId, amount));
+    }
+
+    public CompletableFuture<Boolean> processMembershipRenewal(int memberId, Membership newMembership) {
+        return executor.submit(() -> billingService.processMembershipRenewal(memberId, newMembership));
+    }
+
+    public CompletableFuture<List<Payment>> getPaymentsByMember(int memberId) {
+        return executor.submit(() -> billingService.getPaymentsByMember(memberId));
+    }
+
+    public CompletableFuture<List<Payment>> getRecentPayments(int days) {
+        return executor.submit(() -> billingService.getRecentPayments(days));
+    }
+
+    public CompletableFuture<List<Payment>> getRecentPayments(int days, int limit) {
+        return executor.submit(() -> billingService.getRecentPayments(days, limit));
+    }
+
+    public CompletableFuture<Double> getMonthlyRevenue(int month, int year) {
+        return executor.submit(() -> billingService.getMonthlyRevenue(month, year));
+    }
+}
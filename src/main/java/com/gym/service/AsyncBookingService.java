@@ -0,0 +1,60 @@
+package com.gym.service;
+
+import com.gym.model.Booking;
+import com.gym.model.ClassSession;
+import com.gym.util.DatabaseExecutor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * CompletableFuture variants of the BookingService calls used from the UI. Each call
+ * runs the synchronous method on the shared DatabaseExecutor, so business rules and
+ * transactions stay in BookingService.
+ */
+public class AsyncBookingService {
+    private final BookingService bookingService;
+    private final DatabaseExecutor executor;
+
+    public AsyncBookingService(BookingService bookingService, DatabaseExecutor executor) {
+        this.bookingService = bookingService;
+        this.executor = executor;
+    }
+
+    public CompletableFuture<Booking> bookClass(int memberId, String className, LocalDateTime classTime) {
+        return executor.submit(() -> bookingService.bookClass(memberId, className, classTime));
+    }
+
+    public CompletableFuture<Booking> bookSession(int memberId, int sessionId) {
+        return executor.submit(() -> bookingService.bookSession(memberId, sessionId));
+    }
+
+    public CompletableFuture<Booking> cancelBooking(int bookingId) {
+        return executor.submit(() -> bookingService.cancelBooking(bookingId));
+    }
+
+    public CompletableFuture<Void> markNoShow(int bookingId) {
+        return executor.run(() -> bookingService.markNoShow(bookingId));
+    }
+
+    public CompletableFuture<Void> markCompleted(int bookingId) {
+        return executor.run(() -> bookingService.markCompleted(bookingId));
+    }
+
+    public CompletableFuture<List<Booking>> getUpcomingBookings(int memberId) {
+        return executor.submit(() -> bookingService.getUpcomingBookings(memberId));
+    }
+
+    public CompletableFuture<List<Booking>> getBookingsByDateRange(LocalDateTime startDate, LocalDateTime endDate) {
+        return executor.submit(() -> bookingService.getBookingsByDateRange(startDate, endDate));
+    }
+
+    public CompletableFuture<List<ClassSession>> getSessionsByDateRange(LocalDateTime startDate, LocalDateTime endDate) {
+        return executor.submit(() -> bookingService.getSessionsByDateRange(startDate, endDate));
+    }
+
+    public CompletableFuture<Long> getActiveBookingCount() {
+        return executor.submit(bookingService::getActiveBookingCount);
+    }
+}
@@ -0,0 +1,40 @@
+package com.gym.service;
+
+import com.gym.model.FinancialReport;
+import com.gym.util.DatabaseExecutor;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * CompletableFuture variants of the FinancialService reports, run on the shared
+ * DatabaseExecutor. Cancel the returned future when the screen that asked for a
+ * report is closed.
+ */
+public class AsyncFinancialService {
+    private final FinancialService financialService;
+    private final DatabaseExecutor executor;
+
+    public AsyncFinancialService(FinancialService financialService, DatabaseExecutor executor) {
+        this.financialService = financialService;
+        this.executor = executor;
+    }
+
+    public CompletableFuture<FinancialReport> generateMonthlyReport(int month, int year) {
+        return executor.submit(() -> financialService.generateMonthlyReport(month, year));
+    }
+
+    public CompletableFuture<FinancialReport> generateDateRangeReport(LocalDate startDate, LocalDate endDate) {
+        return executor.submit(() -> financialService.generateDateRangeReport(startDate, endDate));
+    }
+
+    public CompletableFuture<FinancialReport> generateAnnualReport(int year) {
+        return executor.submit(() -> financialService.generateAnnualReport(year));
+    }
+
+    public CompletableFuture<Map<YearMonth, FinancialReport>> getMonthlyTotals(int year) {
+        return executor.submit(() -> financialService.getMonthlyTotals(year));
+    }
+}
@@ -5,12 +5,18 @@ import com.gym.model.Member;
 import com.gym.model.Membership;
 import com.gym.model.Payment;
 import com.gym.model.PaymentType;
+import com.gym.util.TopK;
+import com.gym.util.TransactionManager;
 
 import java.time.LocalDate;
+import java.util.Comparator;
 import java.util.List;
 import java.util.Optional;
 
 public class BillingService {
+    // Cap for getRecentPayments(days) so a long window cannot load the whole table
+    public static final int RECENT_PAYMENTS_LIMIT = 500;
+
     private final PaymentDAO paymentDAO;
     private final MembershipService membershipService;
 
@@ -97,6 +103,12 @@ public class BillingService {
                 .sum();
     }
 
+    // A member's history is small and already loaded, so rank it in memory
+    public List<Payment> getLargestPaymentsByMember(int memberId, int limit) {
+        return paymentDAO.findByMemberId(memberId).stream()
+                .collect(TopK.largest(limit, Comparator.comparingDouble(Payment::getAmount)));
+    }
+
     public double calculateMembershipFee(Membership membership) {
         return membershipService.calculateMembershipPrice(membership);
     }
@@ -104,8 +116,13 @@ public class BillingService {
     public boolean processMembershipRenewal(int memberId, Membership newMembership) {
         try {
             double fee = calculateMembershipFee(newMembership);
-            recordMembershipPayment(memberId, fee);
-            membershipService.renewMembership(memberId, newMembership);
+            // Payment and renewal commit together so a failed renewal never leaves a charge behind
+            TransactionManager.runWrite(() -> {
+                recordMembershipPayment(memberId, fee);
+                if (!membershipService.renewMembership(memberId, newMembership)) {
+                    throw new IllegalStateException("Membership renewal failed for member " + memberId);
+                }
+            });
             return true;
         } catch (Exception e) {
             return false;
@@ -134,27 +151,20 @@ public class BillingService {
     }
 
     public double getTotalRevenue() {
-        return paymentDAO.findAll().stream()
-                .mapToDouble(Payment::getAmount)
-                .sum();
+        return paymentDAO.sumAmount(null, null, null);
     }
 
     public double getRevenueByType(PaymentType type) {
-        return paymentDAO.findByType(type).stream()
-                .mapToDouble(Payment::getAmount)
-                .sum();
+        return paymentDAO.sumAmount(type, null, null);
     }
 
     public double getRevenueByDateRange(LocalDate startDate, LocalDate endDate) {
-        return paymentDAO.findByDateRange(startDate, endDate).stream()
-                .mapToDouble(Payment::getAmount)
-                .sum();
+        return paymentDAO.sumAmount(null, startDate, endDate);
     }
 
     public double getMonthlyRevenue(int month, int year) {
-        return paymentDAO.findByMonth(month, year).stream()
-                .mapToDouble(Payment::getAmount)
-                .sum();
+        LocalDate firstDay = LocalDate.of(year, month, 1);
+        return paymentDAO.sumAmount(null, firstDay, firstDay.plusMonths(1).minusDays(1));
     }
 
     public List<Payment> getOverduePayments() {
@@ -164,27 +174,22 @@ public class BillingService {
     }
 
     public double getAveragePaymentAmount() {
-        List<Payment> allPayments = paymentDAO.findAll();
-        if (allPayments.isEmpty()) {
-            return 0.0;
-        }
-        
-        double total = allPayments.stream()
-                .mapToDouble(Payment::getAmount)
-                .sum();
-        
-        return total / allPayments.size();
+        return paymentDAO.summarize(null, null, null).getAverage();
     }
 
     public long getPaymentCount() {
-        return paymentDAO.findAll().size();
+        return paymentDAO.count(null, null, null);
     }
 
+    // Newest first, truncated to the RECENT_PAYMENTS_LIMIT most recent payments in the
+    // window; use getRecentPayments(days, limit) or PaymentDAO.streamByDateRange for more
     public List<Payment> getRecentPayments(int days) {
+        return getRecentPayments(days, RECENT_PAYMENTS_LIMIT);
+    }
+
+    // Newest first; the ordering and the row bound are applied in SQL on the date index
+    public List<Payment> getRecentPayments(int days, int limit) {
         LocalDate cutoffDate = LocalDate.now().minusDays(days);
-        return paymentDAO.findAll().stream()
-                .filter(payment -> payment.getDate().isAfter(cutoffDate))
-                .sorted((p1, p2) -> p2.getDate().compareTo(p1.getDate()))
-                .toList();
+        return paymentDAO.findRecent(cutoffDate.plusDays(1), limit);
     }
 }
@@ -1,21 +1,82 @@
 package com.gym.service;
 
 import com.gym.dao.BookingDAO;
+import com.gym.dao.ClassSessionDAO;
 import com.gym.dao.MemberDAO;
 import com.gym.model.Booking;
 import com.gym.model.BookingStatus;
+import com.gym.model.ClassSession;
+import com.gym.util.TransactionManager;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 public class BookingService {
     private final BookingDAO bookingDAO;
     private final MemberDAO memberDAO;
+    private final ClassSessionDAO classSessionDAO;
 
-    public BookingService(BookingDAO bookingDAO, MemberDAO memberDAO) {
+    public BookingService(BookingDAO bookingDAO, MemberDAO memberDAO, ClassSessionDAO classSessionDAO) {
         this.bookingDAO = bookingDAO;
         this.memberDAO = memberDAO;
+        this.classSessionDAO = classSessionDAO;
+    }
+
+    public ClassSession scheduleSession(String className, LocalDateTime classTime, int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Capacity must be positive");
+        }
+        if (classSessionDAO.findByClassAndTime(className, classTime).isPresent()) {
+            throw new IllegalArgumentException("A session of this class is already scheduled at this time");
+        }
+        return classSessionDAO.save(new ClassSession(0, className, classTime, capacity));
+    }
+
+    public List<ClassSession> getSessionsByDateRange(LocalDateTime startDate, LocalDateTime endDate) {
+        return classSessionDAO.findByDateRange(startDate, endDate);
+    }
+
+    /**
+     * Books a seat in a capacity-limited session. The seat counter and the booking row
+     * change in one write transaction, and the counter only moves through a conditional
+     * UPDATE, so concurrent callers can never push a session past its capacity. The
+     * lookups that only validate the request run before the write is queued.
+     */
+    public Booking bookSession(int memberId, int sessionId) {
+        if (!memberDAO.findById(memberId).isPresent()) {
+            throw new IllegalArgumentException("Member not found");
+        }
+
+        ClassSession session = classSessionDAO.findById(sessionId)
+                .orElseThrow(() -> new IllegalArgumentException("Class session not found"));
+        if (session.getClassTime().isBefore(LocalDateTime.now())) {
+            throw new IllegalArgumentException("Cannot book classes in the past");
+        }
+
+        Booking booking = new Booking();
+        booking.setMemberId(memberId);
+        booking.setClassName(session.getClassName());
+        booking.setClassTime(session.getClassTime());
+        booking.setStatus(BookingStatus.BOOKED);
+        booking.setSessionId(sessionId);
+
+        return TransactionManager.executeWrite(() -> {
+            // Claim the seat first: the UPDATE takes the write lock up front, so the
+            // transaction never has to upgrade a stale read snapshot (SQLITE_BUSY)
+            if (!classSessionDAO.tryReserveSeat(sessionId)) {
+                throw new IllegalStateException("Class session is full");
+            }
+            // Checked under the write lock so two bookings for the member cannot both pass
+            if (hasConflictingBooking(memberId, session.getClassTime())) {
+                throw new IllegalArgumentException("Member already has a booking at this time");
+            }
+            booking.setBookingTime(LocalDateTime.now());
+            return bookingDAO.save(booking);
+        });
     }
 
     public Booking bookClass(int memberId, String className, LocalDateTime classTime) {
@@ -42,18 +103,29 @@ public class BookingService {
     }
 
     public Booking cancelBooking(int bookingId) {
-        Optional<Booking> bookingOpt = bookingDAO.findById(bookingId);
-        if (bookingOpt.isEmpty()) {
-            throw new IllegalArgumentException("Booking not found");
-        }
-
-        Booking booking = bookingOpt.get();
-        if (booking.getStatus() != BookingStatus.BOOKED) {
-            throw new IllegalArgumentException("Cannot cancel a booking that is not in BOOKED status");
-        }
-
-        booking.setStatus(BookingStatus.CANCELLED);
-        return bookingDAO.update(booking);
+        return OptimisticRetry.withRetry(() -> {
+            Optional<Booking> bookingOpt = bookingDAO.findById(bookingId);
+            if (bookingOpt.isEmpty()) {
+                throw new IllegalArgumentException("Booking not found");
+            }
+
+            Booking booking = bookingOpt.get();
+            if (booking.getStatus() != BookingStatus.BOOKED) {
+                throw new IllegalArgumentException("Cannot cancel a booking that is not in BOOKED status");
+            }
+
+            booking.setStatus(BookingStatus.CANCELLED);
+            if (booking.getSessionId() == null) {
+                return bookingDAO.update(booking);
+            }
+
+            // Give the seat back in the same transaction as the status change
+            return TransactionManager.executeWrite(() -> {
+                Booking cancelled = bookingDAO.update(booking);
+                classSessionDAO.releaseSeat(booking.getSessionId());
+                return cancelled;
+            });
+        });
     }
 
     public Optional<Booking> findBookingById(int id) {
@@ -81,38 +153,44 @@ public class BookingService {
     }
 
     public boolean hasConflictingBooking(int memberId, LocalDateTime classTime) {
-        List<Booking> memberBookings = bookingDAO.findByMemberId(memberId);
-        LocalDateTime startTime = classTime.minusHours(1);
-        LocalDateTime endTime = classTime.plusHours(1);
-
-        return memberBookings.stream()
-                .filter(booking -> booking.getStatus() == BookingStatus.BOOKED)
-                .anyMatch(booking -> {
-                    LocalDateTime bookingTime = booking.getClassTime();
-                    return !bookingTime.isBefore(startTime) && !bookingTime.isAfter(endTime);
-                });
+        // Range seek on the (member_id, class_time) index instead of loading the member's history
+        return bookingDAO.hasBookingBetween(memberId, classTime.minusHours(1), classTime.plusHours(1));
     }
 
     public void markNoShow(int bookingId) {
-        Optional<Booking> bookingOpt = bookingDAO.findById(bookingId);
-        if (bookingOpt.isEmpty()) {
-            throw new IllegalArgumentException("Booking not found");
-        }
+        OptimisticRetry.runWithRetry(() -> {
+            Optional<Booking> bookingOpt = bookingDAO.findById(bookingId);
+            if (bookingOpt.isEmpty()) {
+                throw new IllegalArgumentException("Booking not found");
+            }
 
-        Booking booking = bookingOpt.get();
-        booking.setStatus(BookingStatus.NO_SHOW);
-        bookingDAO.update(booking);
+            // Re-checked on every attempt, so a booking cancelled meanwhile is never overwritten
+            Booking booking = bookingOpt.get();
+            if (booking.getStatus() != BookingStatus.BOOKED) {
+                throw new IllegalArgumentException("Cannot mark a booking as no-show unless it is in BOOKED status");
+            }
+
+            booking.setStatus(BookingStatus.NO_SHOW);
+            bookingDAO.update(booking);
+        });
     }
 
     public void markCompleted(int bookingId) {
-        Optional<Booking> bookingOpt = bookingDAO.findById(bookingId);
-        if (bookingOpt.isEmpty()) {
-            throw new IllegalArgumentException("Booking not found");
-        }
+        OptimisticRetry.runWithRetry(() -> {
+            Optional<Booking> bookingOpt = bookingDAO.findById(bookingId);
+            if (bookingOpt.isEmpty()) {
+                throw new IllegalArgumentException("Booking not found");
+            }
 
-        Booking booking = bookingOpt.get();
-        booking.setStatus(BookingStatus.COMPLETED);
-        bookingDAO.update(booking);
+            // Re-checked on every attempt, so a booking cancelled meanwhile is never overwritten
+            Booking booking = bookingOpt.get();
+            if (booking.getStatus() != BookingStatus.BOOKED) {
+                throw new IllegalArgumentException("Cannot mark a booking as completed unless it is in BOOKED status");
+            }
+
+            booking.setStatus(BookingStatus.COMPLETED);
+            bookingDAO.update(booking);
+        });
     }
 
     public List<Booking> getUpcomingBookings(int memberId) {
@@ -131,31 +209,31 @@ public class BookingService {
     }
 
     public long getBookingCountByClass(String className) {
-        return bookingDAO.findByClassName(className).size();
+        return bookingDAO.countByClassName(className);
     }
 
     public long getActiveBookingCount() {
-        return bookingDAO.findByStatus(BookingStatus.BOOKED).size();
+        return bookingDAO.countByStatus(BookingStatus.BOOKED);
     }
 
     public double getBookingCompletionRate() {
-        List<Booking> allBookings = bookingDAO.findAll();
-        if (allBookings.isEmpty()) {
-            return 0.0;
+        Map<Boolean, Long> completedCounts;
+        try (Stream<Booking> bookings = bookingDAO.streamAll()) {
+            completedCounts = bookings.collect(Collectors.partitioningBy(
+                    booking -> booking.getStatus() == BookingStatus.COMPLETED, Collectors.counting()));
         }
 
-        long completedCount = allBookings.stream()
-                .filter(booking -> booking.getStatus() == BookingStatus.COMPLETED)
-                .count();
+        long totalCount = completedCounts.get(true) + completedCounts.get(false);
+        if (totalCount == 0) {
+            return 0.0;
+        }
 
-        return (double) completedCount / allBookings.size() * 100;
+        return (double) completedCounts.get(true) / totalCount * 100;
     }
 
     public List<Booking> getBookingsNeedingAttention() {
-        LocalDateTime now = LocalDateTime.now();
-        return bookingDAO.findAll().stream()
-                .filter(booking -> booking.getStatus() == BookingStatus.BOOKED)
-                .filter(booking -> booking.getClassTime().isBefore(now.minusHours(2)))
-                .toList();
+        // Same cutoff BookingSweeper uses; range seek on the (status, class_time) index
+        return bookingDAO.findByStatusBefore(BookingStatus.BOOKED,
+                LocalDateTime.now().minusHours(BookingSweeper.DEFAULT_GRACE_HOURS));
     }
 }
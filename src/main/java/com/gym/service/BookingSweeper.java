@@ -0,0 +1,126 @@
+package com.gym.service;
+
+import com.gym.dao.BookingDAO;
+import com.gym.model.BookingStatus;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * End-of-day job that closes out bookings nobody marked: anything still BOOKED more
+ * than graceHours after its class becomes NO_SHOW. Instead of a findById and update()
+ * per booking, each chunk is one UPDATE over the (status, class_time) index, and
+ * every chunk commits on its own so the write lock is never held for the whole sweep.
+ */
+public class BookingSweeper implements AutoCloseable {
+    public static final long DEFAULT_GRACE_HOURS = 2;
+    public static final int DEFAULT_CHUNK_SIZE = 500;
+
+    private final BookingDAO bookingDAO;
+    private final long graceHours;
+    private final int chunkSize;
+    private ScheduledExecutorService scheduler;
+    private volatile SweepReport lastReport;
+
+    public BookingSweeper(BookingDAO bookingDAO) {
+        this(bookingDAO, DEFAULT_GRACE_HOURS, DEFAULT_CHUNK_SIZE);
+    }
+
+    public BookingSweeper(BookingDAO bookingDAO, long graceHours, int chunkSize) {
+        if (graceHours < 0) {
+            throw new IllegalArgumentException("Grace period must not be negative");
+        }
+        if (chunkSize < 1) {
+            throw new IllegalArgumentException("Chunk size must be at least 1");
+        }
+        this.bookingDAO = bookingDAO;
+        this.graceHours = graceHours;
+        this.chunkSize = chunkSize;
+    }
+
+    public SweepReport sweep() {
+        return sweep(LocalDateTime.now().minusHours(graceHours));
+    }
+
+    // The cutoff is fixed up front, so the loop ends even while new bookings age past it
+    public SweepReport sweep(LocalDateTime cutoff) {
+        long start = System.nanoTime();
+        long longestChunk = 0;
+        int transitioned = 0;
+        int chunks = 0;
+
+        int moved;
+        do {
+            long chunkStart = System.nanoTime();
+            moved = bookingDAO.updateStatusBefore(BookingStatus.BOOKED, BookingStatus.NO_SHOW, cutoff, chunkSize);
+            longestChunk = Math.max(longestChunk, System.nanoTime() - chunkStart);
+            transitioned += moved;
+            chunks++;
+        } while (moved == chunkSize);
+
+        SweepReport report = new SweepReport(cutoff, transitioned, chunks,
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start),
+                TimeUnit.NANOSECONDS.toMillis(longestChunk));
+        lastReport = report;
+        return report;
+    }
+
+    // Null until the first sweep has finished
+    public SweepReport getLastReport() {
+        return lastReport;
+    }
+
+    public synchronized void scheduleDaily(LocalTime at) {
+        scheduleDaily(at, false);
+    }
+
+    /**
+     * Runs sweep() every day at the given local time on a background daemon thread, and
+     * once straight away when catchUp is set, for bookings that went stale while nothing
+     * was scheduled. A failed sweep is logged and the next day's run still happens.
+     */
+    public synchronized void scheduleDaily(LocalTime at, boolean catchUp) {
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime next = now.toLocalDate().atTime(at);
+        if (!next.isAfter(now)) {
+            next = next.plusDays(1);
+        }
+        schedule(Duration.between(now, next).toMillis(), TimeUnit.DAYS.toMillis(1), TimeUnit.MILLISECONDS);
+        if (catchUp) {
+            scheduler.execute(this::sweepAndLog);
+        }
+    }
+
+    public synchronized void schedule(long initialDelay, long period, TimeUnit unit) {
+        if (scheduler != null) {
+            throw new IllegalStateException("Booking sweeper is already scheduled");
+        }
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "gym-booking-sweeper");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleAtFixedRate(this::sweepAndLog, initialDelay, period, unit);
+    }
+
+    @Override
+    public synchronized void close() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+            scheduler = null;
+        }
+    }
+
+    private void sweepAndLog() {
+        try {
+            System.out.println("Booking sweep finished: " + sweep());
+        } catch (RuntimeException e) {
+            // An exception escaping a scheduled task would cancel every later run
+            System.err.println("Error sweeping stale bookings: " + e.getMessage());
+        }
+    }
+}
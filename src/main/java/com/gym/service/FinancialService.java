@@ -2,6 +2,7 @@ package com.gym.service;
 
 import com.gym.dao.PaymentDAO;
 import com.gym.dao.ExpenseDAO;
+import com.gym.dao.RollupDAO;
 import com.gym.model.FinancialReport;
 import com.gym.model.Payment;
 import com.gym.model.Expense;
@@ -9,47 +10,37 @@ import com.gym.model.PaymentType;
 import com.gym.model.ExpenseCategory;
 
 import java.time.LocalDate;
+import java.time.YearMonth;
 import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
 
 public class FinancialService {
     private final PaymentDAO paymentDAO;
     private final ExpenseDAO expenseDAO;
+    private final RollupDAO rollupDAO;
 
-    public FinancialService(PaymentDAO paymentDAO, ExpenseDAO expenseDAO) {
+    public FinancialService(PaymentDAO paymentDAO, ExpenseDAO expenseDAO, RollupDAO rollupDAO) {
         this.paymentDAO = paymentDAO;
         this.expenseDAO = expenseDAO;
+        this.rollupDAO = rollupDAO;
     }
 
     public FinancialReport generateMonthlyReport(int month, int year) {
-        LocalDate reportDate = LocalDate.of(year, month, 1);
+        LocalDate startDate = LocalDate.of(year, month, 1);
+        LocalDate endDate = startDate.plusMonths(1).minusDays(1);
         
-        List<Payment> monthlyPayments = paymentDAO.findByMonth(month, year);
-        List<Expense> monthlyExpenses = expenseDAO.findByMonth(month, year);
+        double totalRevenue = rollupDAO.sumPayments(startDate, endDate);
+        double totalExpenses = rollupDAO.sumExpenses(startDate, endDate);
         
-        double totalRevenue = monthlyPayments.stream()
-                .mapToDouble(Payment::getAmount)
-                .sum();
-        
-        double totalExpenses = monthlyExpenses.stream()
-                .mapToDouble(Expense::getAmount)
-                .sum();
-        
-        return new FinancialReport(reportDate, totalRevenue, totalExpenses, monthlyPayments, monthlyExpenses);
+        return new FinancialReport(month, year, totalRevenue, totalExpenses);
     }
 
     public FinancialReport generateDateRangeReport(LocalDate startDate, LocalDate endDate) {
-        List<Payment> payments = paymentDAO.findByDateRange(startDate, endDate);
-        List<Expense> expenses = expenseDAO.findByDateRange(startDate, endDate);
-        
-        double totalRevenue = payments.stream()
-                .mapToDouble(Payment::getAmount)
-                .sum();
-        
-        double totalExpenses = expenses.stream()
-                .mapToDouble(Expense::getAmount)
-                .sum();
+        double totalRevenue = rollupDAO.sumPayments(startDate, endDate);
+        double totalExpenses = rollupDAO.sumExpenses(startDate, endDate);
         
-        return new FinancialReport(LocalDate.now(), totalRevenue, totalExpenses, payments, expenses);
+        return new FinancialReport(startDate.getMonthValue(), startDate.getYear(), totalRevenue, totalExpenses);
     }
 
     public FinancialReport generateAnnualReport(int year) {
@@ -83,53 +74,63 @@ public class FinancialService {
     }
 
     public double getRevenueByPaymentType(PaymentType type, LocalDate startDate, LocalDate endDate) {
-        return paymentDAO.findByDateRange(startDate, endDate).stream()
-                .filter(payment -> payment.getType() == type)
-                .mapToDouble(Payment::getAmount)
-                .sum();
+        return paymentDAO.sumAmount(type, startDate, endDate);
     }
 
     public double getExpensesByCategory(ExpenseCategory category, LocalDate startDate, LocalDate endDate) {
-        return expenseDAO.findByDateRange(startDate, endDate).stream()
-                .filter(expense -> expense.getCategory() == category)
-                .mapToDouble(Expense::getAmount)
-                .sum();
+        return expenseDAO.sumAmount(category, startDate, endDate);
     }
 
     public List<Payment> getTopPaymentsByAmount(int limit) {
-        return paymentDAO.findAll().stream()
-                .sorted((p1, p2) -> Double.compare(p2.getAmount(), p1.getAmount()))
-                .limit(limit)
-                .toList();
+        return getTopPaymentsByAmount(null, null, null, limit);
+    }
+
+    // Null type or dates mean no filter
+    public List<Payment> getTopPaymentsByAmount(PaymentType type, LocalDate startDate, LocalDate endDate, int limit) {
+        return paymentDAO.findTopByAmount(type, startDate, endDate, limit);
     }
 
     public List<Expense> getTopExpensesByAmount(int limit) {
-        return expenseDAO.findAll().stream()
-                .sorted((e1, e2) -> Double.compare(e2.getAmount(), e1.getAmount()))
-                .limit(limit)
-                .toList();
+        return getTopExpensesByAmount(null, null, null, limit);
     }
 
-    public double getAverageMonthlyRevenue(int year) {
-        double totalAnnualRevenue = 0.0;
+    // Null category or dates mean no filter
+    public List<Expense> getTopExpensesByAmount(ExpenseCategory category, LocalDate startDate, LocalDate endDate,
+                                                int limit) {
+        return expenseDAO.findTopByAmount(category, startDate, endDate, limit);
+    }
+
+    public Map<YearMonth, FinancialReport> getMonthlyTotals(int year) {
+        return getMonthlyTotals(LocalDate.of(year, 1, 1), LocalDate.of(year, 12, 31));
+    }
+
+    // One grouped query per table; every month in the range gets an entry, even if empty
+    public Map<YearMonth, FinancialReport> getMonthlyTotals(LocalDate startDate, LocalDate endDate) {
+        Map<YearMonth, Double> revenueByMonth = paymentDAO.sumByMonth(startDate, endDate);
+        Map<YearMonth, Double> expensesByMonth = expenseDAO.sumByMonth(startDate, endDate);
         
-        for (int month = 1; month <= 12; month++) {
-            totalAnnualRevenue += paymentDAO.findByMonth(month, year).stream()
-                    .mapToDouble(Payment::getAmount)
-                    .sum();
+        Map<YearMonth, FinancialReport> totals = new TreeMap<>();
+        YearMonth last = YearMonth.from(endDate);
+        for (YearMonth month = YearMonth.from(startDate); !month.isAfter(last); month = month.plusMonths(1)) {
+            totals.put(month, new FinancialReport(month.getMonthValue(), month.getYear(),
+                    revenueByMonth.getOrDefault(month, 0.0),
+                    expensesByMonth.getOrDefault(month, 0.0)));
         }
+        return totals;
+    }
+
+    public double getAverageMonthlyRevenue(int year) {
+        double totalAnnualRevenue = getMonthlyTotals(year).values().stream()
+                .mapToDouble(FinancialReport::getTotalIncome)
+                .sum();
         
         return totalAnnualRevenue / 12;
     }
 
     public double getAverageMonthlyExpenses(int year) {
-        double totalAnnualExpenses = 0.0;
-        
-        for (int month = 1; month <= 12; month++) {
-            totalAnnualExpenses += expenseDAO.findByMonth(month, year).stream()
-                    .mapToDouble(Expense::getAmount)
-                    .sum();
-        }
+        double totalAnnualExpenses = getMonthlyTotals(year).values().stream()
+                .mapToDouble(FinancialReport::getTotalExpenses)
+                .sum();
         
         return totalAnnualExpenses / 12;
     }
@@ -156,25 +157,21 @@ public class FinancialService {
     }
 
     private double getRevenueByDateRange(LocalDate startDate, LocalDate endDate) {
-        return paymentDAO.findByDateRange(startDate, endDate).stream()
-                .mapToDouble(Payment::getAmount)
-                .sum();
+        return rollupDAO.sumPayments(startDate, endDate);
     }
 
     public List<LocalDate> getProfitableMonths(int year) {
-        return paymentDAO.findAll().stream()
-                .map(payment -> payment.getDate())
-                .filter(date -> date.getYear() == year)
-                .distinct()
-                .sorted()
-                .filter(date -> {
-                    int month = date.getMonthValue();
-                    FinancialReport monthlyReport = generateMonthlyReport(month, year);
-                    return monthlyReport.getNetProfit() > 0;
-                })
+        return getMonthlyTotals(year).entrySet().stream()
+                .filter(entry -> entry.getValue().getTotalIncome() > 0)
+                .filter(entry -> entry.getValue().getNetCashFlow() > 0)
+                .map(entry -> entry.getKey().atDay(1))
                 .toList();
     }
 
+    public void rebuildDailyRollup() {
+        rollupDAO.rebuild();
+    }
+
     public double getExpenseToRevenueRatio(LocalDate startDate, LocalDate endDate) {
         FinancialReport report = generateDateRangeReport(startDate, endDate);
         
@@ -1,24 +1,31 @@
 package com.gym.service;
 
 import com.gym.dao.MemberDAO;
+import com.gym.dao.MembershipPlanDAO;
 import com.gym.dao.UserDAO;
 import com.gym.model.Member;
+import com.gym.model.MemberSummary;
 import com.gym.model.Membership;
 import com.gym.model.MonthlyMembership;
 import com.gym.model.AnnualMembership;
 import com.gym.model.VIPMembership;
+import com.gym.util.TransactionManager;
 
 import java.time.LocalDate;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 public class MembershipService {
     private final MemberDAO memberDAO;
     private final UserDAO userDAO;
+    private final MembershipPlanDAO planDAO;
 
-    public MembershipService(MemberDAO memberDAO, UserDAO userDAO) {
+    public MembershipService(MemberDAO memberDAO, UserDAO userDAO, MembershipPlanDAO planDAO) {
         this.memberDAO = memberDAO;
         this.userDAO = userDAO;
+        this.planDAO = planDAO;
     }
 
     public Member registerMember(Member member) {
@@ -26,12 +33,8 @@ public class MembershipService {
             throw new IllegalArgumentException("Username already exists: " + member.getUsername());
         }
         
-        // Save user first
-        userDAO.save(member);
-        
-        // Then save member with membership details
         if (member.getMembership() == null) {
-            member.setMembership(new MonthlyMembership());
+            member.setMembership(planDAO.findByCode("MonthlyMembership").orElseGet(MonthlyMembership::new));
         }
         
         if (member.getStartDate() == null) {
@@ -42,7 +45,11 @@ public class MembershipService {
             member.setEndDate(member.getStartDate().plusMonths(member.getMembership().getDurationMonths()));
         }
         
-        return memberDAO.save(member);
+        // User and member rows are written together or not at all
+        return TransactionManager.executeWrite(() -> {
+            userDAO.save(member);
+            return memberDAO.save(member);
+        });
     }
 
     public Optional<Member> findMemberById(int memberId) {
@@ -57,6 +64,8 @@ public class MembershipService {
         return memberDAO.findActiveMembers();
     }
 
+    // Membership changes are not replayed over a concurrent change to the same member: the
+    // OptimisticLockException reaches the caller, who can re-read and decide again
     public Member updateMembership(int memberId, Membership newMembership) {
         Optional<Member> memberOpt = memberDAO.findById(memberId);
         if (memberOpt.isEmpty()) {
@@ -70,40 +79,34 @@ public class MembershipService {
         return memberDAO.update(member);
     }
 
+    // Returns false if there is no such member; a concurrent change throws as in updateMembership
     public boolean renewMembership(int memberId, Membership newMembership) {
-        try {
-            Optional<Member> memberOpt = memberDAO.findById(memberId);
-            if (memberOpt.isEmpty()) {
-                return false;
-            }
-
-            Member member = memberOpt.get();
-            member.setMembership(newMembership);
-            member.setStartDate(LocalDate.now());
-            member.setEndDate(LocalDate.now().plusMonths(newMembership.getDurationMonths()));
-            
-            memberDAO.update(member);
-            return true;
-        } catch (Exception e) {
+        Optional<Member> memberOpt = memberDAO.findById(memberId);
+        if (memberOpt.isEmpty()) {
             return false;
         }
+
+        Member member = memberOpt.get();
+        member.setMembership(newMembership);
+        member.setStartDate(LocalDate.now());
+        member.setEndDate(LocalDate.now().plusMonths(newMembership.getDurationMonths()));
+        
+        memberDAO.update(member);
+        return true;
     }
 
+    // Returns false if there is no such member; a concurrent change throws as in updateMembership
     public boolean cancelMembership(int memberId) {
-        try {
-            Optional<Member> memberOpt = memberDAO.findById(memberId);
-            if (memberOpt.isEmpty()) {
-                return false;
-            }
-
-            Member member = memberOpt.get();
-            member.setEndDate(LocalDate.now().minusDays(1)); // End membership immediately
-            
-            memberDAO.update(member);
-            return true;
-        } catch (Exception e) {
+        Optional<Member> memberOpt = memberDAO.findById(memberId);
+        if (memberOpt.isEmpty()) {
             return false;
         }
+
+        Member member = memberOpt.get();
+        member.setEndDate(LocalDate.now().minusDays(1)); // End membership immediately
+        
+        memberDAO.update(member);
+        return true;
     }
 
     public double calculateMembershipPrice(Membership membership) {
@@ -112,12 +115,17 @@ public class MembershipService {
         return basePrice * (1 - discount);
     }
 
-    public List<Member> findMembersExpiringSoon(int daysThreshold) {
-        LocalDate thresholdDate = LocalDate.now().plusDays(daysThreshold);
-        return memberDAO.findAll().stream()
-                .filter(member -> member.getEndDate() != null)
-                .filter(member -> member.getEndDate().isBefore(thresholdDate) && member.getEndDate().isAfter(LocalDate.now()))
-                .toList();
+    public List<MemberSummary> findMembersExpiringSoon(int daysThreshold) {
+        LocalDate today = LocalDate.now();
+        return memberDAO.findSummariesExpiringBetween(today, today.plusDays(daysThreshold));
+    }
+
+    public List<MemberSummary> findMemberSummaries() {
+        return memberDAO.findSummaries();
+    }
+
+    public List<MemberSummary> findActiveMemberSummaries() {
+        return memberDAO.findActiveSummaries();
     }
 
     public Membership createMembership(String type, double price) {
@@ -129,19 +137,39 @@ public class MembershipService {
         };
     }
 
+    public List<Membership> getAvailablePlans() {
+        return planDAO.findAll();
+    }
+
+    public Optional<Membership> findPlan(String type) {
+        return planDAO.findByCode(type);
+    }
+
     public boolean isMembershipActive(int memberId) {
         Optional<Member> memberOpt = memberDAO.findById(memberId);
         return memberOpt.map(Member::isMembershipActive).orElse(false);
     }
 
     public long getTotalActiveMembers() {
-        return memberDAO.findActiveMembers().size();
+        return memberDAO.countActiveMembers();
     }
 
     public double getMembershipRevenueByType(String membershipType) {
-        return memberDAO.findAll().stream()
-                .filter(member -> member.getMembership().getClass().getSimpleName().equalsIgnoreCase(membershipType))
-                .mapToDouble(member -> calculateMembershipPrice(member.getMembership()))
-                .sum();
+        Optional<Membership> plan = planDAO.findByCode(membershipType);
+        if (plan.isEmpty()) {
+            return 0.0;
+        }
+        long members = memberDAO.countMembersByPlan().getOrDefault(plan.get().getId(), 0L);
+        return members * calculateMembershipPrice(plan.get());
+    }
+
+    // Keyed by plan name, in catalog order
+    public Map<String, Double> getMembershipRevenueByPlan() {
+        Map<Integer, Long> counts = memberDAO.countMembersByPlan();
+        Map<String, Double> revenue = new LinkedHashMap<>();
+        for (Membership plan : planDAO.findAll()) {
+            revenue.put(plan.getName(), counts.getOrDefault(plan.getId(), 0L) * calculateMembershipPrice(plan));
+        }
+        return revenue;
     }
 }
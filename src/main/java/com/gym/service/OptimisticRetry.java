@@ -0,0 +1,43 @@
+package com.gym.service;
+
+import com.gym.dao.OptimisticLockException;
+
+import java.util.function.Supplier;
+
+/**
+ * Retry helpers for read-modify-write operations against versioned rows. The attempt
+ * must do its own read: each retry starts again from a fresh copy of the row, so its
+ * validation (e.g. "only BOOKED bookings can be cancelled") sees the other writer's change.
+ */
+public final class OptimisticRetry {
+    public static final int DEFAULT_MAX_ATTEMPTS = 3;
+
+    private OptimisticRetry() {}
+
+    public static <T> T withRetry(Supplier<T> attempt) {
+        return withRetry(DEFAULT_MAX_ATTEMPTS, attempt);
+    }
+
+    // Rethrows the last OptimisticLockException once maxAttempts attempts have conflicted
+    public static <T> T withRetry(int maxAttempts, Supplier<T> attempt) {
+        if (maxAttempts < 1) {
+            throw new IllegalArgumentException("Attempts must be at least 1");
+        }
+        for (int attemptNumber = 1; ; attemptNumber++) {
+            try {
+                return attempt.get();
+            } catch (OptimisticLockException e) {
+                if (attemptNumber >= maxAttempts) {
+                    throw e;
+                }
+            }
+        }
+    }
+
+    public static void runWithRetry(Runnable attempt) {
+        withRetry(DEFAULT_MAX_ATTEMPTS, () -> {
+            attempt.run();
+            return null;
+        });
+    }
+}
@@ -0,0 +1,52 @@
+package com.gym.service;
+
+import java.time.LocalDateTime;
+
+public class SweepReport {
+    private final LocalDateTime cutoff;
+    private final int transitioned;
+    private final int chunks;
+    private final long durationMillis;
+    private final long longestChunkMillis;
+
+    public SweepReport(LocalDateTime cutoff, int transitioned, int chunks, long durationMillis, long longestChunkMillis) {
+        this.cutoff = cutoff;
+        this.transitioned = transitioned;
+        this.chunks = chunks;
+        this.durationMillis = durationMillis;
+        this.longestChunkMillis = longestChunkMillis;
+    }
+
+    // Bookings with class_time before this were eligible
+    public LocalDateTime getCutoff() {
+        return cutoff;
+    }
+
+    public int getTransitioned() {
+        return transitioned;
+    }
+
+    public int getChunks() {
+        return chunks;
+    }
+
+    public long getDurationMillis() {
+        return durationMillis;
+    }
+
+    // Upper bound on how long a single chunk held the write lock
+    public long getLongestChunkMillis() {
+        return longestChunkMillis;
+    }
+
+    @Override
+    public String toString() {
+        return "SweepReport{" +
+                "cutoff=" + cutoff +
+                ", transitioned=" + transitioned +
+                ", chunks=" + chunks +
+                ", durationMillis=" + durationMillis +
+                ", longestChunkMillis=" + longestChunkMillis +
+                '}';
+    }
+}
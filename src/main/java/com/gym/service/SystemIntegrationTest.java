@@ -1,10 +1,14 @@
 package com.gym.service;
 
-import com.gym.dao.impl.UserDAOImpl;
-import com.gym.dao.impl.MemberDAOImpl;
+import com.gym.dao.MemberDAO;
+import com.gym.dao.impl.CachingMemberDAO;
+import com.gym.dao.impl.CachingUserDAO;
+import com.gym.dao.impl.MembershipPlanDAOImpl;
 import com.gym.dao.impl.PaymentDAOImpl;
 import com.gym.dao.impl.BookingDAOImpl;
+import com.gym.dao.impl.ClassSessionDAOImpl;
 import com.gym.dao.impl.ExpenseDAOImpl;
+import com.gym.dao.impl.RollupDAOImpl;
 import com.gym.model.User;
 import com.gym.model.Member;
 import com.gym.model.Payment;
@@ -29,10 +33,12 @@ public class SystemIntegrationTest {
     
     public SystemIntegrationTest() {
         // Initialize all services with their dependencies
-        this.membershipService = new MembershipService(new MemberDAOImpl(), new UserDAOImpl());
-        this.bookingService = new BookingService(new BookingDAOImpl(), new MemberDAOImpl());
+        MemberDAO memberDAO = CachingMemberDAO.shared();
+        this.membershipService = new MembershipService(memberDAO, CachingUserDAO.shared(),
+                new MembershipPlanDAOImpl());
+        this.bookingService = new BookingService(new BookingDAOImpl(), memberDAO, new ClassSessionDAOImpl());
         this.billingService = new BillingService(new PaymentDAOImpl(), membershipService);
-        this.financialService = new FinancialService(new PaymentDAOImpl(), new ExpenseDAOImpl());
+        this.financialService = new FinancialService(new PaymentDAOImpl(), new ExpenseDAOImpl(), new RollupDAOImpl());
     }
     
     public void runCompleteWorkflow() {
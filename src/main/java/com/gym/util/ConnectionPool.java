@@ -0,0 +1,405 @@
+package com.gym.util;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Bounded pool of JDBC connections. Callers get a proxy whose close() hands the
+ * physical connection back to the pool instead of closing it, so DAO code can keep
+ * using try-with-resources unchanged. Each physical connection also keeps a
+ * StatementCache, so prepareStatement(sql) on a lease reuses compiled statements.
+ */
+public class ConnectionPool {
+    private final String url;
+    private final PragmaProfile profile;
+    private final int maxSize;
+    private final long borrowTimeoutMillis;
+    private final long leakThresholdMillis;
+    private final long reclaimAfterMillis;
+    private final boolean captureBorrowSite;
+    private final int statementCacheSize;
+
+    private final Deque<Connection> idle = new ArrayDeque<>();
+    private final Semaphore permits;
+    private final Map<Lease, Boolean> activeLeases = new ConcurrentHashMap<>();
+    private final Map<Connection, StatementCache> statementCaches = new ConcurrentHashMap<>();
+
+    private final AtomicLong created = new AtomicLong();
+    private final AtomicLong borrowed = new AtomicLong();
+    private final AtomicLong timeouts = new AtomicLong();
+    private final AtomicLong discarded = new AtomicLong();
+    private final AtomicLong leaksDetected = new AtomicLong();
+    private final AtomicLong reclaimed = new AtomicLong();
+    // Counters of caches whose connection was discarded, so stats survive reconnects
+    private long retiredStatementHits;
+    private long retiredStatementMisses;
+    private long retiredStatementEvictions;
+    private volatile boolean closed = false;
+
+    /**
+     * leakThresholdMillis <= 0 disables leak reports. A lease held longer than
+     * reclaimAfterMillis (<= 0: never), or whose borrowing thread has died, is taken
+     * back: its physical connection is closed and its permit released, so a leak costs
+     * one connection for a bounded time instead of shrinking the pool for good. The
+     * borrow stack trace is only recorded when captureBorrowSite is set, since taking
+     * it on every borrow is expensive. statementCacheSize <= 0 disables statement caching.
+     */
+    public ConnectionPool(String url, PragmaProfile profile, int maxSize, long borrowTimeoutMillis,
+                          long leakThresholdMillis, long reclaimAfterMillis, boolean captureBorrowSite,
+                          int statementCacheSize) {
+        if (maxSize < 1) {
+            throw new IllegalArgumentException("Pool size must be at least 1");
+        }
+        this.url = url;
+        this.profile = profile;
+        this.maxSize = maxSize;
+        this.borrowTimeoutMillis = borrowTimeoutMillis;
+        this.leakThresholdMillis = leakThresholdMillis;
+        this.reclaimAfterMillis = reclaimAfterMillis;
+        this.captureBorrowSite = captureBorrowSite;
+        this.statementCacheSize = statementCacheSize;
+        this.permits = new Semaphore(maxSize, true);
+    }
+
+    public Connection getConnection() throws SQLException {
+        if (closed) {
+            throw new SQLException("Connection pool is closed");
+        }
+
+        detectLeaks();
+
+        try {
+            if (!permits.tryAcquire(borrowTimeoutMillis, TimeUnit.MILLISECONDS)) {
+                timeouts.incrementAndGet();
+                throw new SQLException("Timed out after " + borrowTimeoutMillis
+                        + " ms waiting for a database connection (pool size " + maxSize + ")");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrupted while waiting for a database connection", e);
+        }
+
+        try {
+            Connection physical = takeValidIdleConnection();
+            if (physical == null) {
+                physical = openConnection();
+            }
+
+            Lease lease = new Lease(physical);
+            activeLeases.put(lease, Boolean.TRUE);
+            borrowed.incrementAndGet();
+            return lease.proxy;
+        } catch (SQLException | RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    /**
+     * Opens a connection outside the pool's permits, set up like a pooled one (same
+     * pragma profile and statement cache), for a long-lived owner that must never wait
+     * behind the callers holding the pool's leases. close() really closes it.
+     */
+    public Connection openDedicated() throws SQLException {
+        if (closed) {
+            throw new SQLException("Connection pool is closed");
+        }
+        return new Dedicated(openConnection()).proxy;
+    }
+
+    protected Connection openConnection() throws SQLException {
+        Connection conn = DriverManager.getConnection(url);
+        try {
+            profile.apply(conn);
+        } catch (SQLException e) {
+            DatabaseUtil.closeConnection(conn);
+            throw e;
+        }
+        created.incrementAndGet();
+        if (statementCacheSize > 0) {
+            statementCaches.put(conn, new StatementCache(conn, statementCacheSize));
+        }
+        return conn;
+    }
+
+    private Connection takeValidIdleConnection() {
+        while (true) {
+            Connection candidate;
+            synchronized (idle) {
+                candidate = idle.pollFirst();
+            }
+            if (candidate == null) {
+                return null;
+            }
+            if (isUsable(candidate)) {
+                return candidate;
+            }
+            discard(candidate);
+        }
+    }
+
+    private boolean isUsable(Connection conn) {
+        try {
+            return !conn.isClosed() && conn.isValid(1);
+        } catch (SQLException e) {
+            return false;
+        }
+    }
+
+    private void release(Lease lease) {
+        activeLeases.remove(lease);
+        Connection physical = lease.physical;
+
+        try {
+            if (!physical.getAutoCommit()) {
+                physical.rollback();
+                physical.setAutoCommit(true);
+            }
+            physical.clearWarnings();
+        } catch (SQLException e) {
+            discard(physical);
+            permits.release();
+            return;
+        }
+
+        if (closed) {
+            discard(physical);
+        } else {
+            synchronized (idle) {
+                // Most recently used first, so the warmest connection is handed out next
+                idle.offerFirst(physical);
+            }
+        }
+        permits.release();
+    }
+
+    private void discard(Connection conn) {
+        discarded.incrementAndGet();
+        closePhysical(conn);
+    }
+
+    private void closePhysical(Connection conn) {
+        StatementCache cache = statementCaches.remove(conn);
+        if (cache != null) {
+            cache.closeAll();
+            CacheStats stats = cache.getStats();
+            synchronized (statementCaches) {
+                retiredStatementHits += stats.getHits();
+                retiredStatementMisses += stats.getMisses();
+                retiredStatementEvictions += stats.getEvictions();
+            }
+        }
+        DatabaseUtil.closeConnection(conn);
+    }
+
+    private void detectLeaks() {
+        long now = System.currentTimeMillis();
+        for (Lease lease : activeLeases.keySet()) {
+            long heldFor = now - lease.borrowedAt;
+            if (!lease.owner.isAlive() || (reclaimAfterMillis > 0 && heldFor > reclaimAfterMillis)) {
+                reclaim(lease, heldFor);
+            } else if (leakThresholdMillis > 0 && !lease.reportedAsLeak && heldFor > leakThresholdMillis) {
+                lease.reportedAsLeak = true;
+                leaksDetected.incrementAndGet();
+                System.err.println("Possible connection leak: connection held for "
+                        + heldFor + " ms by thread " + lease.owner.getName());
+                if (lease.borrowSite != null) {
+                    lease.borrowSite.printStackTrace();
+                }
+            }
+        }
+    }
+
+    // Any further use of the leaked proxy fails with "already returned"; in-flight
+    // statements fail because the physical connection is closed underneath them
+    private void reclaim(Lease lease, long heldFor) {
+        synchronized (lease) {
+            if (lease.returned) {
+                return;
+            }
+            lease.returned = true;
+        }
+        activeLeases.remove(lease);
+        reclaimed.incrementAndGet();
+        System.err.println("Reclaiming leaked connection held for " + heldFor + " ms by thread "
+                + lease.owner.getName() + (lease.owner.isAlive() ? "" : " (thread has terminated)"));
+        discard(lease.physical);
+        permits.release();
+    }
+
+    public PragmaProfile getProfile() {
+        return profile;
+    }
+
+    public PoolStats getStats() {
+        int idleCount;
+        synchronized (idle) {
+            idleCount = idle.size();
+        }
+        return new PoolStats(maxSize, activeLeases.size(), idleCount, created.get(),
+                borrowed.get(), timeouts.get(), discarded.get(), leaksDetected.get(), reclaimed.get());
+    }
+
+    // Aggregated over every connection's statement cache; size is the total cached statements
+    public CacheStats getStatementCacheStats() {
+        long hits;
+        long misses;
+        long evictions;
+        synchronized (statementCaches) {
+            hits = retiredStatementHits;
+            misses = retiredStatementMisses;
+            evictions = retiredStatementEvictions;
+        }
+        int size = 0;
+        int capacity = 0;
+        for (StatementCache cache : statementCaches.values()) {
+            CacheStats stats = cache.getStats();
+            hits += stats.getHits();
+            misses += stats.getMisses();
+            evictions += stats.getEvictions();
+            size += stats.getSize();
+            capacity += stats.getMaxSize();
+        }
+        return new CacheStats(hits, misses, evictions, size, capacity);
+    }
+
+    public void close() {
+        closed = true;
+        synchronized (idle) {
+            while (!idle.isEmpty()) {
+                closePhysical(idle.pollFirst());
+            }
+        }
+    }
+
+    // Only prepareStatement(String) and prepareStatement(String, int) go through the cache
+    private PreparedStatement prepareCached(Connection physical, Method method, Object[] args) throws SQLException {
+        if (!method.getName().equals("prepareStatement")) {
+            return null;
+        }
+        StatementCache cache = statementCaches.get(physical);
+        if (cache == null) {
+            return null;
+        }
+        Class<?>[] types = method.getParameterTypes();
+        if (types.length == 1) {
+            return cache.prepare((String) args[0], Statement.NO_GENERATED_KEYS);
+        }
+        if (types.length == 2 && types[1] == int.class) {
+            return cache.prepare((String) args[0], (Integer) args[1]);
+        }
+        return null;
+    }
+
+    private final class Lease implements InvocationHandler {
+        private final Connection physical;
+        private final Connection proxy;
+        private final long borrowedAt = System.currentTimeMillis();
+        private final Thread owner = Thread.currentThread();
+        private final Throwable borrowSite = captureBorrowSite ? new Throwable("Connection borrowed here") : null;
+        private volatile boolean reportedAsLeak = false;
+        private boolean returned = false;
+
+        private Lease(Connection physical) {
+            this.physical = physical;
+            this.proxy = (Connection) Proxy.newProxyInstance(
+                    Connection.class.getClassLoader(), new Class<?>[]{Connection.class}, this);
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "close" -> {
+                    synchronized (this) {
+                        if (!returned) {
+                            returned = true;
+                            release(this);
+                        }
+                    }
+                    return null;
+                }
+                case "isClosed" -> {
+                    return returned || physical.isClosed();
+                }
+                case "equals" -> {
+                    return proxy == args[0];
+                }
+                case "hashCode" -> {
+                    return System.identityHashCode(proxy);
+                }
+                case "toString" -> {
+                    return "PooledConnection[" + physical + "]";
+                }
+                default -> {
+                    if (returned) {
+                        throw new SQLException("Connection has already been returned to the pool");
+                    }
+                    PreparedStatement cached = prepareCached(physical, method, args);
+                    if (cached != null) {
+                        return cached;
+                    }
+                    try {
+                        return method.invoke(physical, args);
+                    } catch (InvocationTargetException e) {
+                        throw e.getCause();
+                    }
+                }
+            }
+        }
+    }
+
+    private final class Dedicated implements InvocationHandler {
+        private final Connection physical;
+        private final Connection proxy;
+
+        private Dedicated(Connection physical) {
+            this.physical = physical;
+            this.proxy = (Connection) Proxy.newProxyInstance(
+                    Connection.class.getClassLoader(), new Class<?>[]{Connection.class}, this);
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "close" -> {
+                    closePhysical(physical);
+                    return null;
+                }
+                case "equals" -> {
+                    return proxy == args[0];
+                }
+                case "hashCode" -> {
+                    return System.identityHashCode(proxy);
+                }
+                case "toString" -> {
+                    return "DedicatedConnection[" + physical + "]";
+                }
+                default -> {
+                    PreparedStatement cached = prepareCached(physical, method, args);
+                    if (cached != null) {
+                        return cached;
+                    }
+                    try {
+                        return method.invoke(physical, args);
+                    } catch (InvocationTargetException e) {
+                        throw e.getCause();
+                    }
+                }
+            }
+        }
+    }
+}
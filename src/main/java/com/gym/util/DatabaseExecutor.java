@@ -0,0 +1,116 @@
+package com.gym.util;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Runs blocking service calls off the caller's thread, e.g. off the JavaFX application
+ * thread. At most maxConcurrency calls touch the database at once, which by default
+ * matches the connection pool so queued work waits here rather than in the pool's
+ * borrow timeout. Threads are daemon platform threads; the project targets Java 17,
+ * so virtual threads are not available.
+ */
+public class DatabaseExecutor implements AutoCloseable {
+    private static DatabaseExecutor shared;
+
+    private final ThreadPoolExecutor executor;
+
+    // Process-wide instance for UI code; closed by shutdownShared() on application exit
+    public static synchronized DatabaseExecutor shared() {
+        if (shared == null) {
+            shared = new DatabaseExecutor();
+        }
+        return shared;
+    }
+
+    public static synchronized void shutdownShared() {
+        if (shared != null) {
+            shared.close();
+            shared = null;
+        }
+    }
+
+    public DatabaseExecutor() {
+        this(DatabaseUtil.getPoolSize());
+    }
+
+    public DatabaseExecutor(int maxConcurrency) {
+        if (maxConcurrency < 1) {
+            throw new IllegalArgumentException("Concurrency must be at least 1");
+        }
+        this.executor = new ThreadPoolExecutor(maxConcurrency, maxConcurrency, 30, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(), new DaemonThreadFactory());
+        this.executor.allowCoreThreadTimeOut(true);
+    }
+
+    /**
+     * Cancelling the returned future drops the call if it has not started yet and
+     * interrupts it otherwise. An interrupt stops a call that is waiting for a pooled
+     * connection; a SQLite statement that is already executing runs to completion and
+     * its transaction commits or rolls back as usual.
+     */
+    public <T> CompletableFuture<T> submit(Supplier<T> work) {
+        CompletableFuture<T> result = new CompletableFuture<>();
+        Future<?> task = executor.submit(() -> {
+            if (result.isDone()) {
+                return;
+            }
+            try {
+                result.complete(work.get());
+            } catch (Throwable t) {
+                result.completeExceptionally(t);
+            }
+        });
+        result.whenComplete((value, error) -> {
+            if (result.isCancelled()) {
+                task.cancel(true);
+            }
+        });
+        return result;
+    }
+
+    public CompletableFuture<Void> run(Runnable work) {
+        return submit(() -> {
+            work.run();
+            return null;
+        });
+    }
+
+    public int getQueuedCount() {
+        return executor.getQueue().size();
+    }
+
+    public int getActiveCount() {
+        return executor.getActiveCount();
+    }
+
+    @Override
+    public void close() {
+        executor.shutdownNow();
+    }
+
+    // For APIs that take a plain Executor (e.g. javafx.concurrent.Service); same concurrency bound
+    public Executor asExecutor() {
+        return executor::execute;
+    }
+
+    private static final class DaemonThreadFactory implements ThreadFactory {
+        private static final AtomicInteger POOL_NUMBER = new AtomicInteger();
+        private final int poolNumber = POOL_NUMBER.incrementAndGet();
+        private final AtomicInteger threadNumber = new AtomicInteger();
+
+        @Override
+        public Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(runnable, "gym-db-" + poolNumber + "-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
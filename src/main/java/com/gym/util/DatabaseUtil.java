@@ -6,100 +6,108 @@ import java.sql.SQLException;
 import java.sql.Statement;
 
 public class DatabaseUtil {
-    private static final String DB_URL = "jdbc:sqlite:gym_database.db";
-    private static boolean initialized = false;
+    // Overridable so tests and benchmarks can point at a scratch database
+    private static final String DB_URL = System.getProperty("gym.db.url", "jdbc:sqlite:gym_database.db");
+    private static final PragmaProfile PROFILE = PragmaProfile.fromName(System.getProperty("gym.db.profile"));
+    private static final int POOL_SIZE = Integer.getInteger("gym.db.pool.size", 4);
+    private static final long POOL_TIMEOUT_MS = Long.getLong("gym.db.pool.timeoutMs", 5000L);
+    private static final long POOL_LEAK_THRESHOLD_MS = Long.getLong("gym.db.pool.leakThresholdMs", 30000L);
+    private static final long POOL_RECLAIM_AFTER_MS = Long.getLong("gym.db.pool.reclaimAfterMs", 300000L);
+    // Records a stack trace per borrow so leak reports show the borrow site; for debugging only
+    private static final boolean POOL_CAPTURE_BORROW_SITE = Boolean.getBoolean("gym.db.pool.captureBorrowSite");
+    private static final int BATCH_SIZE = Integer.getInteger("gym.db.batchSize", 500);
+    private static final int FETCH_SIZE = Integer.getInteger("gym.db.fetchSize", 256);
+    private static final int STATEMENT_CACHE_SIZE = Integer.getInteger("gym.db.statementCacheSize", 64);
+
+    private static volatile boolean initialized = false;
+    private static volatile ConnectionPool pool;
 
     public static Connection getConnection() throws SQLException {
+        Connection bound = TransactionManager.currentConnection();
+        if (bound != null) {
+            return bound;
+        }
         if (!initialized) {
             initializeDatabase();
         }
-        return DriverManager.getConnection(DB_URL);
+        return getPool().getConnection();
     }
 
-    private static void initializeDatabase() {
-        try (Connection conn = DriverManager.getConnection(DB_URL);
-             Statement stmt = conn.createStatement()) {
-            
-            createUsersTable(stmt);
-            createMembersTable(stmt);
-            createPaymentsTable(stmt);
-            createExpensesTable(stmt);
-            createBookingsTable(stmt);
-            
-            initialized = true;
-            System.out.println("Database initialized successfully");
-        } catch (SQLException e) {
-            throw new RuntimeException("Failed to initialize database", e);
+    // For DatabaseWriter: its own connection, so it never competes with its callers for a lease
+    static Connection openDedicatedConnection() throws SQLException {
+        if (!initialized) {
+            initializeDatabase();
+        }
+        return getPool().openDedicated();
+    }
+
+    private static ConnectionPool getPool() {
+        ConnectionPool current = pool;
+        if (current == null) {
+            synchronized (DatabaseUtil.class) {
+                current = pool;
+                if (current == null) {
+                    current = new ConnectionPool(DB_URL, PROFILE, POOL_SIZE, POOL_TIMEOUT_MS, POOL_LEAK_THRESHOLD_MS,
+                            POOL_RECLAIM_AFTER_MS, POOL_CAPTURE_BORROW_SITE, STATEMENT_CACHE_SIZE);
+                    pool = current;
+                }
+            }
         }
+        return current;
+    }
+
+    public static PragmaProfile getProfile() {
+        return PROFILE;
+    }
+
+    public static int getPoolSize() {
+        return POOL_SIZE;
+    }
+
+    public static int getBatchSize() {
+        return BATCH_SIZE;
     }
 
-    private static void createUsersTable(Statement stmt) throws SQLException {
-        String sql = """
-            CREATE TABLE IF NOT EXISTS users (
-                id INTEGER PRIMARY KEY AUTOINCREMENT,
-                name TEXT NOT NULL,
-                username TEXT UNIQUE NOT NULL,
-                password TEXT NOT NULL,
-                role TEXT NOT NULL CHECK (role IN ('MEMBER', 'RECEPTIONIST', 'ADMIN'))
-            )
-        """;
-        stmt.execute(sql);
+    public static int getFetchSize() {
+        return FETCH_SIZE;
     }
 
-    private static void createMembersTable(Statement stmt) throws SQLException {
-        String sql = """
-            CREATE TABLE IF NOT EXISTS members (
-                id INTEGER PRIMARY KEY AUTOINCREMENT,
-                user_id INTEGER NOT NULL,
-                membership_type TEXT NOT NULL,
-                start_date TEXT,
-                end_date TEXT,
-                FOREIGN KEY (user_id) REFERENCES users (id) ON DELETE CASCADE
-            )
-        """;
-        stmt.execute(sql);
+    public static PoolStats getPoolStats() {
+        return getPool().getStats();
     }
 
-    private static void createPaymentsTable(Statement stmt) throws SQLException {
-        String sql = """
-            CREATE TABLE IF NOT EXISTS payments (
-                id INTEGER PRIMARY KEY AUTOINCREMENT,
-                member_id INTEGER NOT NULL,
-                amount REAL NOT NULL,
-                date TEXT NOT NULL,
-                type TEXT NOT NULL CHECK (type IN ('MEMBERSHIP', 'CLASS', 'OTHER')),
-                FOREIGN KEY (member_id) REFERENCES members (id) ON DELETE CASCADE
-            )
-        """;
-        stmt.execute(sql);
+    public static CacheStats getStatementCacheStats() {
+        return getPool().getStatementCacheStats();
     }
 
-    private static void createExpensesTable(Statement stmt) throws SQLException {
-        String sql = """
-            CREATE TABLE IF NOT EXISTS expenses (
-                id INTEGER PRIMARY KEY AUTOINCREMENT,
-                description TEXT NOT NULL,
-                amount REAL NOT NULL,
-                date TEXT NOT NULL,
-                category TEXT NOT NULL CHECK (category IN ('SALARY', 'EQUIPMENT', 'MAINTENANCE', 'UTILITIES', 'MARKETING', 'OTHER'))
-            )
-        """;
-        stmt.execute(sql);
+    public static void shutdown() {
+        // Let queued writes commit while their connections are still available
+        DatabaseWriter.shutdownShared();
+        closePool();
     }
 
-    private static void createBookingsTable(Statement stmt) throws SQLException {
-        String sql = """
-            CREATE TABLE IF NOT EXISTS bookings (
-                id INTEGER PRIMARY KEY AUTOINCREMENT,
-                member_id INTEGER NOT NULL,
-                class_name TEXT NOT NULL,
-                booking_time TEXT NOT NULL,
-                class_time TEXT NOT NULL,
-                status TEXT NOT NULL CHECK (status IN ('BOOKED', 'CANCELLED', 'COMPLETED', 'NO_SHOW')),
-                FOREIGN KEY (member_id) REFERENCES members (id) ON DELETE CASCADE
-            )
-        """;
-        stmt.execute(sql);
+    private static synchronized void closePool() {
+        if (pool != null) {
+            pool.close();
+            pool = null;
+        }
+    }
+
+    private static synchronized void initializeDatabase() {
+        if (initialized) {
+            return;
+        }
+
+        try (Connection conn = DriverManager.getConnection(DB_URL)) {
+            
+            PROFILE.apply(conn);
+            new SchemaMigrator(SchemaMigrations.all()).migrate(conn);
+            
+            initialized = true;
+            System.out.println("Database initialized successfully");
+        } catch (SQLException e) {
+            throw new RuntimeException("Failed to initialize database", e);
+        }
     }
 
     public static void closeConnection(Connection conn) {
@@ -112,15 +120,19 @@ public class DatabaseUtil {
         }
     }
 
-    public static void resetDatabase() {
+    public static synchronized void resetDatabase() {
         try (Connection conn = DriverManager.getConnection(DB_URL);
              Statement stmt = conn.createStatement()) {
             
+            stmt.execute("DROP TABLE IF EXISTS daily_rollup");
             stmt.execute("DROP TABLE IF EXISTS bookings");
+            stmt.execute("DROP TABLE IF EXISTS class_sessions");
             stmt.execute("DROP TABLE IF EXISTS expenses");
             stmt.execute("DROP TABLE IF EXISTS payments");
             stmt.execute("DROP TABLE IF EXISTS members");
+            stmt.execute("DROP TABLE IF EXISTS membership_plans");
             stmt.execute("DROP TABLE IF EXISTS users");
+            stmt.execute("DROP TABLE IF EXISTS schema_version");
             
             initialized = false;
             initializeDatabase();
@@ -0,0 +1,393 @@
+package com.gym.util;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Savepoint;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Funnels every database mutation through one writer thread. SQLite allows a single
+ * writer, so concurrent writers on separate connections only contend for the lock and
+ * fail with SQLITE_BUSY; here they queue instead. The writer runs whatever work is
+ * queued back to back inside one transaction, up to maxBatchSize, so one fsync covers
+ * every caller that arrived while the previous group was committing. A lone write
+ * commits straight away unless maxDelayMillis is set to wait for stragglers.
+ *
+ * Each piece of work runs under its own savepoint: if it throws, only its changes
+ * are rolled back and the exception is handed to its caller, while the rest of the
+ * group still commits. Callers' futures complete only after the commit, and the
+ * TransactionManager commit and rollback callbacks a piece of work registered follow
+ * its own outcome.
+ *
+ * The writer keeps one connection of its own, opened with the pool's profile but
+ * outside its permits. Callers may hold pool leases while they wait on the writer, so
+ * a writer that borrowed from the same pool could wait on them in turn.
+ */
+public class DatabaseWriter implements AutoCloseable {
+    private static final int DEFAULT_MAX_BATCH_SIZE = Integer.getInteger("gym.db.writer.maxBatchSize", 256);
+    private static final long DEFAULT_MAX_DELAY_MS = Long.getLong("gym.db.writer.maxDelayMs", 0L);
+    private static final WriteTask<Void> STOP = new WriteTask<>(() -> null);
+
+    private static DatabaseWriter shared;
+
+    private final int maxBatchSize;
+    private final long maxDelayNanos;
+    private final BlockingQueue<WriteTask<?>> queue = new LinkedBlockingQueue<>();
+    private final Thread thread;
+    private boolean closed = false;
+    // Only touched by the writer thread; opened on first use and after a failed batch
+    private Connection connection;
+
+    private final AtomicLong committedBatches = new AtomicLong();
+    private final AtomicLong committedWrites = new AtomicLong();
+    private final AtomicLong failedWrites = new AtomicLong();
+    private volatile int largestBatch;
+
+    // Process-wide instance used by TransactionManager; closed by shutdownShared() on application exit
+    public static synchronized DatabaseWriter shared() {
+        if (shared == null) {
+            shared = new DatabaseWriter();
+        }
+        return shared;
+    }
+
+    public static synchronized void shutdownShared() {
+        if (shared != null) {
+            shared.close();
+            shared = null;
+        }
+    }
+
+    public DatabaseWriter() {
+        this(DEFAULT_MAX_BATCH_SIZE, DEFAULT_MAX_DELAY_MS);
+    }
+
+    public DatabaseWriter(int maxBatchSize, long maxDelayMillis) {
+        if (maxBatchSize < 1) {
+            throw new IllegalArgumentException("Batch size must be at least 1");
+        }
+        if (maxDelayMillis < 0) {
+            throw new IllegalArgumentException("Delay must not be negative");
+        }
+        this.maxBatchSize = maxBatchSize;
+        this.maxDelayNanos = TimeUnit.MILLISECONDS.toNanos(maxDelayMillis);
+        this.thread = new Thread(this::drain, "gym-db-writer");
+        this.thread.setDaemon(true);
+        this.thread.start();
+    }
+
+    /**
+     * Queues the work and returns a future completed with its result (e.g. the saved
+     * entity carrying its generated id) once the group it ran in has committed.
+     * Cancelling the future stops the work only if the writer has not started it.
+     */
+    public <T> CompletableFuture<T> submit(Supplier<T> work) {
+        WriteTask<T> task = new WriteTask<>(work);
+        if (!enqueue(task)) {
+            return CompletableFuture.failedFuture(new IllegalStateException("Database writer is closed"));
+        }
+        return task.future;
+    }
+
+    /**
+     * Runs the work on the writer and waits for its commit. Work that is already inside
+     * a transaction, including work running on the writer itself, runs inline instead.
+     *
+     * If the caller is interrupted before the writer picks the work up, the work is
+     * withdrawn and the call fails with the interrupt flag set again. Once the work has
+     * started, its outcome is only moments away, so the call waits for it and reports
+     * it truthfully, again with the interrupt flag set.
+     */
+    public <T> T execute(Supplier<T> work) {
+        if (TransactionManager.isActive()) {
+            return work.get();
+        }
+        WriteTask<T> task = new WriteTask<>(work);
+        if (!enqueue(task)) {
+            throw new IllegalStateException("Database writer is closed");
+        }
+        try {
+            return task.future.get();
+        } catch (ExecutionException e) {
+            throw rethrow(e.getCause(), e);
+        } catch (InterruptedException e) {
+            if (task.withdraw()) {
+                Thread.currentThread().interrupt();
+                throw new RuntimeException("Interrupted while waiting for the database writer", e);
+            }
+            try {
+                return task.future.join();
+            } catch (CompletionException failure) {
+                throw rethrow(failure.getCause(), failure);
+            } finally {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    public int getQueuedCount() {
+        return queue.size();
+    }
+
+    public long getCommittedBatches() {
+        return committedBatches.get();
+    }
+
+    public long getCommittedWrites() {
+        return committedWrites.get();
+    }
+
+    public long getFailedWrites() {
+        return failedWrites.get();
+    }
+
+    public int getLargestBatch() {
+        return largestBatch;
+    }
+
+    // Work queued before close() still runs and commits; later submissions fail
+    @Override
+    public void close() {
+        synchronized (this) {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            queue.add(STOP);
+        }
+        if (Thread.currentThread() == thread) {
+            return;
+        }
+        try {
+            thread.join(TimeUnit.SECONDS.toMillis(5));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private synchronized boolean enqueue(WriteTask<?> task) {
+        if (closed) {
+            return false;
+        }
+        queue.add(task);
+        return true;
+    }
+
+    private static RuntimeException rethrow(Throwable cause, Exception wrapper) {
+        if (cause instanceof RuntimeException runtime) {
+            return runtime;
+        }
+        if (cause instanceof Error error) {
+            throw error;
+        }
+        return new RuntimeException(wrapper);
+    }
+
+    private void drain() {
+        try {
+            boolean running = true;
+            while (running) {
+                WriteTask<?> first;
+                try {
+                    first = queue.take();
+                } catch (InterruptedException e) {
+                    // Only close() ends the writer; queued callers are still waiting
+                    continue;
+                }
+                if (first == STOP) {
+                    return;
+                }
+                if (first.claim()) {
+                    running = runBatch(first);
+                }
+            }
+        } finally {
+            discardConnection();
+        }
+    }
+
+    private Connection connection() throws SQLException {
+        if (connection == null) {
+            Connection conn = DatabaseUtil.openDedicatedConnection();
+            try {
+                conn.setAutoCommit(false);
+            } catch (SQLException e) {
+                DatabaseUtil.closeConnection(conn);
+                throw e;
+            }
+            connection = conn;
+        }
+        return connection;
+    }
+
+    // Closing drops whatever the failed batch left uncommitted
+    private void discardConnection() {
+        if (connection != null) {
+            DatabaseUtil.closeConnection(connection);
+            connection = null;
+        }
+    }
+
+    // Returns false once STOP has been taken from the queue
+    private boolean runBatch(WriteTask<?> first) {
+        List<WriteTask<?>> batch = new ArrayList<>();
+        batch.add(first);
+        boolean stopRequested = false;
+
+        try {
+            Connection conn = connection();
+            stopRequested = TransactionManager.runBound(conn, () -> {
+                first.runUnder(conn);
+                long deadline = System.nanoTime() + maxDelayNanos;
+                while (batch.size() < maxBatchSize) {
+                    WriteTask<?> next = pollUntil(deadline);
+                    if (next == null) {
+                        return false;
+                    }
+                    if (next == STOP) {
+                        return true;
+                    }
+                    if (!next.claim()) {
+                        continue;
+                    }
+                    batch.add(next);
+                    next.runUnder(conn);
+                }
+                return false;
+            });
+            conn.commit();
+        } catch (SQLException | RuntimeException e) {
+            // The commit (or the connection) failed, so nothing in this group was written;
+            // the next group starts on a fresh connection
+            discardConnection();
+            for (WriteTask<?> task : batch) {
+                task.failWith(new RuntimeException("Error committing write batch", e));
+            }
+            failedWrites.addAndGet(batch.size());
+            return !stopRequested;
+        }
+
+        committedBatches.incrementAndGet();
+        largestBatch = Math.max(largestBatch, batch.size());
+        for (WriteTask<?> task : batch) {
+            if (task.complete()) {
+                committedWrites.incrementAndGet();
+            } else {
+                failedWrites.incrementAndGet();
+            }
+        }
+        return !stopRequested;
+    }
+
+    private WriteTask<?> pollUntil(long deadline) {
+        WriteTask<?> next = queue.poll();
+        if (next != null) {
+            return next;
+        }
+        long remaining = deadline - System.nanoTime();
+        if (remaining <= 0) {
+            return null;
+        }
+        try {
+            return queue.poll(remaining, TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            return null;
+        }
+    }
+
+    private static final class WriteTask<T> {
+        private final Supplier<T> work;
+        private final CompletableFuture<T> future = new CompletableFuture<>();
+        // Set by whichever comes first: the writer starting the work or the caller withdrawing it
+        private final AtomicBoolean claimed = new AtomicBoolean();
+        private T result;
+        private Throwable failure;
+        private TransactionManager.Outcome outcome;
+
+        private WriteTask(Supplier<T> work) {
+            this.work = work;
+        }
+
+        // Writer side: false if the caller withdrew or cancelled the work first
+        private boolean claim() {
+            return claimed.compareAndSet(false, true) && !future.isDone();
+        }
+
+        // Caller side: true if the writer will now never run the work
+        private boolean withdraw() {
+            if (!claimed.compareAndSet(false, true)) {
+                return false;
+            }
+            future.cancel(false);
+            return true;
+        }
+
+        private void runUnder(Connection conn) {
+            Savepoint savepoint;
+            try {
+                savepoint = conn.setSavepoint();
+            } catch (SQLException e) {
+                throw new RuntimeException("Error creating savepoint", e);
+            }
+            try {
+                result = work.get();
+                outcome = TransactionManager.takeOutcome();
+                conn.releaseSavepoint(savepoint);
+            } catch (RuntimeException | Error e) {
+                failure = e;
+                rollbackTo(conn, savepoint);
+                TransactionManager.takeOutcome().rolledBack();
+            } catch (SQLException e) {
+                throw new RuntimeException("Error releasing savepoint", e);
+            }
+        }
+
+        private static void rollbackTo(Connection conn, Savepoint savepoint) {
+            try {
+                conn.rollback(savepoint);
+                conn.releaseSavepoint(savepoint);
+            } catch (SQLException e) {
+                // The others in the group can no longer be told apart from this one
+                throw new RuntimeException("Error rolling back to savepoint", e);
+            }
+        }
+
+        // Returns true if the work succeeded
+        private boolean complete() {
+            if (failure != null) {
+                future.completeExceptionally(failure);
+                return false;
+            }
+            try {
+                outcome.committed();
+            } catch (RuntimeException | Error e) {
+                // Already committed; the caller still hears about it
+                future.completeExceptionally(e);
+                return true;
+            }
+            future.complete(result);
+            return true;
+        }
+
+        private void failWith(RuntimeException batchFailure) {
+            if (failure == null) {
+                if (outcome != null) {
+                    outcome.rolledBack();
+                }
+                future.completeExceptionally(batchFailure);
+            } else {
+                future.completeExceptionally(failure);
+            }
+        }
+    }
+}
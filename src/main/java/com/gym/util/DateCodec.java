@@ -0,0 +1,40 @@
+package com.gym.util;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+
+/**
+ * Integer encodings used for date columns. Dates are stored as epoch days and
+ * date-times as epoch seconds of the local wall-clock time (read as UTC), so values
+ * sort and compare numerically and range predicates can use an index.
+ */
+public final class DateCodec {
+
+    private DateCodec() {}
+
+    public static long toEpochDay(LocalDate date) {
+        return date.toEpochDay();
+    }
+
+    public static LocalDate fromEpochDay(long epochDay) {
+        return LocalDate.ofEpochDay(epochDay);
+    }
+
+    public static long toEpochSecond(LocalDateTime dateTime) {
+        return dateTime.toEpochSecond(ZoneOffset.UTC);
+    }
+
+    public static LocalDateTime fromEpochSecond(long epochSecond) {
+        return LocalDateTime.ofEpochSecond(epochSecond, 0, ZoneOffset.UTC);
+    }
+
+    public static long monthStart(int month, int year) {
+        return LocalDate.of(year, month, 1).toEpochDay();
+    }
+
+    // Exclusive upper bound, for half-open [monthStart, monthEnd) predicates
+    public static long monthEnd(int month, int year) {
+        return LocalDate.of(year, month, 1).plusMonths(1).toEpochDay();
+    }
+}
@@ -0,0 +1,26 @@
+package com.gym.util;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * RowMapper that looks its columns up by name once per ResultSet and then reads every
+ * row by index. Instances hold the resolved indexes, so create one per query rather
+ * than sharing it between threads.
+ */
+public abstract class IndexedRowMapper<T> implements JdbcStreams.RowMapper<T> {
+    private ResultSet resolvedFor;
+
+    @Override
+    public final T map(ResultSet rs) throws SQLException {
+        if (rs != resolvedFor) {
+            resolveColumns(rs);
+            resolvedFor = rs;
+        }
+        return mapRow(rs);
+    }
+
+    protected abstract void resolveColumns(ResultSet rs) throws SQLException;
+
+    protected abstract T mapRow(ResultSet rs) throws SQLException;
+}
@@ -0,0 +1,81 @@
+package com.gym.util;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Lazily iterates a query's ResultSet as a Stream. The connection, statement and
+ * result set stay open until the stream is closed, so callers must consume it in a
+ * try-with-resources block.
+ */
+public final class JdbcStreams {
+
+    @FunctionalInterface
+    public interface StatementBinder {
+        void bind(PreparedStatement pstmt) throws SQLException;
+    }
+
+    @FunctionalInterface
+    public interface RowMapper<T> {
+        T map(ResultSet rs) throws SQLException;
+    }
+
+    private JdbcStreams() {}
+
+    public static <T> Stream<T> stream(String sql, StatementBinder binder, RowMapper<T> mapper) throws SQLException {
+        Connection conn = DatabaseUtil.getConnection();
+        PreparedStatement pstmt = null;
+        ResultSet rs = null;
+        try {
+            pstmt = conn.prepareStatement(sql);
+            pstmt.setFetchSize(DatabaseUtil.getFetchSize());
+            binder.bind(pstmt);
+            rs = pstmt.executeQuery();
+        } catch (SQLException | RuntimeException e) {
+            closeAll(rs, pstmt, conn);
+            throw e;
+        }
+
+        ResultSet cursor = rs;
+        PreparedStatement statement = pstmt;
+        Spliterator<T> spliterator = new Spliterators.AbstractSpliterator<>(Long.MAX_VALUE, Spliterator.ORDERED) {
+            @Override
+            public boolean tryAdvance(Consumer<? super T> action) {
+                try {
+                    if (!cursor.next()) {
+                        return false;
+                    }
+                    action.accept(mapper.map(cursor));
+                    return true;
+                } catch (SQLException e) {
+                    throw new RuntimeException("Error reading query results", e);
+                }
+            }
+        };
+
+        return StreamSupport.stream(spliterator, false)
+                .onClose(() -> closeAll(cursor, statement, conn));
+    }
+
+    private static void closeAll(ResultSet rs, PreparedStatement pstmt, Connection conn) {
+        try {
+            if (rs != null) {
+                rs.close();
+            }
+            if (pstmt != null) {
+                pstmt.close();
+            }
+        } catch (SQLException e) {
+            System.err.println("Error closing query resources: " + e.getMessage());
+        } finally {
+            DatabaseUtil.closeConnection(conn);
+        }
+    }
+}
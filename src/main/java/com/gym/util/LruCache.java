@@ -0,0 +1,110 @@
+package com.gym.util;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.BiConsumer;
+
+/**
+ * Size- and TTL-bounded LRU map with hit/miss/eviction counters. All operations are
+ * synchronized; entries are small and the critical sections are a few map operations.
+ */
+public class LruCache<K, V> {
+    private final int maxSize;
+    private final long ttlMillis;
+    private final BiConsumer<K, V> evictionListener;
+    private final LinkedHashMap<K, Entry<V>> entries;
+
+    private long hits;
+    private long misses;
+    private long evictions;
+
+    public LruCache(int maxSize, long ttlMillis) {
+        this(maxSize, ttlMillis, (key, value) -> {});
+    }
+
+    // ttlMillis <= 0 disables expiry; the listener runs for size, TTL and evictAll() evictions, not for invalidate()
+    public LruCache(int maxSize, long ttlMillis, BiConsumer<K, V> evictionListener) {
+        if (maxSize < 1) {
+            throw new IllegalArgumentException("Cache size must be at least 1");
+        }
+        this.maxSize = maxSize;
+        this.ttlMillis = ttlMillis;
+        this.evictionListener = evictionListener;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true);
+    }
+
+    public synchronized V get(K key) {
+        Entry<V> entry = entries.get(key);
+        if (entry == null) {
+            misses++;
+            return null;
+        }
+        if (entry.isExpired()) {
+            entries.remove(key);
+            evict(key, entry.value);
+            misses++;
+            return null;
+        }
+        hits++;
+        return entry.value;
+    }
+
+    public synchronized void put(K key, V value) {
+        long expiresAt = ttlMillis > 0 ? System.currentTimeMillis() + ttlMillis : Long.MAX_VALUE;
+        entries.put(key, new Entry<>(value, expiresAt));
+
+        Iterator<Map.Entry<K, Entry<V>>> eldest = entries.entrySet().iterator();
+        while (entries.size() > maxSize && eldest.hasNext()) {
+            Map.Entry<K, Entry<V>> victim = eldest.next();
+            eldest.remove();
+            evict(victim.getKey(), victim.getValue().value);
+        }
+    }
+
+    public synchronized V invalidate(K key) {
+        Entry<V> removed = entries.remove(key);
+        return removed != null ? removed.value : null;
+    }
+
+    public synchronized void invalidateAll() {
+        entries.clear();
+    }
+
+    // Empties the cache and runs the eviction listener for every entry, e.g. to release resources
+    public synchronized void evictAll() {
+        Iterator<Map.Entry<K, Entry<V>>> it = entries.entrySet().iterator();
+        while (it.hasNext()) {
+            Map.Entry<K, Entry<V>> victim = it.next();
+            it.remove();
+            evict(victim.getKey(), victim.getValue().value);
+        }
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    public synchronized CacheStats getStats() {
+        return new CacheStats(hits, misses, evictions, entries.size(), maxSize);
+    }
+
+    private void evict(K key, V value) {
+        evictions++;
+        evictionListener.accept(key, value);
+    }
+
+    private static final class Entry<V> {
+        private final V value;
+        private final long expiresAt;
+
+        private Entry(V value, long expiresAt) {
+            this.value = value;
+            this.expiresAt = expiresAt;
+        }
+
+        private boolean isExpired() {
+            return System.currentTimeMillis() >= expiresAt;
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package com.gym.util;
+
+public class PoolStats {
+    private final int maxSize;
+    private final int active;
+    private final int idle;
+    private final long created;
+    private final long borrowed;
+    private final long timeouts;
+    private final long discarded;
+    private final long leaksDetected;
+    private final long reclaimed;
+
+    public PoolStats(int maxSize, int active, int idle, long created, long borrowed,
+                     long timeouts, long discarded, long leaksDetected, long reclaimed) {
+        this.maxSize = maxSize;
+        this.active = active;
+        this.idle = idle;
+        this.created = created;
+        this.borrowed = borrowed;
+        this.timeouts = timeouts;
+        this.discarded = discarded;
+        this.leaksDetected = leaksDetected;
+        this.reclaimed = reclaimed;
+    }
+
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    public int getActive() {
+        return active;
+    }
+
+    public int getIdle() {
+        return idle;
+    }
+
+    public long getCreated() {
+        return created;
+    }
+
+    public long getBorrowed() {
+        return borrowed;
+    }
+
+    public long getTimeouts() {
+        return timeouts;
+    }
+
+    public long getDiscarded() {
+        return discarded;
+    }
+
+    public long getLeaksDetected() {
+        return leaksDetected;
+    }
+
+    public long getReclaimed() {
+        return reclaimed;
+    }
+
+    @Override
+    public String toString() {
+        return "PoolStats{" +
+                "maxSize=" + maxSize +
+                ", active=" + active +
+                ", idle=" + idle +
+                ", created=" + created +
+                ", borrowed=" + borrowed +
+                ", timeouts=" + timeouts +
+                ", discarded=" + discarded +
+                ", leaksDetected=" + leaksDetected +
+                ", reclaimed=" + reclaimed +
+                '}';
+    }
+}
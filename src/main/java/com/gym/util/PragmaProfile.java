@@ -0,0 +1,75 @@
+package com.gym.util;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * Named SQLite tuning profiles applied to every connection DatabaseUtil opens.
+ * All profiles use WAL so readers no longer block the writer; they differ in how
+ * often SQLite fsyncs and how much memory it may use for caching.
+ */
+public enum PragmaProfile {
+    // fsync on every commit; survives power loss with no lost transactions
+    DURABLE("FULL", 0L, -2000, "DEFAULT", 5000),
+    // fsync only at WAL checkpoints; a crash is safe, a power cut may lose the last commits
+    BALANCED("NORMAL", 64L * 1024 * 1024, -16000, "MEMORY", 5000),
+    // never fsync; only for imports and bulk jobs that can be re-run
+    THROUGHPUT("OFF", 256L * 1024 * 1024, -64000, "MEMORY", 10000);
+
+    private final String synchronous;
+    private final long mmapSize;
+    private final int cacheSize;
+    private final String tempStore;
+    private final int busyTimeoutMillis;
+
+    PragmaProfile(String synchronous, long mmapSize, int cacheSize, String tempStore, int busyTimeoutMillis) {
+        this.synchronous = synchronous;
+        this.mmapSize = mmapSize;
+        this.cacheSize = cacheSize;
+        this.tempStore = tempStore;
+        this.busyTimeoutMillis = busyTimeoutMillis;
+    }
+
+    public void apply(Connection conn) throws SQLException {
+        try (Statement stmt = conn.createStatement()) {
+            stmt.execute("PRAGMA busy_timeout = " + busyTimeoutMillis);
+            stmt.execute("PRAGMA journal_mode = WAL");
+            stmt.execute("PRAGMA synchronous = " + synchronous);
+            stmt.execute("PRAGMA mmap_size = " + mmapSize);
+            stmt.execute("PRAGMA cache_size = " + cacheSize);
+            stmt.execute("PRAGMA temp_store = " + tempStore);
+        }
+    }
+
+    public String getSynchronous() {
+        return synchronous;
+    }
+
+    public long getMmapSize() {
+        return mmapSize;
+    }
+
+    public int getCacheSize() {
+        return cacheSize;
+    }
+
+    public String getTempStore() {
+        return tempStore;
+    }
+
+    public int getBusyTimeoutMillis() {
+        return busyTimeoutMillis;
+    }
+
+    public static PragmaProfile fromName(String name) {
+        if (name == null || name.isBlank()) {
+            return BALANCED;
+        }
+        try {
+            return valueOf(name.trim().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Unknown database profile: " + name, e);
+        }
+    }
+}
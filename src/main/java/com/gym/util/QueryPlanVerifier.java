@@ -0,0 +1,186 @@
+package com.gym.util;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Runs EXPLAIN QUERY PLAN over the filtered DAO queries and reports any that do not
+ * search an index. A full table scan is always reported; a SCAN that walks a whole
+ * index is reported unless the query is a registered ordered scan. Keep this list in
+ * step with the SQL in com.gym.dao.impl when adding finders; QueryPlanVerifierTest runs
+ * it against a freshly migrated schema. Unfiltered findAll() queries are scans by
+ * design and are not listed.
+ */
+public class QueryPlanVerifier {
+
+    private static final Map<String, String> DAO_QUERIES = new LinkedHashMap<>();
+    // Top-N queries that walk an index in ORDER BY order and stop at the LIMIT, so a
+    // SCAN ... USING INDEX is the plan they should get
+    private static final Set<String> ORDERED_SCANS = new HashSet<>();
+
+    static {
+        DAO_QUERIES.put("BookingDAO.findById", "SELECT * FROM bookings WHERE id = ?");
+        DAO_QUERIES.put("BookingDAO.findByMemberId", "SELECT * FROM bookings WHERE member_id = ?");
+        DAO_QUERIES.put("BookingDAO.hasBookingBetween",
+                "SELECT 1 FROM bookings WHERE member_id = ? AND class_time BETWEEN ? AND ? AND status = 'BOOKED' LIMIT 1");
+        DAO_QUERIES.put("BookingDAO.findByClassName", "SELECT * FROM bookings WHERE class_name = ?");
+        DAO_QUERIES.put("BookingDAO.findByStatus", "SELECT * FROM bookings WHERE status = ?");
+        DAO_QUERIES.put("BookingDAO.findByStatusBefore",
+                "SELECT * FROM bookings WHERE status = ? AND class_time < ? ORDER BY class_time");
+        DAO_QUERIES.put("BookingDAO.updateStatusBefore",
+                "SELECT id FROM bookings WHERE status = ? AND class_time < ? ORDER BY class_time LIMIT ?");
+        DAO_QUERIES.put("BookingDAO.countByClassName", "SELECT COUNT(*) FROM bookings WHERE class_name = ?");
+        DAO_QUERIES.put("BookingDAO.countByStatus", "SELECT COUNT(*) FROM bookings WHERE status = ?");
+        DAO_QUERIES.put("BookingDAO.countByDateRange",
+                "SELECT COUNT(*) FROM bookings WHERE status = ? AND class_time BETWEEN ? AND ?");
+        DAO_QUERIES.put("BookingDAO.countByStatusForMember",
+                "SELECT status, COUNT(*) AS booking_count FROM bookings WHERE member_id = ? GROUP BY status");
+        DAO_QUERIES.put("BookingDAO.countByMemberBetween",
+                "SELECT COUNT(*) FROM bookings WHERE member_id = ? AND class_time BETWEEN ? AND ? AND status <> 'CANCELLED'");
+        DAO_QUERIES.put("BookingDAO.findByDateRange", "SELECT * FROM bookings WHERE class_time BETWEEN ? AND ?");
+        DAO_QUERIES.put("BookingDAO.findPage",
+                "SELECT * FROM bookings WHERE (class_time, id) < (?, ?) ORDER BY class_time DESC, id DESC LIMIT ?");
+
+        DAO_QUERIES.put("ClassSessionDAO.findById", "SELECT * FROM class_sessions WHERE id = ?");
+        DAO_QUERIES.put("ClassSessionDAO.findByClassAndTime",
+                "SELECT * FROM class_sessions WHERE class_name = ? AND class_time = ?");
+        DAO_QUERIES.put("ClassSessionDAO.findByDateRange",
+                "SELECT * FROM class_sessions WHERE class_time BETWEEN ? AND ? ORDER BY class_time");
+
+        DAO_QUERIES.put("PaymentDAO.findById", "SELECT * FROM payments WHERE id = ?");
+        DAO_QUERIES.put("PaymentDAO.findByMemberId", "SELECT * FROM payments WHERE member_id = ?");
+        DAO_QUERIES.put("PaymentDAO.findByType", "SELECT * FROM payments WHERE type = ?");
+        DAO_QUERIES.put("PaymentDAO.findByDateRange", "SELECT * FROM payments WHERE date BETWEEN ? AND ?");
+        DAO_QUERIES.put("PaymentDAO.findByMonth", "SELECT * FROM payments WHERE date >= ? AND date < ?");
+        DAO_QUERIES.put("PaymentDAO.findRecent",
+                "SELECT * FROM payments WHERE date >= ? ORDER BY date DESC, id DESC LIMIT ?");
+        orderedScan("PaymentDAO.findTopByAmount", "SELECT * FROM payments WHERE 1 = 1 ORDER BY amount DESC, id DESC LIMIT ?");
+        DAO_QUERIES.put("PaymentDAO.findTopByAmount(type)",
+                "SELECT * FROM payments WHERE 1 = 1 AND type = ? ORDER BY amount DESC, id DESC LIMIT ?");
+        DAO_QUERIES.put("PaymentDAO.findTopByAmount(start, end)",
+                "SELECT * FROM payments WHERE 1 = 1 AND date >= ? AND date <= ? ORDER BY amount DESC, id DESC LIMIT ?");
+        DAO_QUERIES.put("PaymentDAO.findTopByAmount(type, start, end)",
+                "SELECT * FROM payments WHERE 1 = 1 AND type = ? AND date >= ? AND date <= ? ORDER BY amount DESC, id DESC LIMIT ?");
+        // Open-ended ranges walk the amount index and filter each row on date until LIMIT rows match
+        orderedScan("PaymentDAO.findTopByAmount(start)",
+                "SELECT * FROM payments WHERE 1 = 1 AND date >= ? ORDER BY amount DESC, id DESC LIMIT ?");
+        orderedScan("PaymentDAO.findTopByAmount(end)",
+                "SELECT * FROM payments WHERE 1 = 1 AND date <= ? ORDER BY amount DESC, id DESC LIMIT ?");
+        DAO_QUERIES.put("PaymentDAO.findPage",
+                "SELECT * FROM payments WHERE (date, id) < (?, ?) ORDER BY date DESC, id DESC LIMIT ?");
+
+        DAO_QUERIES.put("ExpenseDAO.findById", "SELECT * FROM expenses WHERE id = ?");
+        DAO_QUERIES.put("ExpenseDAO.findByCategory", "SELECT * FROM expenses WHERE category = ?");
+        DAO_QUERIES.put("ExpenseDAO.findByDateRange", "SELECT * FROM expenses WHERE date BETWEEN ? AND ?");
+        DAO_QUERIES.put("ExpenseDAO.findByMonth", "SELECT * FROM expenses WHERE date >= ? AND date < ?");
+        orderedScan("ExpenseDAO.findTopByAmount", "SELECT * FROM expenses WHERE 1 = 1 ORDER BY amount DESC, id DESC LIMIT ?");
+        DAO_QUERIES.put("ExpenseDAO.findTopByAmount(category)",
+                "SELECT * FROM expenses WHERE 1 = 1 AND category = ? ORDER BY amount DESC, id DESC LIMIT ?");
+        DAO_QUERIES.put("ExpenseDAO.findTopByAmount(start, end)",
+                "SELECT * FROM expenses WHERE 1 = 1 AND date >= ? AND date <= ? ORDER BY amount DESC, id DESC LIMIT ?");
+        DAO_QUERIES.put("ExpenseDAO.findTopByAmount(category, start, end)",
+                "SELECT * FROM expenses WHERE 1 = 1 AND category = ? AND date >= ? AND date <= ? ORDER BY amount DESC, id DESC LIMIT ?");
+        orderedScan("ExpenseDAO.findTopByAmount(start)",
+                "SELECT * FROM expenses WHERE 1 = 1 AND date >= ? ORDER BY amount DESC, id DESC LIMIT ?");
+        orderedScan("ExpenseDAO.findTopByAmount(end)",
+                "SELECT * FROM expenses WHERE 1 = 1 AND date <= ? ORDER BY amount DESC, id DESC LIMIT ?");
+
+        DAO_QUERIES.put("MemberDAO.findById", """
+            SELECT m.*, u.name, u.username, u.password, u.role
+            FROM members m
+            JOIN users u ON m.user_id = u.id
+            WHERE m.id = ?
+        """);
+        DAO_QUERIES.put("MemberDAO.findByUserId", """
+            SELECT m.*, u.name, u.username, u.password, u.role
+            FROM members m
+            JOIN users u ON m.user_id = u.id
+            WHERE m.user_id = ?
+        """);
+        DAO_QUERIES.put("MemberDAO.findActiveMembers", """
+            SELECT m.*, u.name, u.username, u.password, u.role
+            FROM members m
+            JOIN users u ON m.user_id = u.id
+            WHERE m.end_date > ?
+        """);
+        DAO_QUERIES.put("MemberDAO.findActiveSummaries", """
+            SELECT m.id, m.user_id, m.plan_id, m.end_date, u.name
+            FROM members m
+            JOIN users u ON m.user_id = u.id
+            WHERE m.end_date > ?
+        """);
+        DAO_QUERIES.put("MemberDAO.findSummariesExpiringBetween", """
+            SELECT m.id, m.user_id, m.plan_id, m.end_date, u.name
+            FROM members m
+            JOIN users u ON m.user_id = u.id
+            WHERE m.end_date > ? AND m.end_date < ?
+            ORDER BY m.end_date
+        """);
+        DAO_QUERIES.put("MemberDAO.countActiveMembers", "SELECT COUNT(*) FROM members WHERE end_date > ?");
+        DAO_QUERIES.put("MemberDAO.countMembersStartedBetween",
+                "SELECT COUNT(*) FROM members WHERE start_date BETWEEN ? AND ?");
+        DAO_QUERIES.put("MemberDAO.findPage", """
+            SELECT m.*, u.name, u.username, u.password, u.role
+            FROM members m
+            JOIN users u ON m.user_id = u.id
+            WHERE (m.user_id, m.id) > (?, ?)
+            ORDER BY m.user_id, m.id
+            LIMIT ?
+        """);
+
+        DAO_QUERIES.put("UserDAO.findById", "SELECT * FROM users WHERE id = ?");
+        DAO_QUERIES.put("UserDAO.findByUsername", "SELECT * FROM users WHERE username = ?");
+    }
+
+    public List<String> verify(Connection conn) throws SQLException {
+        List<String> violations = new ArrayList<>();
+
+        for (Map.Entry<String, String> entry : DAO_QUERIES.entrySet()) {
+            try (PreparedStatement pstmt = conn.prepareStatement("EXPLAIN QUERY PLAN " + entry.getValue());
+                 ResultSet rs = pstmt.executeQuery()) {
+
+                while (rs.next()) {
+                    String detail = rs.getString("detail");
+                    if (!detail.startsWith("SCAN ")) {
+                        continue;
+                    }
+                    if (!detail.contains(" USING ")) {
+                        violations.add(entry.getKey() + ": full table scan: " + detail);
+                    } else if (!ORDERED_SCANS.contains(entry.getKey())) {
+                        violations.add(entry.getKey() + ": walks a whole index: " + detail);
+                    }
+                }
+            }
+        }
+
+        return violations;
+    }
+
+    private static void orderedScan(String name, String sql) {
+        DAO_QUERIES.put(name, sql);
+        ORDERED_SCANS.add(name);
+    }
+
+    public static void main(String[] args) throws SQLException {
+        try (Connection conn = DatabaseUtil.getConnection()) {
+            List<String> violations = new QueryPlanVerifier().verify(conn);
+            if (violations.isEmpty()) {
+                System.out.println("✓ All " + DAO_QUERIES.size() + " DAO queries use an index");
+            } else {
+                System.out.println("✗ Queries not searching an index:");
+                violations.forEach(v -> System.out.println("  - " + v));
+                System.exit(1);
+            }
+        } finally {
+            DatabaseUtil.shutdown();
+        }
+    }
+}
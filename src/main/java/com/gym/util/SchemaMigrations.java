@@ -0,0 +1,349 @@
+package com.gym.util;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+
+/**
+ * Ordered schema history. Append new migrations at the end with the next version
+ * number; never edit one that has already shipped.
+ */
+public final class SchemaMigrations {
+
+    private SchemaMigrations() {}
+
+    public static List<Migration> all() {
+        return List.of(
+                new Migration(1, "Create base tables", SchemaMigrations::createBaseTables),
+                new Migration(2, "Add secondary indexes for DAO lookups", SchemaMigrations::createSecondaryIndexes),
+                new Migration(3, "Store dates as epoch days and times as epoch seconds", SchemaMigrations::convertDatesToIntegers),
+                new Migration(4, "Add payment date index for keyset pagination", SchemaMigrations::createPaymentDateIndex),
+                new Migration(5, "Add daily revenue/expense rollup maintained by triggers", SchemaMigrations::createDailyRollup),
+                new Migration(6, "Add capacity-limited class sessions", SchemaMigrations::createClassSessions),
+                new Migration(7, "Add membership plan catalog referenced by members", SchemaMigrations::createMembershipPlans),
+                new Migration(8, "Add amount indexes for top-N queries", SchemaMigrations::createAmountIndexes),
+                new Migration(9, "Add member start date index for dashboard counts", SchemaMigrations::createMemberStartDateIndex),
+                new Migration(10, "Add version columns for optimistic locking", SchemaMigrations::addVersionColumns)
+        );
+    }
+
+    private static void createBaseTables(Connection conn) throws SQLException {
+        try (Statement stmt = conn.createStatement()) {
+            createUsersTable(stmt);
+            createMembersTable(stmt);
+            createPaymentsTable(stmt);
+            createExpensesTable(stmt);
+            createBookingsTable(stmt);
+        }
+    }
+
+    private static void createUsersTable(Statement stmt) throws SQLException {
+        String sql = """
+            CREATE TABLE IF NOT EXISTS users (
+                id INTEGER PRIMARY KEY AUTOINCREMENT,
+                name TEXT NOT NULL,
+                username TEXT UNIQUE NOT NULL,
+                password TEXT NOT NULL,
+                role TEXT NOT NULL CHECK (role IN ('MEMBER', 'RECEPTIONIST', 'ADMIN'))
+            )
+        """;
+        stmt.execute(sql);
+    }
+
+    private static void createMembersTable(Statement stmt) throws SQLException {
+        String sql = """
+            CREATE TABLE IF NOT EXISTS members (
+                id INTEGER PRIMARY KEY AUTOINCREMENT,
+                user_id INTEGER NOT NULL,
+                membership_type TEXT NOT NULL,
+                start_date TEXT,
+                end_date TEXT,
+                FOREIGN KEY (user_id) REFERENCES users (id) ON DELETE CASCADE
+            )
+        """;
+        stmt.execute(sql);
+    }
+
+    private static void createPaymentsTable(Statement stmt) throws SQLException {
+        String sql = """
+            CREATE TABLE IF NOT EXISTS payments (
+                id INTEGER PRIMARY KEY AUTOINCREMENT,
+                member_id INTEGER NOT NULL,
+                amount REAL NOT NULL,
+                date TEXT NOT NULL,
+                type TEXT NOT NULL CHECK (type IN ('MEMBERSHIP', 'CLASS', 'OTHER')),
+                FOREIGN KEY (member_id) REFERENCES members (id) ON DELETE CASCADE
+            )
+        """;
+        stmt.execute(sql);
+    }
+
+    private static void createExpensesTable(Statement stmt) throws SQLException {
+        String sql = """
+            CREATE TABLE IF NOT EXISTS expenses (
+                id INTEGER PRIMARY KEY AUTOINCREMENT,
+                description TEXT NOT NULL,
+                amount REAL NOT NULL,
+                date TEXT NOT NULL,
+                category TEXT NOT NULL CHECK (category IN ('SALARY', 'EQUIPMENT', 'MAINTENANCE', 'UTILITIES', 'MARKETING', 'OTHER'))
+            )
+        """;
+        stmt.execute(sql);
+    }
+
+    private static void createBookingsTable(Statement stmt) throws SQLException {
+        String sql = """
+            CREATE TABLE IF NOT EXISTS bookings (
+                id INTEGER PRIMARY KEY AUTOINCREMENT,
+                member_id INTEGER NOT NULL,
+                class_name TEXT NOT NULL,
+                booking_time TEXT NOT NULL,
+                class_time TEXT NOT NULL,
+                status TEXT NOT NULL CHECK (status IN ('BOOKED', 'CANCELLED', 'COMPLETED', 'NO_SHOW')),
+                FOREIGN KEY (member_id) REFERENCES members (id) ON DELETE CASCADE
+            )
+        """;
+        stmt.execute(sql);
+    }
+
+    private static void createSecondaryIndexes(Connection conn) throws SQLException {
+        try (Statement stmt = conn.createStatement()) {
+            stmt.execute("CREATE INDEX IF NOT EXISTS idx_members_user_id ON members (user_id)");
+            stmt.execute("CREATE INDEX IF NOT EXISTS idx_members_end_date ON members (end_date)");
+            stmt.execute("CREATE INDEX IF NOT EXISTS idx_payments_member_id ON payments (member_id)");
+            stmt.execute("CREATE INDEX IF NOT EXISTS idx_payments_date_type ON payments (date, type)");
+            stmt.execute("CREATE INDEX IF NOT EXISTS idx_payments_type_date ON payments (type, date)");
+            stmt.execute("CREATE INDEX IF NOT EXISTS idx_expenses_date ON expenses (date)");
+            stmt.execute("CREATE INDEX IF NOT EXISTS idx_expenses_category_date ON expenses (category, date)");
+            stmt.execute("CREATE INDEX IF NOT EXISTS idx_bookings_member_class_time ON bookings (member_id, class_time)");
+            stmt.execute("CREATE INDEX IF NOT EXISTS idx_bookings_status_class_time ON bookings (status, class_time)");
+            stmt.execute("CREATE INDEX IF NOT EXISTS idx_bookings_class_time ON bookings (class_time)");
+            stmt.execute("CREATE INDEX IF NOT EXISTS idx_bookings_class_name ON bookings (class_name)");
+        }
+    }
+
+    // Column affinity cannot be changed in place in SQLite (a TEXT column would turn the
+    // integers back into strings), so each table is rebuilt and its rows converted on copy
+    private static void convertDatesToIntegers(Connection conn) throws SQLException {
+        try (Statement stmt = conn.createStatement()) {
+            stmt.execute("""
+                CREATE TABLE members_new (
+                    id INTEGER PRIMARY KEY AUTOINCREMENT,
+                    user_id INTEGER NOT NULL,
+                    membership_type TEXT NOT NULL,
+                    start_date INTEGER,
+                    end_date INTEGER,
+                    FOREIGN KEY (user_id) REFERENCES users (id) ON DELETE CASCADE
+                )
+            """);
+            stmt.execute("""
+                INSERT INTO members_new (id, user_id, membership_type, start_date, end_date)
+                SELECT id, user_id, membership_type,
+                       CASE WHEN start_date IS NULL OR start_date = '' THEN NULL
+                            ELSE CAST(julianday(start_date) - 2440587.5 AS INTEGER) END,
+                       CASE WHEN end_date IS NULL OR end_date = '' THEN NULL
+                            ELSE CAST(julianday(end_date) - 2440587.5 AS INTEGER) END
+                FROM members
+            """);
+            stmt.execute("DROP TABLE members");
+            stmt.execute("ALTER TABLE members_new RENAME TO members");
+
+            stmt.execute("""
+                CREATE TABLE payments_new (
+                    id INTEGER PRIMARY KEY AUTOINCREMENT,
+                    member_id INTEGER NOT NULL,
+                    amount REAL NOT NULL,
+                    date INTEGER NOT NULL,
+                    type TEXT NOT NULL CHECK (type IN ('MEMBERSHIP', 'CLASS', 'OTHER')),
+                    FOREIGN KEY (member_id) REFERENCES members (id) ON DELETE CASCADE
+                )
+            """);
+            stmt.execute("""
+                INSERT INTO payments_new (id, member_id, amount, date, type)
+                SELECT id, member_id, amount, CAST(julianday(date) - 2440587.5 AS INTEGER), type
+                FROM payments
+            """);
+            stmt.execute("DROP TABLE payments");
+            stmt.execute("ALTER TABLE payments_new RENAME TO payments");
+
+            stmt.execute("""
+                CREATE TABLE expenses_new (
+                    id INTEGER PRIMARY KEY AUTOINCREMENT,
+                    description TEXT NOT NULL,
+                    amount REAL NOT NULL,
+                    date INTEGER NOT NULL,
+                    category TEXT NOT NULL CHECK (category IN ('SALARY', 'EQUIPMENT', 'MAINTENANCE', 'UTILITIES', 'MARKETING', 'OTHER'))
+                )
+            """);
+            stmt.execute("""
+                INSERT INTO expenses_new (id, description, amount, date, category)
+                SELECT id, description, amount, CAST(julianday(date) - 2440587.5 AS INTEGER), category
+                FROM expenses
+            """);
+            stmt.execute("DROP TABLE expenses");
+            stmt.execute("ALTER TABLE expenses_new RENAME TO expenses");
+
+            stmt.execute("""
+                CREATE TABLE bookings_new (
+                    id INTEGER PRIMARY KEY AUTOINCREMENT,
+                    member_id INTEGER NOT NULL,
+                    class_name TEXT NOT NULL,
+                    booking_time INTEGER NOT NULL,
+                    class_time INTEGER NOT NULL,
+                    status TEXT NOT NULL CHECK (status IN ('BOOKED', 'CANCELLED', 'COMPLETED', 'NO_SHOW')),
+                    FOREIGN KEY (member_id) REFERENCES members (id) ON DELETE CASCADE
+                )
+            """);
+            stmt.execute("""
+                INSERT INTO bookings_new (id, member_id, class_name, booking_time, class_time, status)
+                SELECT id, member_id, class_name,
+                       CAST(strftime('%s', booking_time) AS INTEGER),
+                       CAST(strftime('%s', class_time) AS INTEGER),
+                       status
+                FROM bookings
+            """);
+            stmt.execute("DROP TABLE bookings");
+            stmt.execute("ALTER TABLE bookings_new RENAME TO bookings");
+        }
+
+        // Dropping the old tables dropped their indexes too
+        createSecondaryIndexes(conn);
+    }
+
+    // (date, type) cannot order by (date, id); a single-column index carries the rowid
+    private static void createPaymentDateIndex(Connection conn) throws SQLException {
+        try (Statement stmt = conn.createStatement()) {
+            stmt.execute("CREATE INDEX IF NOT EXISTS idx_payments_date ON payments (date)");
+        }
+    }
+
+    // Triggers keep the rollup in the same transaction as every payment/expense write,
+    // including the batch paths, so it can never drift from the raw rows
+    private static void createDailyRollup(Connection conn) throws SQLException {
+        try (Statement stmt = conn.createStatement()) {
+            stmt.execute("""
+                CREATE TABLE IF NOT EXISTS daily_rollup (
+                    day INTEGER NOT NULL,
+                    source TEXT NOT NULL CHECK (source IN ('PAYMENT', 'EXPENSE')),
+                    bucket TEXT NOT NULL,
+                    total REAL NOT NULL,
+                    entry_count INTEGER NOT NULL,
+                    PRIMARY KEY (day, source, bucket)
+                ) WITHOUT ROWID
+            """);
+            stmt.execute("CREATE INDEX IF NOT EXISTS idx_daily_rollup_source_day ON daily_rollup (source, day)");
+
+            createRollupTriggers(stmt, "payments", "PAYMENT", "type");
+            createRollupTriggers(stmt, "expenses", "EXPENSE", "category");
+
+            stmt.execute("""
+                INSERT INTO daily_rollup (day, source, bucket, total, entry_count)
+                SELECT date, 'PAYMENT', type, SUM(amount), COUNT(*) FROM payments GROUP BY date, type
+            """);
+            stmt.execute("""
+                INSERT INTO daily_rollup (day, source, bucket, total, entry_count)
+                SELECT date, 'EXPENSE', category, SUM(amount), COUNT(*) FROM expenses GROUP BY date, category
+            """);
+        }
+    }
+
+    private static void createRollupTriggers(Statement stmt, String table, String source, String bucketColumn)
+            throws SQLException {
+        String add = """
+                INSERT INTO daily_rollup (day, source, bucket, total, entry_count)
+                VALUES (NEW.date, '%1$s', NEW.%2$s, NEW.amount, 1)
+                ON CONFLICT (day, source, bucket)
+                DO UPDATE SET total = total + excluded.total, entry_count = entry_count + 1;
+            """.formatted(source, bucketColumn);
+        String remove = """
+                UPDATE daily_rollup SET total = total - OLD.amount, entry_count = entry_count - 1
+                WHERE day = OLD.date AND source = '%1$s' AND bucket = OLD.%2$s;
+                DELETE FROM daily_rollup
+                WHERE day = OLD.date AND source = '%1$s' AND bucket = OLD.%2$s AND entry_count <= 0;
+            """.formatted(source, bucketColumn);
+
+        stmt.execute("CREATE TRIGGER IF NOT EXISTS trg_" + table + "_rollup_insert AFTER INSERT ON " + table
+                + " BEGIN " + add + " END");
+        stmt.execute("CREATE TRIGGER IF NOT EXISTS trg_" + table + "_rollup_delete AFTER DELETE ON " + table
+                + " BEGIN " + remove + " END");
+        stmt.execute("CREATE TRIGGER IF NOT EXISTS trg_" + table + "_rollup_update AFTER UPDATE OF date, amount, "
+                + bucketColumn + " ON " + table + " BEGIN " + remove + add + " END");
+    }
+
+    // booked_count is kept next to capacity so a seat can be claimed with one conditional
+    // UPDATE; the CHECK makes oversubscription impossible even for writes outside the DAO
+    private static void createClassSessions(Connection conn) throws SQLException {
+        try (Statement stmt = conn.createStatement()) {
+            stmt.execute("""
+                CREATE TABLE IF NOT EXISTS class_sessions (
+                    id INTEGER PRIMARY KEY AUTOINCREMENT,
+                    class_name TEXT NOT NULL,
+                    class_time INTEGER NOT NULL,
+                    capacity INTEGER NOT NULL CHECK (capacity > 0),
+                    booked_count INTEGER NOT NULL DEFAULT 0 CHECK (booked_count BETWEEN 0 AND capacity),
+                    UNIQUE (class_name, class_time)
+                )
+            """);
+            stmt.execute("CREATE INDEX IF NOT EXISTS idx_class_sessions_class_time ON class_sessions (class_time)");
+            stmt.execute("ALTER TABLE bookings ADD COLUMN session_id INTEGER REFERENCES class_sessions (id)");
+            stmt.execute("CREATE INDEX IF NOT EXISTS idx_bookings_session_id ON bookings (session_id)");
+        }
+    }
+
+    // Plans are seeded at price 0, matching what the DAO used to rebuild for every member;
+    // set real prices in membership_plans. membership_type stays as the plan code so older
+    // readers keep working, but plan_id is what the DAO reads
+    private static void createMembershipPlans(Connection conn) throws SQLException {
+        try (Statement stmt = conn.createStatement()) {
+            stmt.execute("""
+                CREATE TABLE IF NOT EXISTS membership_plans (
+                    id INTEGER PRIMARY KEY AUTOINCREMENT,
+                    code TEXT UNIQUE NOT NULL CHECK (code IN ('MonthlyMembership', 'AnnualMembership', 'VIPMembership')),
+                    name TEXT NOT NULL,
+                    price REAL NOT NULL DEFAULT 0 CHECK (price >= 0),
+                    duration_months INTEGER NOT NULL CHECK (duration_months > 0)
+                )
+            """);
+            stmt.execute("""
+                INSERT OR IGNORE INTO membership_plans (code, name, price, duration_months) VALUES
+                    ('MonthlyMembership', 'Monthly Membership', 0, 1),
+                    ('AnnualMembership', 'Annual Membership', 0, 12),
+                    ('VIPMembership', 'VIP Membership', 0, 12)
+            """);
+            stmt.execute("ALTER TABLE members ADD COLUMN plan_id INTEGER REFERENCES membership_plans (id)");
+            // Unknown codes were always read back as monthly memberships
+            stmt.execute("""
+                UPDATE members SET plan_id = COALESCE(
+                    (SELECT p.id FROM membership_plans p WHERE p.code = members.membership_type),
+                    (SELECT p.id FROM membership_plans p WHERE p.code = 'MonthlyMembership'))
+            """);
+            stmt.execute("CREATE INDEX IF NOT EXISTS idx_members_plan_id ON members (plan_id)");
+        }
+    }
+
+    // Let ORDER BY amount DESC LIMIT ? walk an index backwards and stop after LIMIT rows
+    private static void createAmountIndexes(Connection conn) throws SQLException {
+        try (Statement stmt = conn.createStatement()) {
+            stmt.execute("CREATE INDEX IF NOT EXISTS idx_payments_amount ON payments (amount)");
+            stmt.execute("CREATE INDEX IF NOT EXISTS idx_payments_type_amount ON payments (type, amount)");
+            stmt.execute("CREATE INDEX IF NOT EXISTS idx_expenses_amount ON expenses (amount)");
+            stmt.execute("CREATE INDEX IF NOT EXISTS idx_expenses_category_amount ON expenses (category, amount)");
+        }
+    }
+
+    private static void createMemberStartDateIndex(Connection conn) throws SQLException {
+        try (Statement stmt = conn.createStatement()) {
+            stmt.execute("CREATE INDEX IF NOT EXISTS idx_members_start_date ON members (start_date)");
+        }
+    }
+
+    // Existing rows start at version 0, the same as a freshly constructed model object
+    private static void addVersionColumns(Connection conn) throws SQLException {
+        try (Statement stmt = conn.createStatement()) {
+            stmt.execute("ALTER TABLE bookings ADD COLUMN version INTEGER NOT NULL DEFAULT 0");
+            stmt.execute("ALTER TABLE payments ADD COLUMN version INTEGER NOT NULL DEFAULT 0");
+            stmt.execute("ALTER TABLE members ADD COLUMN version INTEGER NOT NULL DEFAULT 0");
+        }
+    }
+}
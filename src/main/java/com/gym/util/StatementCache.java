@@ -0,0 +1,122 @@
+package com.gym.util;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * Bounded LRU of prepared statements for one physical connection, keyed by SQL text.
+ * DAOs keep calling prepareStatement/close as before: the statement they get back is a
+ * proxy whose close() only clears its parameters and returns it to the cache, so SQLite
+ * compiles each distinct SQL string once per connection instead of once per call.
+ */
+final class StatementCache {
+    private final Connection physical;
+    private final LruCache<String, CachedStatement> statements;
+
+    StatementCache(Connection physical, int maxSize) {
+        this.physical = physical;
+        this.statements = new LruCache<>(maxSize, 0, (sql, cached) -> cached.evicted());
+    }
+
+    synchronized PreparedStatement prepare(String sql, int autoGeneratedKeys) throws SQLException {
+        String key = autoGeneratedKeys == Statement.RETURN_GENERATED_KEYS ? "keys:" + sql : sql;
+
+        CachedStatement cached = statements.get(key);
+        if (cached != null && cached.inUse) {
+            // Same SQL already open on this connection (e.g. a nested query inside a
+            // streamed result); hand out a private statement rather than reset the open one
+            return physical.prepareStatement(sql, autoGeneratedKeys);
+        }
+        if (cached == null) {
+            cached = new CachedStatement(key, physical.prepareStatement(sql, autoGeneratedKeys));
+            statements.put(key, cached);
+        }
+        cached.inUse = true;
+        return cached.proxy;
+    }
+
+    CacheStats getStats() {
+        return statements.getStats();
+    }
+
+    // Closes every cached statement; called before the physical connection is closed
+    synchronized void closeAll() {
+        statements.evictAll();
+    }
+
+    private final class CachedStatement {
+        private final String key;
+        private final PreparedStatement statement;
+        private final PreparedStatement proxy;
+        private boolean inUse;
+        private boolean evicted;
+
+        private CachedStatement(String key, PreparedStatement statement) {
+            this.key = key;
+            this.statement = statement;
+            this.proxy = (PreparedStatement) Proxy.newProxyInstance(
+                    PreparedStatement.class.getClassLoader(), new Class<?>[]{PreparedStatement.class},
+                    (proxy, method, args) -> {
+                        switch (method.getName()) {
+                            case "close" -> {
+                                checkIn();
+                                return null;
+                            }
+                            case "isClosed" -> {
+                                synchronized (StatementCache.this) {
+                                    return !inUse || statement.isClosed();
+                                }
+                            }
+                            default -> {
+                                try {
+                                    return method.invoke(statement, args);
+                                } catch (InvocationTargetException e) {
+                                    throw e.getCause();
+                                }
+                            }
+                        }
+                    });
+        }
+
+        private void checkIn() {
+            synchronized (StatementCache.this) {
+                if (!inUse) {
+                    return;
+                }
+                inUse = false;
+                if (evicted) {
+                    closeQuietly();
+                    return;
+                }
+                try {
+                    statement.clearParameters();
+                    statement.clearBatch();
+                } catch (SQLException e) {
+                    // A statement that cannot be reset is not safe to reuse
+                    statements.invalidate(key);
+                    closeQuietly();
+                }
+            }
+        }
+
+        // Runs under the StatementCache lock, from LruCache eviction
+        private void evicted() {
+            evicted = true;
+            if (!inUse) {
+                closeQuietly();
+            }
+        }
+
+        private void closeQuietly() {
+            try {
+                statement.close();
+            } catch (SQLException e) {
+                System.err.println("Error closing cached statement: " + e.getMessage());
+            }
+        }
+    }
+}
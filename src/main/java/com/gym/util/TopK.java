@@ -0,0 +1,50 @@
+package com.gym.util;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.stream.Collector;
+
+/**
+ * Collects the k greatest elements of a stream with a bounded min-heap: O(n log k) time
+ * and O(k) memory, instead of sorting everything and then calling limit(k). Use it for
+ * data that is already in memory; for table data prefer an ORDER BY ... LIMIT query.
+ */
+public final class TopK {
+
+    private TopK() {}
+
+    // Result is ordered greatest first; ties keep no particular order
+    public static <T> Collector<T, ?, List<T>> largest(int k, Comparator<? super T> comparator) {
+        if (k < 0) {
+            throw new IllegalArgumentException("k must not be negative");
+        }
+        return Collector.of(
+                () -> new PriorityQueue<T>(Math.max(1, k), comparator),
+                (heap, item) -> offer(heap, item, k, comparator),
+                (left, right) -> {
+                    right.forEach(item -> offer(left, item, k, comparator));
+                    return left;
+                },
+                heap -> {
+                    List<T> result = new ArrayList<>(heap);
+                    result.sort(Collections.reverseOrder(comparator));
+                    return result;
+                });
+    }
+
+    private static <T> void offer(PriorityQueue<T> heap, T item, int k, Comparator<? super T> comparator) {
+        if (k == 0) {
+            return;
+        }
+        if (heap.size() < k) {
+            heap.add(item);
+        } else if (comparator.compare(item, heap.peek()) > 0) {
+            // Heap head is the smallest of the current top k
+            heap.poll();
+            heap.add(item);
+        }
+    }
+}
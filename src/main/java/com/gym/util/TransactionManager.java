@@ -0,0 +1,197 @@
+package com.gym.util;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * Binds one pooled connection to the current thread for the duration of a unit of
+ * work. While a transaction is active, DatabaseUtil.getConnection() returns that
+ * connection, so every DAO call made inside the callback enlists automatically and
+ * the whole operation commits (or rolls back) once.
+ *
+ * execute() runs the transaction on the calling thread. executeWrite() is for units
+ * that mutate: with the single writer enabled (gym.db.singleWriter, on by default) it
+ * runs on the DatabaseWriter thread and may share its commit with other callers'
+ * writes, while still succeeding or failing as a unit. Keep reads that do not need to
+ * be atomic with the write outside the closure so they do not hold up the writer.
+ */
+public final class TransactionManager {
+    private static final boolean SINGLE_WRITER =
+            Boolean.parseBoolean(System.getProperty("gym.db.singleWriter", "true"));
+    private static final ThreadLocal<BoundConnection> CURRENT = new ThreadLocal<>();
+
+    private TransactionManager() {}
+
+    public static <T> T execute(Supplier<T> work) {
+        if (CURRENT.get() != null) {
+            // Nested call: join the outer transaction
+            return work.get();
+        }
+
+        Connection conn;
+        try {
+            conn = DatabaseUtil.getConnection();
+        } catch (SQLException e) {
+            throw new RuntimeException("Error starting transaction", e);
+        }
+        try {
+            conn.setAutoCommit(false);
+        } catch (SQLException e) {
+            // Hand the lease back rather than leave it for the pool's leak reclaim
+            DatabaseUtil.closeConnection(conn);
+            throw new RuntimeException("Error starting transaction", e);
+        }
+
+        BoundConnection bound = new BoundConnection(conn);
+        CURRENT.set(bound);
+        T result;
+        try {
+            result = work.get();
+            conn.commit();
+        } catch (SQLException e) {
+            rollbackQuietly(conn);
+            bound.outcome.rolledBack();
+            throw new RuntimeException("Error committing transaction", e);
+        } catch (RuntimeException | Error e) {
+            rollbackQuietly(conn);
+            bound.outcome.rolledBack();
+            throw e;
+        } finally {
+            CURRENT.remove();
+            DatabaseUtil.closeConnection(conn);
+        }
+        bound.outcome.committed();
+        return result;
+    }
+
+    public static void run(Runnable work) {
+        execute(() -> {
+            work.run();
+            return null;
+        });
+    }
+
+    // Like execute(), but an outermost call goes through the single writer when it is enabled
+    public static <T> T executeWrite(Supplier<T> work) {
+        if (CURRENT.get() != null || !SINGLE_WRITER) {
+            return execute(work);
+        }
+        return DatabaseWriter.shared().execute(work);
+    }
+
+    public static void runWrite(Runnable work) {
+        executeWrite(() -> {
+            work.run();
+            return null;
+        });
+    }
+
+    public static boolean isActive() {
+        return CURRENT.get() != null;
+    }
+
+    /**
+     * Runs the action once the current transaction has committed, or right away when
+     * there is none. Actions registered by work that rolls back are dropped.
+     */
+    public static void afterCommit(Runnable action) {
+        BoundConnection bound = CURRENT.get();
+        if (bound == null) {
+            action.run();
+        } else {
+            bound.outcome.afterCommit.add(action);
+        }
+    }
+
+    /**
+     * Runs the action if the current transaction does not commit, e.g. to take back a
+     * generated id already set on the caller's object. Does nothing outside a transaction.
+     */
+    public static void onRollback(Runnable action) {
+        BoundConnection bound = CURRENT.get();
+        if (bound != null) {
+            bound.outcome.onRollback.add(action);
+        }
+    }
+
+    // For DatabaseWriter, which owns the connection's commit and rollback itself
+    static <T> T runBound(Connection conn, Supplier<T> work) {
+        CURRENT.set(new BoundConnection(conn));
+        try {
+            return work.get();
+        } finally {
+            CURRENT.remove();
+        }
+    }
+
+    // For DatabaseWriter, which commits several callers' work together: hands over the
+    // callbacks registered so far so they follow the right caller's outcome
+    static Outcome takeOutcome() {
+        BoundConnection bound = CURRENT.get();
+        Outcome outcome = new Outcome();
+        if (bound != null) {
+            outcome.afterCommit.addAll(bound.outcome.afterCommit);
+            outcome.onRollback.addAll(bound.outcome.onRollback);
+            bound.outcome.afterCommit.clear();
+            bound.outcome.onRollback.clear();
+        }
+        return outcome;
+    }
+
+    static Connection currentConnection() {
+        BoundConnection bound = CURRENT.get();
+        return bound != null ? bound.view : null;
+    }
+
+    private static void rollbackQuietly(Connection conn) {
+        try {
+            conn.rollback();
+        } catch (SQLException e) {
+            System.err.println("Error rolling back transaction: " + e.getMessage());
+        }
+    }
+
+    // Callbacks waiting on whether a unit of work commits
+    static final class Outcome {
+        private final List<Runnable> afterCommit = new ArrayList<>();
+        private final List<Runnable> onRollback = new ArrayList<>();
+
+        void committed() {
+            afterCommit.forEach(Runnable::run);
+        }
+
+        // Latest first, so values set twice end up back at the original
+        void rolledBack() {
+            for (int i = onRollback.size() - 1; i >= 0; i--) {
+                onRollback.get(i).run();
+            }
+        }
+    }
+
+    private static final class BoundConnection {
+        private final Connection view;
+        private final Outcome outcome = new Outcome();
+
+        private BoundConnection(Connection conn) {
+            // DAOs close their connection in try-with-resources; inside a transaction
+            // that must not hand the connection back to the pool
+            this.view = (Connection) Proxy.newProxyInstance(
+                    Connection.class.getClassLoader(), new Class<?>[]{Connection.class},
+                    (proxy, method, args) -> {
+                        if (method.getName().equals("close")) {
+                            return null;
+                        }
+                        try {
+                            return method.invoke(conn, args);
+                        } catch (InvocationTargetException e) {
+                            throw e.getCause();
+                        }
+                    });
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package com.gym.dao.impl;
+
+import com.gym.dao.PaymentDAO;
+import com.gym.model.Payment;
+import com.gym.util.TestDatabase;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * saveAll() against a loop of save() for the same payments, e.g. a day of POS imports.
+ * Run with -Dgym.benchmarks=true; -Dgym.benchmarks.rows sets the row count.
+ */
+@EnabledIfSystemProperty(named = "gym.benchmarks", matches = "true")
+class BatchWriteBenchmark {
+    private static final int ROWS = Integer.getInteger("gym.benchmarks.rows", 2000);
+
+    @Test
+    void saveAllVersusLoopedSave() {
+        TestDatabase.reset();
+        PaymentDAO paymentDAO = new PaymentDAOImpl();
+
+        List<Payment> looped = BatchWriteTest.payments(ROWS);
+        long start = System.nanoTime();
+        for (Payment payment : looped) {
+            paymentDAO.save(payment);
+        }
+        double loopMillis = (System.nanoTime() - start) / 1e6;
+
+        List<Payment> batched = BatchWriteTest.payments(ROWS);
+        start = System.nanoTime();
+        paymentDAO.saveAll(batched);
+        double batchMillis = (System.nanoTime() - start) / 1e6;
+
+        System.out.printf("%d payments: save() loop %.0f ms (%.0f rows/s), saveAll() %.0f ms (%.0f rows/s), %.1fx%n",
+                ROWS, loopMillis, ROWS / loopMillis * 1000, batchMillis, ROWS / batchMillis * 1000,
+                loopMillis / batchMillis);
+        assertEquals(2L * ROWS, paymentDAO.findAll().size());
+    }
+}
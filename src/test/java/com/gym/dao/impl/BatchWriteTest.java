@@ -0,0 +1,111 @@
+package com.gym.dao.impl;
+
+import com.gym.dao.BookingDAO;
+import com.gym.dao.OptimisticLockException;
+import com.gym.dao.PaymentDAO;
+import com.gym.model.Booking;
+import com.gym.model.BookingStatus;
+import com.gym.model.Payment;
+import com.gym.model.PaymentType;
+import com.gym.util.TestDatabase;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BatchWriteTest {
+    private PaymentDAO paymentDAO;
+
+    @BeforeEach
+    void setUp() {
+        TestDatabase.reset();
+        paymentDAO = new PaymentDAOImpl();
+    }
+
+    @Test
+    void saveAllBackFillsGeneratedIdsAcrossChunks() {
+        // More rows than one default chunk, so the id back-fill runs per chunk
+        List<Payment> saved = paymentDAO.saveAll(payments(1200));
+
+        Set<Integer> ids = new HashSet<>();
+        for (Payment payment : saved) {
+            assertTrue(payment.getId() > 0);
+            ids.add(payment.getId());
+            assertEquals(payment.getAmount(), paymentDAO.findById(payment.getId()).orElseThrow().getAmount());
+        }
+        assertEquals(1200, ids.size());
+    }
+
+    @Test
+    void updateAllAndDeleteAllReportAffectedRows() {
+        List<Payment> saved = paymentDAO.saveAll(payments(10));
+        saved.forEach(payment -> payment.setAmount(99));
+
+        assertEquals(10, paymentDAO.updateAll(saved));
+        assertEquals(99, paymentDAO.findById(saved.get(3).getId()).orElseThrow().getAmount());
+
+        List<Integer> ids = saved.stream().map(Payment::getId).toList();
+        assertEquals(10, paymentDAO.deleteAll(ids));
+        assertTrue(paymentDAO.findAll().isEmpty());
+    }
+
+    @Test
+    void updateAllAdvancesVersionsAndRejectsStaleRows() {
+        List<Payment> saved = paymentDAO.saveAll(payments(3));
+        paymentDAO.updateAll(saved);
+        assertEquals(1, saved.get(0).getVersion());
+
+        // A concurrent single-row update leaves saved.get(1) one version behind
+        Payment concurrent = paymentDAO.findById(saved.get(1).getId()).orElseThrow();
+        concurrent.setAmount(42);
+        paymentDAO.update(concurrent);
+
+        saved.forEach(payment -> payment.setAmount(7));
+        assertThrows(OptimisticLockException.class, () -> paymentDAO.updateAll(saved));
+        // Nothing from the failed batch commits, and the copies keep their versions
+        assertEquals(10, paymentDAO.findById(saved.get(0).getId()).orElseThrow().getAmount());
+        assertEquals(42, paymentDAO.findById(saved.get(1).getId()).orElseThrow().getAmount());
+        assertEquals(1, saved.get(0).getVersion());
+    }
+
+    @Test
+    void bookingUpdateAllRejectsStaleRows() {
+        BookingDAO bookingDAO = new BookingDAOImpl();
+        List<Booking> saved = bookingDAO.saveAll(List.of(
+                new Booking(0, 1, "Yoga", LocalDateTime.now().withNano(0), LocalDateTime.now().plusDays(1).withNano(0)),
+                new Booking(0, 2, "Yoga", LocalDateTime.now().withNano(0), LocalDateTime.now().plusDays(1).withNano(0))));
+
+        Booking concurrent = bookingDAO.findById(saved.get(0).getId()).orElseThrow();
+        concurrent.setStatus(BookingStatus.CANCELLED);
+        bookingDAO.update(concurrent);
+
+        saved.forEach(booking -> booking.setStatus(BookingStatus.COMPLETED));
+        assertThrows(OptimisticLockException.class, () -> bookingDAO.updateAll(saved));
+        assertEquals(BookingStatus.CANCELLED, bookingDAO.findById(saved.get(0).getId()).orElseThrow().getStatus());
+        assertEquals(BookingStatus.BOOKED, bookingDAO.findById(saved.get(1).getId()).orElseThrow().getStatus());
+        assertEquals(0, saved.get(1).getVersion());
+    }
+
+    @Test
+    void emptyCollectionsAreNoOps() {
+        assertTrue(paymentDAO.saveAll(List.of()).isEmpty());
+        assertEquals(0, paymentDAO.updateAll(List.of()));
+        assertEquals(0, paymentDAO.deleteAll(List.of()));
+    }
+
+    static List<Payment> payments(int count) {
+        List<Payment> payments = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            payments.add(new Payment(0, 1 + i % 50, 10 + i, LocalDate.of(2024, 1, 1).plusDays(i % 300),
+                    PaymentType.MEMBERSHIP));
+        }
+        return payments;
+    }
+}
@@ -0,0 +1,106 @@
+package com.gym.dao.impl;
+
+import com.gym.dao.BookingDAO;
+import com.gym.dao.ClassSessionDAO;
+import com.gym.model.Booking;
+import com.gym.model.BookingStatus;
+import com.gym.model.ClassSession;
+import com.gym.util.TestDatabase;
+import com.gym.util.TransactionManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * The bulk and delete paths of BookingDAOImpl must keep class_sessions.booked_count
+ * equal to the number of BOOKED rows in the session.
+ */
+class BookingSeatCountTest {
+    private final BookingDAO bookingDAO = new BookingDAOImpl();
+    private final ClassSessionDAO classSessionDAO = new ClassSessionDAOImpl();
+    private ClassSession session;
+    private ClassSession other;
+
+    @BeforeEach
+    void setUp() {
+        TestDatabase.reset();
+        LocalDateTime classTime = LocalDateTime.now().plusDays(1).withNano(0);
+        session = classSessionDAO.save(new ClassSession(0, "Yoga", classTime, 3));
+        other = classSessionDAO.save(new ClassSession(0, "Spin", classTime.plusHours(2), 3));
+    }
+
+    @Test
+    void deleteGivesBackTheSeat() {
+        List<Booking> booked = book(session, 2);
+
+        assertTrue(bookingDAO.delete(booked.get(0).getId()));
+        assertEquals(1, bookedCount(session));
+    }
+
+    @Test
+    void deletingACancelledBookingLeavesTheCountAlone() {
+        Booking booking = book(session, 2).get(0);
+        booking.setStatus(BookingStatus.CANCELLED);
+        TransactionManager.runWrite(() -> {
+            bookingDAO.update(booking);
+            classSessionDAO.releaseSeat(session.getId());
+        });
+
+        assertTrue(bookingDAO.delete(booking.getId()));
+        assertEquals(1, bookedCount(session));
+    }
+
+    @Test
+    void deleteAllGivesBackEverySeat() {
+        List<Booking> booked = book(session, 3);
+
+        assertEquals(3, bookingDAO.deleteAll(booked.stream().map(Booking::getId).toList()));
+        assertEquals(0, bookedCount(session));
+    }
+
+    @Test
+    void updateAllMovesSeatsWithStatusAndSession() {
+        List<Booking> booked = book(session, 3);
+        booked.get(0).setStatus(BookingStatus.CANCELLED);
+        booked.get(1).setSessionId(other.getId());
+
+        assertEquals(3, bookingDAO.updateAll(booked));
+        assertEquals(1, bookedCount(session));
+        assertEquals(1, bookedCount(other));
+    }
+
+    @Test
+    void updateAllPastCapacityRollsBack() {
+        book(other, 3);
+        List<Booking> moving = book(session, 1);
+        moving.get(0).setSessionId(other.getId());
+
+        assertThrows(IllegalStateException.class, () -> bookingDAO.updateAll(moving));
+        assertEquals(1, bookedCount(session));
+        assertEquals(3, bookedCount(other));
+        assertEquals(session.getId(), bookingDAO.findById(moving.get(0).getId()).orElseThrow().getSessionId());
+    }
+
+    private List<Booking> book(ClassSession target, int count) {
+        List<Booking> bookings = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            Booking booking = new Booking(0, 1 + i, target.getClassName(), LocalDateTime.now().withNano(0),
+                    target.getClassTime());
+            booking.setSessionId(target.getId());
+            bookings.add(TransactionManager.executeWrite(() -> {
+                assertTrue(classSessionDAO.tryReserveSeat(target.getId()));
+                return bookingDAO.save(booking);
+            }));
+        }
+        return bookings;
+    }
+
+    private int bookedCount(ClassSession target) {
+        return classSessionDAO.findById(target.getId()).orElseThrow().getBookedCount();
+    }
+}
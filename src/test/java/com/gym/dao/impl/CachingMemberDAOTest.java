@@ -0,0 +1,92 @@
+package com.gym.dao.impl;
+
+import com.gym.model.Member;
+import com.gym.model.MonthlyMembership;
+import com.gym.util.TestDatabase;
+import com.gym.util.TransactionManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CachingMemberDAOTest {
+    private Member member;
+
+    @BeforeEach
+    void setUp() {
+        TestDatabase.reset();
+        Member created = new Member(0, "Cache Test", "cache.test", "secret", 0, new MonthlyMembership(),
+                LocalDate.now(), LocalDate.now().plusMonths(1));
+        member = TransactionManager.execute(() -> {
+            new UserDAOImpl().save(created);
+            return new MemberDAOImpl().save(created);
+        });
+    }
+
+    @Test
+    void servesCopiesAndInvalidatesOnUpdate() {
+        CachingMemberDAO dao = new CachingMemberDAO(new MemberDAOImpl());
+        Member first = dao.findById(member.getMemberId()).orElseThrow();
+        first.setEndDate(LocalDate.now().plusYears(5));
+
+        // The local edit must not leak into the cached entry
+        Member cached = dao.findById(member.getMemberId()).orElseThrow();
+        assertEquals(member.getEndDate(), cached.getEndDate());
+        assertEquals(1, dao.getStats().getHits());
+
+        cached.setEndDate(LocalDate.now().plusYears(1));
+        dao.update(cached);
+        assertEquals(LocalDate.now().plusYears(1), dao.findById(member.getMemberId()).orElseThrow().getEndDate());
+    }
+
+    @Test
+    void readRacingAnUpdateDoesNotCacheTheOldRow() throws Exception {
+        CountDownLatch readDone = new CountDownLatch(1);
+        CountDownLatch updated = new CountDownLatch(1);
+        MemberDAOImpl slowReads = new MemberDAOImpl() {
+            @Override
+            public Optional<Member> findById(int id) {
+                Optional<Member> row = super.findById(id);
+                if (readDone.getCount() > 0) {
+                    readDone.countDown();
+                    await(updated);
+                }
+                return row;
+            }
+        };
+        CachingMemberDAO dao = new CachingMemberDAO(slowReads);
+
+        CompletableFuture<Optional<Member>> staleRead =
+                CompletableFuture.supplyAsync(() -> dao.findById(member.getMemberId()));
+        await(readDone);
+
+        Member changed = new MemberDAOImpl().findById(member.getMemberId()).orElseThrow();
+        LocalDate newEnd = LocalDate.now().plusYears(2);
+        changed.setEndDate(newEnd);
+        dao.update(changed);
+        updated.countDown();
+
+        assertEquals(member.getEndDate(), staleRead.get(5, TimeUnit.SECONDS).orElseThrow().getEndDate());
+        assertEquals(newEnd, dao.findById(member.getMemberId()).orElseThrow().getEndDate());
+    }
+
+    @Test
+    void sharedInstanceIsProcessWide() {
+        assertSame(CachingMemberDAO.shared(), CachingMemberDAO.shared());
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            assertTrue(latch.await(5, TimeUnit.SECONDS));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            fail(e);
+        }
+    }
+}
@@ -0,0 +1,114 @@
+package com.gym.dao.impl;
+
+import com.gym.model.Admin;
+import com.gym.model.User;
+import com.gym.util.TestDatabase;
+import com.gym.util.TransactionManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CachingUserDAOTest {
+    private CachingUserDAO dao;
+
+    @BeforeEach
+    void setUp() {
+        TestDatabase.reset();
+        dao = new CachingUserDAO(new UserDAOImpl());
+    }
+
+    @Test
+    void bloomFilterRejectsUnknownUsernames() {
+        dao.save(new Admin(0, "Known", "known", "secret", 1));
+
+        assertTrue(dao.existsByUsername("known"));
+        assertFalse(dao.existsByUsername("nobody"));
+        assertEquals(1, dao.getBloomRejections());
+    }
+
+    @Test
+    void usernameSavedWhileFilterLoadsIsNotLost() {
+        TransactionManager.run(() -> {
+            dao.save(new Admin(0, "Late", "late", "secret", 1));
+            // Another thread builds the filter before the row above commits
+            CompletableFuture.supplyAsync(() -> dao.existsByUsername("late")).orTimeout(5, TimeUnit.SECONDS).join();
+        });
+
+        assertTrue(dao.existsByUsername("late"));
+    }
+
+    @Test
+    void invalidateAllReloadsTheFilter() {
+        dao.existsByUsername("anyone");
+        new UserDAOImpl().save(new Admin(0, "Direct", "direct", "secret", 1));
+        assertFalse(dao.existsByUsername("direct"));
+
+        dao.invalidateAll();
+        assertTrue(dao.existsByUsername("direct"));
+    }
+
+    @Test
+    void readRacingAnUpdateDoesNotCacheTheOldRow() throws Exception {
+        User saved = new UserDAOImpl().save(new Admin(0, "Racer", "racer", "secret", 1));
+        CountDownLatch readDone = new CountDownLatch(1);
+        CountDownLatch updated = new CountDownLatch(1);
+        UserDAOImpl slowReads = new UserDAOImpl() {
+            @Override
+            public Optional<User> findByUsername(String username) {
+                Optional<User> row = super.findByUsername(username);
+                if (readDone.getCount() > 0) {
+                    readDone.countDown();
+                    await(updated);
+                }
+                return row;
+            }
+        };
+        CachingUserDAO racing = new CachingUserDAO(slowReads);
+
+        CompletableFuture<Optional<User>> staleRead =
+                CompletableFuture.supplyAsync(() -> racing.findByUsername("racer"));
+        await(readDone);
+
+        saved.setPassword("changed");
+        racing.update(saved);
+        updated.countDown();
+
+        assertEquals("secret", staleRead.get(5, TimeUnit.SECONDS).orElseThrow().getPassword());
+        assertEquals("changed", racing.findByUsername("racer").orElseThrow().getPassword());
+    }
+
+    @Test
+    void updateInsideTransactionIsInvalidatedOnCommit() {
+        User saved = new UserDAOImpl().save(new Admin(0, "Tx", "tx", "secret", 1));
+        TransactionManager.run(() -> {
+            saved.setPassword("changed");
+            dao.update(saved);
+            // Another thread caches the committed row while the update is still pending
+            User seen = CompletableFuture.supplyAsync(() -> dao.findByUsername("tx").orElseThrow())
+                    .orTimeout(5, TimeUnit.SECONDS).join();
+            assertEquals("secret", seen.getPassword());
+        });
+
+        assertEquals("changed", dao.findByUsername("tx").orElseThrow().getPassword());
+    }
+
+    @Test
+    void sharedInstanceIsProcessWide() {
+        assertSame(CachingUserDAO.shared(), CachingUserDAO.shared());
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            assertTrue(latch.await(5, TimeUnit.SECONDS));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            fail(e);
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package com.gym.dao.impl;
+
+import com.gym.dao.Page;
+import com.gym.dao.PaymentDAO;
+import com.gym.model.Payment;
+import com.gym.util.TestDatabase;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class KeysetPaginationTest {
+    private PaymentDAO paymentDAO;
+
+    @BeforeEach
+    void setUp() {
+        TestDatabase.reset();
+        paymentDAO = new PaymentDAOImpl();
+    }
+
+    @Test
+    void pagesCoverEveryRowOnceInStableOrder() {
+        // Many rows share a date, so the id tie-breaker decides the order
+        paymentDAO.saveAll(BatchWriteTest.payments(95));
+
+        List<Payment> seen = new ArrayList<>();
+        String token = null;
+        int pages = 0;
+        do {
+            Page<Payment> page = paymentDAO.findPage(token, 10);
+            assertTrue(page.getItems().size() <= 10);
+            seen.addAll(page.getItems());
+            token = page.getNextPageToken();
+            pages++;
+        } while (token != null);
+
+        assertEquals(10, pages);
+        List<Payment> expected = paymentDAO.findAll().stream()
+                .sorted(Comparator.comparing(Payment::getDate).thenComparing(Payment::getId).reversed())
+                .toList();
+        assertEquals(expected.stream().map(Payment::getId).toList(), seen.stream().map(Payment::getId).toList());
+    }
+
+    @Test
+    void rejectsMalformedToken() {
+        assertThrows(IllegalArgumentException.class, () -> paymentDAO.findPage("not-a-token", 10));
+    }
+}
@@ -0,0 +1,60 @@
+package com.gym.dao.impl;
+
+import com.gym.dao.BookingDAO;
+import com.gym.model.Booking;
+import com.gym.model.BookingStatus;
+import com.gym.util.TestDatabase;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// The per-member counts behind the member dashboard
+class MemberBookingCountTest {
+    private static final LocalDateTime MONTH_START = LocalDateTime.of(2024, 3, 1, 0, 0);
+
+    private final BookingDAO bookingDAO = new BookingDAOImpl();
+
+    @BeforeEach
+    void setUp() {
+        TestDatabase.reset();
+        List<Booking> bookings = new ArrayList<>();
+        bookings.add(booking(1, MONTH_START.plusDays(2), BookingStatus.COMPLETED));
+        bookings.add(booking(1, MONTH_START.plusDays(9), BookingStatus.NO_SHOW));
+        bookings.add(booking(1, MONTH_START.plusDays(15), BookingStatus.CANCELLED));
+        bookings.add(booking(1, MONTH_START.plusMonths(1), BookingStatus.BOOKED));
+        bookings.add(booking(1, MONTH_START.minusDays(1), BookingStatus.COMPLETED));
+        bookings.add(booking(2, MONTH_START.plusDays(2), BookingStatus.COMPLETED));
+        bookingDAO.saveAll(bookings);
+    }
+
+    @Test
+    void countsByStatusForOneMember() {
+        Map<BookingStatus, Long> counts = bookingDAO.countByStatusForMember(1);
+
+        assertEquals(2, counts.get(BookingStatus.COMPLETED));
+        assertEquals(1, counts.get(BookingStatus.NO_SHOW));
+        assertEquals(1, counts.get(BookingStatus.CANCELLED));
+        assertEquals(1, counts.get(BookingStatus.BOOKED));
+        assertTrue(bookingDAO.countByStatusForMember(3).isEmpty());
+    }
+
+    @Test
+    void countsUncancelledBookingsInRange() {
+        LocalDateTime monthEnd = MONTH_START.plusMonths(1).minusSeconds(1);
+
+        assertEquals(2, bookingDAO.countByMemberBetween(1, MONTH_START, monthEnd));
+        assertEquals(1, bookingDAO.countByMemberBetween(2, MONTH_START, monthEnd));
+    }
+
+    private static Booking booking(int memberId, LocalDateTime classTime, BookingStatus status) {
+        Booking booking = new Booking(0, memberId, "Yoga", classTime.minusDays(7), classTime);
+        booking.setStatus(status);
+        return booking;
+    }
+}
@@ -0,0 +1,129 @@
+package com.gym.dao.impl;
+
+import com.gym.dao.BookingDAO;
+import com.gym.model.Booking;
+import com.gym.model.BookingStatus;
+import com.gym.util.DatabaseUtil;
+import com.gym.util.DateCodec;
+import com.gym.util.TestDatabase;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Rows/sec for reading every booking three ways: the original mapper (columns by name,
+ * dates as ISO text through DateTimeFormatter), columns by name over epoch dates, and
+ * BookingDAOImpl.findAll() with its index-resolved mapper. Each variant runs a few
+ * rounds and reports its best. The ISO variant also pays for strftime in SQLite, so it
+ * overstates the decode cost; the two epoch variants isolate column lookup. Run with -Dgym.benchmarks=true; -Dgym.benchmarks.rows
+ * sets the row count.
+ */
+@EnabledIfSystemProperty(named = "gym.benchmarks", matches = "true")
+class RowMapperBenchmark {
+    private static final int ROWS = Integer.getInteger("gym.benchmarks.rows", 20_000);
+    private static final int ROUNDS = 5;
+    private static final DateTimeFormatter ISO = DateTimeFormatter.ISO_LOCAL_DATE_TIME;
+
+    // Same rows with the dates rendered the way they were stored before the epoch migration
+    private static final String TEXT_DATES_SQL = """
+        SELECT id, member_id, class_name, status, session_id, version,
+               strftime('%Y-%m-%dT%H:%M:%S', booking_time, 'unixepoch') AS booking_time,
+               strftime('%Y-%m-%dT%H:%M:%S', class_time, 'unixepoch') AS class_time
+        FROM bookings
+    """;
+
+    private interface Reader {
+        List<Booking> read() throws SQLException;
+    }
+
+    @Test
+    void mapperRowsPerSecond() throws SQLException {
+        TestDatabase.reset();
+        BookingDAO bookingDAO = new BookingDAOImpl();
+
+        LocalDateTime base = LocalDateTime.now().withNano(0);
+        List<Booking> bookings = new ArrayList<>(ROWS);
+        for (int i = 0; i < ROWS; i++) {
+            Booking booking = new Booking();
+            booking.setMemberId(1 + i % 500);
+            booking.setClassName("Class " + i % 20);
+            booking.setBookingTime(base.minusDays(i % 365).minusHours(1));
+            booking.setClassTime(base.minusDays(i % 365));
+            booking.setStatus(BookingStatus.values()[i % BookingStatus.values().length]);
+            bookings.add(booking);
+        }
+        bookingDAO.saveAll(bookings);
+
+        double textByName = bestRowsPerSecond(() -> query(TEXT_DATES_SQL, RowMapperBenchmark::mapTextByName));
+        double epochByName = bestRowsPerSecond(() -> query("SELECT * FROM bookings", RowMapperBenchmark::mapEpochByName));
+        double indexed = bestRowsPerSecond(bookingDAO::findAll);
+
+        System.out.printf("%d bookings: by name + ISO text %.0f rows/s, by name + epoch %.0f rows/s, "
+                        + "indexed + epoch (findAll) %.0f rows/s, %.1fx over original%n",
+                ROWS, textByName, epochByName, indexed, indexed / textByName);
+    }
+
+    private static double bestRowsPerSecond(Reader reader) throws SQLException {
+        double best = 0;
+        for (int round = 0; round < ROUNDS; round++) {
+            long start = System.nanoTime();
+            List<Booking> rows = reader.read();
+            double seconds = (System.nanoTime() - start) / 1e9;
+            assertEquals(ROWS, rows.size());
+            best = Math.max(best, rows.size() / seconds);
+        }
+        return best;
+    }
+
+    private interface Mapper {
+        Booking map(ResultSet rs) throws SQLException;
+    }
+
+    private static List<Booking> query(String sql, Mapper mapper) throws SQLException {
+        List<Booking> rows = new ArrayList<>(ROWS);
+        try (Connection conn = DatabaseUtil.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql);
+             ResultSet rs = pstmt.executeQuery()) {
+            while (rs.next()) {
+                rows.add(mapper.map(rs));
+            }
+        }
+        return rows;
+    }
+
+    private static Booking mapTextByName(ResultSet rs) throws SQLException {
+        Booking booking = mapCommonByName(rs);
+        booking.setBookingTime(LocalDateTime.parse(rs.getString("booking_time"), ISO));
+        booking.setClassTime(LocalDateTime.parse(rs.getString("class_time"), ISO));
+        return booking;
+    }
+
+    private static Booking mapEpochByName(ResultSet rs) throws SQLException {
+        Booking booking = mapCommonByName(rs);
+        booking.setBookingTime(DateCodec.fromEpochSecond(rs.getLong("booking_time")));
+        booking.setClassTime(DateCodec.fromEpochSecond(rs.getLong("class_time")));
+        return booking;
+    }
+
+    private static Booking mapCommonByName(ResultSet rs) throws SQLException {
+        Booking booking = new Booking();
+        booking.setId(rs.getInt("id"));
+        booking.setMemberId(rs.getInt("member_id"));
+        booking.setClassName(rs.getString("class_name"));
+        booking.setStatus(BookingStatus.valueOf(rs.getString("status")));
+        int session = rs.getInt("session_id");
+        booking.setSessionId(rs.wasNull() ? null : session);
+        booking.setVersion(rs.getInt("version"));
+        return booking;
+    }
+}
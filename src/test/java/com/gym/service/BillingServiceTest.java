@@ -0,0 +1,50 @@
+package com.gym.service;
+
+import com.gym.dao.impl.CachingMemberDAO;
+import com.gym.dao.impl.CachingUserDAO;
+import com.gym.dao.impl.MembershipPlanDAOImpl;
+import com.gym.dao.impl.PaymentDAOImpl;
+import com.gym.model.Payment;
+import com.gym.model.PaymentType;
+import com.gym.util.TestDatabase;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BillingServiceTest {
+    private PaymentDAOImpl paymentDAO;
+    private BillingService billingService;
+
+    @BeforeEach
+    void setUp() {
+        TestDatabase.reset();
+        paymentDAO = new PaymentDAOImpl();
+        MembershipService membershipService = new MembershipService(CachingMemberDAO.shared(),
+                CachingUserDAO.shared(), new MembershipPlanDAOImpl());
+        billingService = new BillingService(paymentDAO, membershipService);
+    }
+
+    @Test
+    void recentPaymentsAreNewestFirstWithinWindowAndBounded() {
+        LocalDate today = LocalDate.now();
+        List<Payment> payments = new ArrayList<>();
+        for (int daysAgo = 0; daysAgo < 20; daysAgo++) {
+            payments.add(new Payment(0, 1, 10 + daysAgo, today.minusDays(daysAgo), PaymentType.CLASS));
+        }
+        paymentDAO.saveAll(payments);
+
+        List<Payment> recent = billingService.getRecentPayments(7);
+        assertEquals(7, recent.size());
+        assertEquals(today, recent.get(0).getDate());
+        assertEquals(today.minusDays(6), recent.get(6).getDate());
+
+        List<Payment> bounded = billingService.getRecentPayments(30, 3);
+        assertEquals(List.of(today, today.minusDays(1), today.minusDays(2)),
+                bounded.stream().map(Payment::getDate).toList());
+    }
+}
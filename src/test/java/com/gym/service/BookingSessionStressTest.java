@@ -0,0 +1,116 @@
+package com.gym.service;
+
+import com.gym.dao.BookingDAO;
+import com.gym.dao.ClassSessionDAO;
+import com.gym.dao.impl.BookingDAOImpl;
+import com.gym.dao.impl.CachingMemberDAO;
+import com.gym.dao.impl.ClassSessionDAOImpl;
+import com.gym.dao.impl.MemberDAOImpl;
+import com.gym.dao.impl.UserDAOImpl;
+import com.gym.model.Booking;
+import com.gym.model.BookingStatus;
+import com.gym.model.ClassSession;
+import com.gym.model.Member;
+import com.gym.model.MonthlyMembership;
+import com.gym.util.TestDatabase;
+import com.gym.util.TransactionManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Many clients booking (and some cancelling) seats in one capacity-limited session at
+ * once; the seat counter must never pass capacity and must match the booking rows.
+ */
+class BookingSessionStressTest {
+    private static final int CLIENTS = 64;
+    private static final int MEMBERS = 256;
+    private static final int CAPACITY = 100;
+
+    private final ClassSessionDAO classSessionDAO = new ClassSessionDAOImpl();
+    private final BookingDAO bookingDAO = new BookingDAOImpl();
+    private BookingService bookingService;
+    private List<Integer> memberIds;
+
+    @BeforeEach
+    void setUp() {
+        TestDatabase.reset();
+        bookingService = new BookingService(bookingDAO, CachingMemberDAO.shared(), classSessionDAO);
+        memberIds = TransactionManager.execute(() -> {
+            List<Integer> ids = new ArrayList<>();
+            for (int i = 0; i < MEMBERS; i++) {
+                Member member = new Member(0, "Member " + i, "stress" + i, "secret", 0, new MonthlyMembership(),
+                        LocalDate.now(), LocalDate.now().plusMonths(1));
+                new UserDAOImpl().save(member);
+                ids.add(new MemberDAOImpl().save(member).getMemberId());
+            }
+            return ids;
+        });
+    }
+
+    @Test
+    void concurrentBookingsNeverOversubscribe() throws Exception {
+        ClassSession session = bookingService.scheduleSession("Spin", LocalDateTime.now().plusDays(1), CAPACITY);
+
+        AtomicInteger booked = new AtomicInteger();
+        AtomicInteger cancelled = new AtomicInteger();
+        AtomicInteger full = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService clients = Executors.newFixedThreadPool(CLIENTS);
+        List<Future<?>> results = new ArrayList<>();
+        for (int client = 0; client < CLIENTS; client++) {
+            int first = client;
+            results.add(clients.submit(() -> {
+                start.await();
+                for (int i = first; i < MEMBERS; i += CLIENTS) {
+                    try {
+                        Booking booking = bookingService.bookSession(memberIds.get(i), session.getId());
+                        booked.incrementAndGet();
+                        // Every fourth member changes their mind, handing the seat back
+                        if (i % 4 == 0) {
+                            bookingService.cancelBooking(booking.getId());
+                            cancelled.incrementAndGet();
+                        }
+                    } catch (IllegalStateException e) {
+                        full.incrementAndGet();
+                    }
+                }
+                return null;
+            }));
+        }
+
+        long startNanos = System.nanoTime();
+        start.countDown();
+        for (Future<?> result : results) {
+            result.get(60, TimeUnit.SECONDS);
+        }
+        double seconds = (System.nanoTime() - startNanos) / 1e9;
+        clients.shutdown();
+
+        int seats = classSessionDAO.findById(session.getId()).orElseThrow().getBookedCount();
+        long rows = bookingDAO.findByClassName("Spin").stream()
+                .filter(booking -> booking.getStatus() == BookingStatus.BOOKED)
+                .filter(booking -> booking.getSessionId() != null && booking.getSessionId() == session.getId())
+                .count();
+
+        System.out.printf("%d clients, %d attempts: %d booked, %d cancelled, %d full in %.2f s (%.0f bookings/s)%n",
+                CLIENTS, MEMBERS, booked.get(), cancelled.get(), full.get(), seconds, booked.get() / seconds);
+        assertTrue(seats <= CAPACITY, "booked_count " + seats + " exceeds capacity " + CAPACITY);
+        assertEquals(rows, seats);
+        assertEquals(booked.get() - cancelled.get(), seats);
+        assertEquals(MEMBERS, booked.get() + full.get());
+        assertTrue(full.get() > 0, "the session should have filled up");
+    }
+}
@@ -0,0 +1,75 @@
+package com.gym.service;
+
+import com.gym.dao.BookingDAO;
+import com.gym.dao.impl.BookingDAOImpl;
+import com.gym.model.Booking;
+import com.gym.model.BookingStatus;
+import com.gym.util.TestDatabase;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BookingSweeperTest {
+    // Two full chunks and a partial one
+    private static final int STALE = 2 * BookingSweeper.DEFAULT_CHUNK_SIZE + 200;
+
+    private final BookingDAO bookingDAO = new BookingDAOImpl();
+    private final LocalDateTime cutoff = LocalDateTime.now().withNano(0);
+
+    @BeforeEach
+    void setUp() {
+        TestDatabase.reset();
+        List<Booking> bookings = new ArrayList<>();
+        for (int i = 0; i < STALE; i++) {
+            bookings.add(booking(cutoff.minusMinutes(1 + i), BookingStatus.BOOKED));
+        }
+        for (int i = 0; i < 5; i++) {
+            bookings.add(booking(cutoff.plusHours(1 + i), BookingStatus.BOOKED));
+            bookings.add(booking(cutoff.minusDays(1 + i), BookingStatus.CANCELLED));
+            bookings.add(booking(cutoff.minusDays(1 + i), BookingStatus.COMPLETED));
+        }
+        bookingDAO.saveAll(bookings);
+    }
+
+    @Test
+    void sweepMovesEveryStaleBookingAcrossChunks() {
+        BookingSweeper sweeper = new BookingSweeper(bookingDAO);
+
+        SweepReport report = sweeper.sweep(cutoff);
+
+        assertEquals(cutoff, report.getCutoff());
+        assertEquals(STALE, report.getTransitioned());
+        assertEquals(3, report.getChunks());
+        assertSame(report, sweeper.getLastReport());
+
+        assertEquals(STALE, bookingDAO.countByStatus(BookingStatus.NO_SHOW));
+        // Future bookings and ones already closed out are left alone
+        assertEquals(5, bookingDAO.countByStatus(BookingStatus.BOOKED));
+        assertEquals(5, bookingDAO.countByStatus(BookingStatus.CANCELLED));
+        assertEquals(5, bookingDAO.countByStatus(BookingStatus.COMPLETED));
+        assertTrue(bookingDAO.findByStatus(BookingStatus.BOOKED).stream()
+                .allMatch(booking -> booking.getClassTime().isAfter(cutoff)));
+    }
+
+    @Test
+    void secondSweepFindsNothingLeft() {
+        BookingSweeper sweeper = new BookingSweeper(bookingDAO);
+        sweeper.sweep(cutoff);
+
+        SweepReport report = sweeper.sweep(cutoff);
+
+        assertEquals(0, report.getTransitioned());
+        assertEquals(1, report.getChunks());
+    }
+
+    private static Booking booking(LocalDateTime classTime, BookingStatus status) {
+        Booking booking = new Booking(0, 1, "Yoga", classTime.minusDays(7), classTime);
+        booking.setStatus(status);
+        return booking;
+    }
+}
@@ -0,0 +1,88 @@
+package com.gym.service;
+
+import com.gym.dao.BookingDAO;
+import com.gym.dao.impl.BookingDAOImpl;
+import com.gym.dao.impl.CachingMemberDAO;
+import com.gym.dao.impl.ClassSessionDAOImpl;
+import com.gym.model.Booking;
+import com.gym.model.BookingStatus;
+import com.gym.util.TestDatabase;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * hasConflictingBooking() against the old scan of the member's whole booking history,
+ * for a long-tenured member. Run with -Dgym.benchmarks=true; -Dgym.benchmarks.rows sets
+ * the member's booking count.
+ */
+@EnabledIfSystemProperty(named = "gym.benchmarks", matches = "true")
+class ConflictCheckBenchmark {
+    private static final int ROWS = Integer.getInteger("gym.benchmarks.rows", 10_000);
+    private static final int CHECKS = 200;
+    private static final int MEMBER_ID = 1;
+
+    @Test
+    void rangeSeekVersusHistoryScan() {
+        TestDatabase.reset();
+        BookingDAO bookingDAO = new BookingDAOImpl();
+        BookingService bookingService =
+                new BookingService(bookingDAO, CachingMemberDAO.shared(), new ClassSessionDAOImpl());
+
+        // One class a day going back ROWS days, mostly completed, the last few still booked
+        LocalDateTime now = LocalDateTime.now().withNano(0);
+        List<Booking> history = new ArrayList<>(ROWS);
+        for (int i = 0; i < ROWS; i++) {
+            Booking booking = new Booking();
+            booking.setMemberId(MEMBER_ID);
+            booking.setClassName("Yoga");
+            booking.setClassTime(now.minusDays(ROWS - i).plusDays(7));
+            booking.setBookingTime(booking.getClassTime().minusDays(1));
+            booking.setStatus(i < ROWS - 7 ? BookingStatus.COMPLETED : BookingStatus.BOOKED);
+            history.add(booking);
+        }
+        bookingDAO.saveAll(history);
+
+        List<LocalDateTime> probes = new ArrayList<>(CHECKS);
+        for (int i = 0; i < CHECKS; i++) {
+            probes.add(now.plusDays(i % 14).plusMinutes(30));
+        }
+
+        int scanHits = 0;
+        long start = System.nanoTime();
+        for (LocalDateTime classTime : probes) {
+            if (scanConflicts(bookingDAO, classTime)) {
+                scanHits++;
+            }
+        }
+        double scanMillis = (System.nanoTime() - start) / 1e6;
+
+        int seekHits = 0;
+        start = System.nanoTime();
+        for (LocalDateTime classTime : probes) {
+            if (bookingService.hasConflictingBooking(MEMBER_ID, classTime)) {
+                seekHits++;
+            }
+        }
+        double seekMillis = (System.nanoTime() - start) / 1e6;
+
+        System.out.printf("%d bookings, %d checks: history scan %.2f ms/check, range seek %.3f ms/check, %.0fx%n",
+                ROWS, CHECKS, scanMillis / CHECKS, seekMillis / CHECKS, scanMillis / seekMillis);
+        assertEquals(scanHits, seekHits);
+    }
+
+    // What hasConflictingBooking did before the (member_id, class_time) range seek
+    private static boolean scanConflicts(BookingDAO bookingDAO, LocalDateTime classTime) {
+        LocalDateTime startTime = classTime.minusHours(1);
+        LocalDateTime endTime = classTime.plusHours(1);
+        return bookingDAO.findByMemberId(MEMBER_ID).stream()
+                .filter(booking -> booking.getStatus() == BookingStatus.BOOKED)
+                .anyMatch(booking -> !booking.getClassTime().isBefore(startTime)
+                        && !booking.getClassTime().isAfter(endTime));
+    }
+}
@@ -0,0 +1,143 @@
+package com.gym.service;
+
+import com.gym.dao.OptimisticLockException;
+import com.gym.dao.impl.BookingDAOImpl;
+import com.gym.dao.impl.CachingMemberDAO;
+import com.gym.dao.impl.CachingUserDAO;
+import com.gym.dao.impl.ClassSessionDAOImpl;
+import com.gym.dao.impl.MemberDAOImpl;
+import com.gym.dao.impl.MembershipPlanDAOImpl;
+import com.gym.dao.impl.UserDAOImpl;
+import com.gym.model.Booking;
+import com.gym.model.BookingStatus;
+import com.gym.model.ClassSession;
+import com.gym.model.Member;
+import com.gym.model.MonthlyMembership;
+import com.gym.util.TestDatabase;
+import com.gym.util.TransactionManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OptimisticLockingTest {
+    private final BookingDAOImpl bookingDAO = new BookingDAOImpl();
+    private final ClassSessionDAOImpl classSessionDAO = new ClassSessionDAOImpl();
+    private BookingService bookingService;
+    private Member member;
+
+    @BeforeEach
+    void setUp() {
+        TestDatabase.reset();
+        bookingService = new BookingService(bookingDAO, CachingMemberDAO.shared(), classSessionDAO);
+        Member created = new Member(0, "Versioned", "versioned", "secret", 0, new MonthlyMembership(),
+                LocalDate.now(), LocalDate.now().plusMonths(1));
+        member = TransactionManager.executeWrite(() -> {
+            new UserDAOImpl().save(created);
+            return new MemberDAOImpl().save(created);
+        });
+    }
+
+    @Test
+    void staleCopyIsRejectedAndFreshCopyBumpsVersion() {
+        Booking booking = bookingService.bookClass(member.getMemberId(), "Yoga", LocalDateTime.now().plusDays(1));
+        Booking first = bookingDAO.findById(booking.getId()).orElseThrow();
+        Booking stale = bookingDAO.findById(booking.getId()).orElseThrow();
+
+        first.setClassName("Pilates");
+        assertEquals(1, bookingDAO.update(first).getVersion());
+
+        stale.setClassName("Spin");
+        OptimisticLockException e = assertThrows(OptimisticLockException.class, () -> bookingDAO.update(stale));
+        assertEquals(0, e.getExpectedVersion());
+        assertEquals(0, stale.getVersion(), "a rejected update must not bump the caller's version");
+        assertEquals("Pilates", bookingDAO.findById(booking.getId()).orElseThrow().getClassName());
+    }
+
+    @Test
+    void cancelledBookingCannotBeMarkedNoShowOrCompleted() {
+        ClassSession session = bookingService.scheduleSession("Spin", LocalDateTime.now().plusDays(1), 5);
+        Booking booking = bookingService.bookSession(member.getMemberId(), session.getId());
+        bookingService.cancelBooking(booking.getId());
+
+        assertThrows(IllegalArgumentException.class, () -> bookingService.markNoShow(booking.getId()));
+        assertThrows(IllegalArgumentException.class, () -> bookingService.markCompleted(booking.getId()));
+
+        assertEquals(BookingStatus.CANCELLED, bookingDAO.findById(booking.getId()).orElseThrow().getStatus());
+        assertEquals(0, classSessionDAO.findById(session.getId()).orElseThrow().getBookedCount(),
+                "the released seat must stay released");
+    }
+
+    @Test
+    void bookingCancelledDuringRetryIsNotOverwritten() {
+        Booking booking = bookingService.bookClass(member.getMemberId(), "Yoga", LocalDateTime.now().plusDays(1));
+        AtomicInteger reads = new AtomicInteger();
+        // The first read hands out a copy that goes stale: the booking is cancelled right after
+        BookingDAOImpl racingDAO = new BookingDAOImpl() {
+            @Override
+            public Optional<Booking> findById(int id) {
+                Optional<Booking> row = super.findById(id);
+                if (reads.incrementAndGet() == 1) {
+                    Booking other = super.findById(id).orElseThrow();
+                    other.setStatus(BookingStatus.CANCELLED);
+                    super.update(other);
+                }
+                return row;
+            }
+        };
+        BookingService racingService = new BookingService(racingDAO, CachingMemberDAO.shared(), classSessionDAO);
+
+        assertThrows(IllegalArgumentException.class, () -> racingService.markNoShow(booking.getId()));
+        assertEquals(2, reads.get(), "the conflict should trigger exactly one re-read");
+        assertEquals(BookingStatus.CANCELLED, bookingDAO.findById(booking.getId()).orElseThrow().getStatus());
+    }
+
+    @Test
+    void concurrentMembershipChangeIsReportedNotOverwritten() {
+        AtomicInteger reads = new AtomicInteger();
+        LocalDate renewedEnd = LocalDate.now().plusYears(1);
+        MemberDAOImpl racingDAO = new MemberDAOImpl() {
+            @Override
+            public Optional<Member> findById(int id) {
+                Optional<Member> row = super.findById(id);
+                if (reads.incrementAndGet() == 1) {
+                    Member other = super.findById(id).orElseThrow();
+                    other.setEndDate(renewedEnd);
+                    super.update(other);
+                }
+                return row;
+            }
+        };
+        MembershipService membershipService = new MembershipService(racingDAO, CachingUserDAO.shared(),
+                new MembershipPlanDAOImpl());
+
+        assertThrows(OptimisticLockException.class, () -> membershipService.cancelMembership(member.getMemberId()));
+        assertEquals(renewedEnd, new MemberDAOImpl().findById(member.getMemberId()).orElseThrow().getEndDate());
+        assertFalse(membershipService.cancelMembership(-1));
+    }
+
+    @Test
+    void retryRunsUntilSuccessOrMaxAttempts() {
+        AtomicInteger attempts = new AtomicInteger();
+        String result = OptimisticRetry.withRetry(() -> {
+            if (attempts.incrementAndGet() < OptimisticRetry.DEFAULT_MAX_ATTEMPTS) {
+                throw new OptimisticLockException("Booking", 1, 0);
+            }
+            return "done";
+        });
+        assertEquals("done", result);
+        assertEquals(OptimisticRetry.DEFAULT_MAX_ATTEMPTS, attempts.get());
+
+        attempts.set(0);
+        assertThrows(OptimisticLockException.class, () -> OptimisticRetry.withRetry(2, () -> {
+            attempts.incrementAndGet();
+            throw new OptimisticLockException("Booking", 1, 0);
+        }));
+        assertEquals(2, attempts.get());
+    }
+}
@@ -0,0 +1,105 @@
+package com.gym.util;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ConnectionPoolTest {
+    @TempDir
+    Path tempDir;
+
+    private String url;
+    private ConnectionPool pool;
+
+    @BeforeEach
+    void setUp() {
+        url = "jdbc:sqlite:" + tempDir.resolve("pool.db");
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (pool != null) {
+            pool.close();
+        }
+    }
+
+    @Test
+    void closedLeaseReturnsPhysicalConnectionForReuse() throws SQLException {
+        pool = new ConnectionPool(url, PragmaProfile.BALANCED, 2, 1000, 0, 0, false, 16);
+
+        try (Connection conn = pool.getConnection()) {
+            assertFalse(conn.isClosed());
+        }
+        try (Connection conn = pool.getConnection()) {
+            assertFalse(conn.isClosed());
+        }
+
+        PoolStats stats = pool.getStats();
+        assertEquals(1, stats.getCreated());
+        assertEquals(2, stats.getBorrowed());
+        assertEquals(0, stats.getActive());
+        assertEquals(1, stats.getIdle());
+    }
+
+    @Test
+    void exhaustedPoolTimesOut() throws SQLException {
+        pool = new ConnectionPool(url, PragmaProfile.BALANCED, 1, 50, 0, 0, false, 16);
+
+        Connection held = pool.getConnection();
+        try {
+            assertThrows(SQLException.class, pool::getConnection);
+        } finally {
+            held.close();
+        }
+        assertEquals(1, pool.getStats().getTimeouts());
+    }
+
+    @Test
+    void leaseOfTerminatedThreadIsReclaimed() throws Exception {
+        pool = new ConnectionPool(url, PragmaProfile.BALANCED, 1, 1000, 0, 0, false, 16);
+
+        AtomicReference<Connection> leaked = new AtomicReference<>();
+        Thread leaker = new Thread(() -> {
+            try {
+                leaked.set(pool.getConnection());
+            } catch (SQLException e) {
+                throw new RuntimeException(e);
+            }
+        });
+        leaker.start();
+        leaker.join();
+
+        // The only permit belongs to a dead thread; borrowing must take it back
+        try (Connection conn = pool.getConnection()) {
+            assertFalse(conn.isClosed());
+        }
+        assertEquals(1, pool.getStats().getReclaimed());
+        assertTrue(leaked.get().isClosed());
+        assertThrows(SQLException.class, () -> leaked.get().createStatement());
+    }
+
+    @Test
+    void leaseHeldPastReclaimThresholdIsReclaimed() throws Exception {
+        pool = new ConnectionPool(url, PragmaProfile.BALANCED, 1, 1000, 0, 20, false, 16);
+
+        Connection leaked = pool.getConnection();
+        Thread.sleep(50);
+
+        try (Connection conn = pool.getConnection()) {
+            assertFalse(conn.isClosed());
+        }
+        assertEquals(1, pool.getStats().getReclaimed());
+        assertEquals(1, pool.getStats().getDiscarded());
+        // Closing the reclaimed proxy later must not release a second permit
+        leaked.close();
+        assertEquals(0, pool.getStats().getActive());
+    }
+}
@@ -0,0 +1,200 @@
+package com.gym.util;
+
+import com.gym.dao.PaymentDAO;
+import com.gym.dao.impl.PaymentDAOImpl;
+import com.gym.model.Payment;
+import com.gym.model.PaymentType;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DatabaseWriterTest {
+    private DatabaseWriter writer;
+    private PaymentDAO paymentDAO;
+
+    @BeforeEach
+    void setUp() {
+        TestDatabase.reset();
+        writer = new DatabaseWriter(256, 0);
+        paymentDAO = new PaymentDAOImpl();
+    }
+
+    @AfterEach
+    void tearDown() {
+        writer.close();
+    }
+
+    @Test
+    void failedWorkRollsBackAloneAndKeepsNoId() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<Void> gate = writer.submit(() -> {
+            await(release);
+            return null;
+        });
+        // Queued behind the gate so all three share one commit
+        CompletableFuture<Payment> first = writer.submit(() -> paymentDAO.save(payment(10)));
+        Payment doomed = payment(20);
+        CompletableFuture<Payment> failing = writer.submit(() -> {
+            paymentDAO.save(doomed);
+            throw new IllegalStateException("boom");
+        });
+        CompletableFuture<Payment> last = writer.submit(() -> paymentDAO.save(payment(30)));
+        release.countDown();
+
+        assertNotEquals(0, first.get(5, TimeUnit.SECONDS).getId());
+        assertNotEquals(0, last.get(5, TimeUnit.SECONDS).getId());
+        gate.get(5, TimeUnit.SECONDS);
+        Exception e = assertThrows(Exception.class, () -> failing.get(5, TimeUnit.SECONDS));
+        assertEquals("boom", e.getCause().getMessage());
+
+        assertEquals(0, doomed.getId(), "an id that never committed must not stay on the caller's object");
+        assertEquals(List.of(10.0, 30.0), paymentDAO.findAll().stream().map(Payment::getAmount).sorted().toList());
+        assertEquals(1, writer.getCommittedBatches());
+        assertEquals(3, writer.getCommittedWrites());
+        assertEquals(1, writer.getFailedWrites());
+    }
+
+    @Test
+    void loneWriteCommitsOnItsOwn() {
+        Payment saved = writer.execute(() -> paymentDAO.save(payment(10)));
+
+        assertNotEquals(0, saved.getId());
+        assertEquals(1, writer.getCommittedBatches());
+        assertEquals(1, writer.getLargestBatch());
+    }
+
+    @Test
+    void interruptedCallerWithdrawsQueuedWork() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<Void> gate = writer.submit(() -> {
+            await(release);
+            return null;
+        });
+
+        AtomicBoolean ran = new AtomicBoolean();
+        AtomicReference<Throwable> thrown = new AtomicReference<>();
+        AtomicBoolean interruptKept = new AtomicBoolean();
+        Thread caller = new Thread(() -> {
+            try {
+                writer.execute(() -> {
+                    ran.set(true);
+                    return null;
+                });
+            } catch (RuntimeException e) {
+                thrown.set(e);
+            }
+            interruptKept.set(Thread.currentThread().isInterrupted());
+        });
+        caller.start();
+        waitUntilQueued(1);
+        caller.interrupt();
+        caller.join(5000);
+
+        release.countDown();
+        gate.get(5, TimeUnit.SECONDS);
+        writer.execute(() -> null);
+
+        assertInstanceOf(InterruptedException.class, thrown.get().getCause());
+        assertTrue(interruptKept.get());
+        assertFalse(ran.get(), "withdrawn work must never run");
+    }
+
+    @Test
+    void interruptedCallerStillGetsOutcomeOfStartedWork() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicReference<Payment> result = new AtomicReference<>();
+        AtomicBoolean interruptKept = new AtomicBoolean();
+        Thread caller = new Thread(() -> {
+            result.set(writer.execute(() -> {
+                Payment saved = paymentDAO.save(payment(10));
+                started.countDown();
+                await(release);
+                return saved;
+            }));
+            interruptKept.set(Thread.currentThread().isInterrupted());
+        });
+        caller.start();
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        caller.interrupt();
+        release.countDown();
+        caller.join(5000);
+
+        assertNotNull(result.get());
+        assertNotEquals(0, result.get().getId());
+        assertTrue(interruptKept.get());
+        assertEquals(1, paymentDAO.findAll().size());
+    }
+
+    @Test
+    void writesWhileCallersHoldEveryPooledConnection() throws Exception {
+        List<Connection> leases = new ArrayList<>();
+        try {
+            for (int i = 0; i < DatabaseUtil.getPoolSize(); i++) {
+                leases.add(DatabaseUtil.getConnection());
+            }
+            Payment saved = CompletableFuture.supplyAsync(() -> writer.execute(() -> paymentDAO.save(payment(10))))
+                    .get(2, TimeUnit.SECONDS);
+            assertNotEquals(0, saved.getId());
+        } finally {
+            leases.forEach(DatabaseUtil::closeConnection);
+        }
+        assertEquals(1, paymentDAO.findAll().size());
+    }
+
+    @Test
+    void closedWriterRejectsWork() {
+        writer.close();
+        assertThrows(IllegalStateException.class, () -> writer.execute(() -> null));
+        assertTrue(writer.submit(() -> null).isCompletedExceptionally());
+    }
+
+    @Test
+    void commitCallbacksFollowEachTasksOutcome() throws Exception {
+        List<String> events = new ArrayList<>();
+        writer.execute(() -> {
+            TransactionManager.afterCommit(() -> events.add("committed"));
+            TransactionManager.onRollback(() -> events.add("rolled back"));
+            return null;
+        });
+        assertThrows(IllegalStateException.class, () -> writer.execute(() -> {
+            TransactionManager.afterCommit(() -> events.add("committed too"));
+            TransactionManager.onRollback(() -> events.add("rolled back too"));
+            throw new IllegalStateException("boom");
+        }));
+
+        assertEquals(List.of("committed", "rolled back too"), events);
+    }
+
+    private void waitUntilQueued(int count) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (writer.getQueuedCount() < count) {
+            assertTrue(System.nanoTime() < deadline, "work was never queued");
+            Thread.sleep(1);
+        }
+    }
+
+    private static Payment payment(double amount) {
+        return new Payment(0, 1, amount, LocalDate.now(), PaymentType.CLASS);
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            assertTrue(latch.await(5, TimeUnit.SECONDS));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
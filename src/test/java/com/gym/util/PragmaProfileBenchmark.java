@@ -0,0 +1,113 @@
+package com.gym.util;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Write throughput and read latency per PragmaProfile. Each profile gets a fresh file
+ * with the real schema; writes are single-row autocommit payment inserts (one commit
+ * each, like PaymentDAOImpl.save) and reads are point lookups taken while a second
+ * thread keeps writing, which is where WAL keeps readers from blocking.
+ *
+ * Run with -Dgym.benchmarks=true; -Dgym.benchmarks.rows sets the insert count.
+ */
+@EnabledIfSystemProperty(named = "gym.benchmarks", matches = "true")
+class PragmaProfileBenchmark {
+    private static final int ROWS = Integer.getInteger("gym.benchmarks.rows", 2000);
+    private static final int READS = 5000;
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void compareProfiles() throws Exception {
+        System.out.printf("%-10s %14s %12s %12s%n", "profile", "inserts/sec", "read p50 us", "read p99 us");
+        for (PragmaProfile profile : PragmaProfile.values()) {
+            String url = "jdbc:sqlite:" + tempDir.resolve(profile.name().toLowerCase() + ".db");
+            ConnectionPool pool = new ConnectionPool(url, profile, 4, 5000, 0, 0, false, 16);
+            try {
+                try (Connection conn = pool.getConnection()) {
+                    new SchemaMigrator(SchemaMigrations.all()).migrate(conn);
+                }
+                double insertsPerSecond = measureInserts(pool, ROWS);
+                long[] readMicros = measureReadsUnderWrites(pool);
+                System.out.printf("%-10s %14.0f %12d %12d%n", profile, insertsPerSecond,
+                        percentile(readMicros, 50), percentile(readMicros, 99));
+                assertTrue(insertsPerSecond > 0);
+            } finally {
+                pool.close();
+            }
+        }
+    }
+
+    private static double measureInserts(ConnectionPool pool, int rows) throws SQLException {
+        long start = System.nanoTime();
+        for (int i = 0; i < rows; i++) {
+            insertPayment(pool, i);
+        }
+        return rows / ((System.nanoTime() - start) / 1e9);
+    }
+
+    private static long[] measureReadsUnderWrites(ConnectionPool pool) throws Exception {
+        AtomicBoolean done = new AtomicBoolean();
+        Thread writer = new Thread(() -> {
+            int i = 0;
+            while (!done.get()) {
+                try {
+                    insertPayment(pool, i++);
+                } catch (SQLException e) {
+                    throw new RuntimeException(e);
+                }
+            }
+        });
+        writer.start();
+
+        long[] micros = new long[READS];
+        try {
+            for (int i = 0; i < READS; i++) {
+                long start = System.nanoTime();
+                try (Connection conn = pool.getConnection();
+                     PreparedStatement pstmt = conn.prepareStatement("SELECT * FROM payments WHERE id = ?")) {
+                    pstmt.setInt(1, 1 + i % ROWS);
+                    try (ResultSet rs = pstmt.executeQuery()) {
+                        rs.next();
+                    }
+                }
+                micros[i] = (System.nanoTime() - start) / 1000;
+            }
+        } finally {
+            done.set(true);
+            writer.join();
+        }
+        return micros;
+    }
+
+    private static void insertPayment(ConnectionPool pool, int i) throws SQLException {
+        try (Connection conn = pool.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(
+                     "INSERT INTO payments (member_id, amount, date, type) VALUES (?, ?, ?, ?)")) {
+            pstmt.setInt(1, 1 + i % 100);
+            pstmt.setDouble(2, 10 + i % 90);
+            pstmt.setLong(3, 19000 + i % 365);
+            pstmt.setString(4, "MEMBERSHIP");
+            pstmt.executeUpdate();
+        }
+    }
+
+    private static long percentile(long[] values, int percent) {
+        long[] sorted = values.clone();
+        Arrays.sort(sorted);
+        return sorted[Math.min(sorted.length - 1, sorted.length * percent / 100)];
+    }
+}
@@ -0,0 +1,44 @@
+package com.gym.util;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class QueryPlanVerifierTest {
+    @TempDir
+    Path tempDir;
+
+    private Connection openMigrated() throws SQLException {
+        Connection conn = DriverManager.getConnection("jdbc:sqlite:" + tempDir.resolve("plans.db"));
+        new SchemaMigrator(SchemaMigrations.all()).migrate(conn);
+        return conn;
+    }
+
+    @Test
+    void everyDaoQueryUsesAnIndexOnMigratedSchema() throws SQLException {
+        try (Connection conn = openMigrated()) {
+            assertEquals(List.of(), new QueryPlanVerifier().verify(conn));
+        }
+    }
+
+    @Test
+    void reportsFullScansIncludingOrderedScansThatLostTheirIndex() throws SQLException {
+        try (Connection conn = openMigrated(); Statement stmt = conn.createStatement()) {
+            stmt.execute("DROP INDEX idx_payments_member_id");
+            stmt.execute("DROP INDEX idx_payments_amount");
+
+            List<String> violations = new QueryPlanVerifier().verify(conn);
+
+            assertTrue(violations.contains("PaymentDAO.findByMemberId: full table scan: SCAN payments"), violations::toString);
+            assertTrue(violations.contains("PaymentDAO.findTopByAmount: full table scan: SCAN payments"), violations::toString);
+        }
+    }
+}
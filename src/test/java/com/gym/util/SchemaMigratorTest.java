@@ -0,0 +1,72 @@
+package com.gym.util;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SchemaMigratorTest {
+    @TempDir
+    Path tempDir;
+
+    private Connection open() throws SQLException {
+        return DriverManager.getConnection("jdbc:sqlite:" + tempDir.resolve("migrate.db"));
+    }
+
+    @Test
+    void appliesEveryMigrationOnceAndIsIdempotent() throws SQLException {
+        SchemaMigrator migrator = new SchemaMigrator(SchemaMigrations.all());
+        int latest = SchemaMigrations.all().get(SchemaMigrations.all().size() - 1).getVersion();
+
+        try (Connection conn = open()) {
+            assertEquals(SchemaMigrations.all().size(), migrator.migrate(conn));
+            assertEquals(latest, migrator.getCurrentVersion(conn));
+            assertEquals(0, migrator.migrate(conn));
+            assertTrue(conn.getAutoCommit());
+        }
+    }
+
+    @Test
+    void failedMigrationRollsBackAndKeepsEarlierVersions() throws SQLException {
+        SchemaMigrator migrator = new SchemaMigrator(List.of(
+                new Migration(1, "Create t", conn -> execute(conn, "CREATE TABLE t (id INTEGER PRIMARY KEY)")),
+                new Migration(2, "Broken", conn -> {
+                    execute(conn, "CREATE TABLE u (id INTEGER PRIMARY KEY)");
+                    execute(conn, "THIS IS NOT SQL");
+                })));
+
+        try (Connection conn = open()) {
+            assertThrows(SQLException.class, () -> migrator.migrate(conn));
+            assertEquals(1, migrator.getCurrentVersion(conn));
+            assertFalse(tableExists(conn, "u"));
+        }
+    }
+
+    @Test
+    void rejectsDuplicateVersions() {
+        Migration.Step noop = conn -> {};
+        assertThrows(IllegalArgumentException.class, () -> new SchemaMigrator(List.of(
+                new Migration(1, "a", noop), new Migration(1, "b", noop))));
+    }
+
+    private static void execute(Connection conn, String sql) throws SQLException {
+        try (Statement stmt = conn.createStatement()) {
+            stmt.execute(sql);
+        }
+    }
+
+    private static boolean tableExists(Connection conn, String name) throws SQLException {
+        try (Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT 1 FROM sqlite_master WHERE type = 'table' AND name = '" + name + "'")) {
+            return rs.next();
+        }
+    }
+}
@@ -0,0 +1,142 @@
+package com.gym.util;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class StatementCacheTest {
+    private static final String SELECT_ONE = "SELECT 1";
+    private static final String SELECT_TWO = "SELECT 2";
+
+    @TempDir
+    Path tempDir;
+
+    private Connection physical;
+    // Every statement the physical connection compiled, in order
+    private final List<PreparedStatement> compiled = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        Connection real = DriverManager.getConnection("jdbc:sqlite:" + tempDir.resolve("statements.db"));
+        physical = (Connection) Proxy.newProxyInstance(
+                Connection.class.getClassLoader(), new Class<?>[]{Connection.class},
+                (proxy, method, args) -> {
+                    try {
+                        Object result = method.invoke(real, args);
+                        if (method.getName().equals("prepareStatement")) {
+                            compiled.add((PreparedStatement) result);
+                        }
+                        return result;
+                    } catch (InvocationTargetException e) {
+                        throw e.getCause();
+                    }
+                });
+    }
+
+    @AfterEach
+    void tearDown() throws SQLException {
+        physical.close();
+    }
+
+    @Test
+    void closedStatementIsReusedForSameSql() throws SQLException {
+        StatementCache cache = new StatementCache(physical, 4);
+
+        PreparedStatement first = prepare(cache, SELECT_ONE);
+        assertEquals(1, queryInt(first));
+        first.close();
+        assertTrue(first.isClosed());
+
+        PreparedStatement second = prepare(cache, SELECT_ONE);
+        assertSame(first, second);
+        assertEquals(1, queryInt(second));
+        second.close();
+
+        assertEquals(1, compiled.size());
+        assertEquals(1, cache.getStats().getHits());
+        assertEquals(1, cache.getStats().getMisses());
+    }
+
+    @Test
+    void generatedKeysStatementsAreCachedSeparately() throws SQLException {
+        StatementCache cache = new StatementCache(physical, 4);
+
+        cache.prepare(SELECT_ONE, Statement.NO_GENERATED_KEYS).close();
+        cache.prepare(SELECT_ONE, Statement.RETURN_GENERATED_KEYS).close();
+
+        assertEquals(2, compiled.size());
+    }
+
+    @Test
+    void sqlAlreadyInUseGetsPrivateStatement() throws SQLException {
+        StatementCache cache = new StatementCache(physical, 4);
+
+        PreparedStatement outer = prepare(cache, SELECT_ONE);
+        PreparedStatement inner = prepare(cache, SELECT_ONE);
+        assertNotSame(outer, inner);
+        assertEquals(2, compiled.size());
+
+        inner.close();
+        assertTrue(compiled.get(1).isClosed());
+        // The cached statement is untouched by the private one closing
+        assertEquals(1, queryInt(outer));
+        outer.close();
+        assertFalse(compiled.get(0).isClosed());
+    }
+
+    @Test
+    void evictionClosesIdleStatementAndDefersInUseOne() throws SQLException {
+        StatementCache cache = new StatementCache(physical, 1);
+
+        prepare(cache, SELECT_ONE).close();
+        prepare(cache, SELECT_TWO).close();
+        assertTrue(compiled.get(0).isClosed(), "idle statement closes on eviction");
+
+        PreparedStatement held = prepare(cache, SELECT_TWO);
+        prepare(cache, SELECT_ONE).close();
+        assertFalse(compiled.get(1).isClosed(), "evicted while in use must stay open");
+        assertEquals(2, queryInt(held));
+        held.close();
+        assertTrue(compiled.get(1).isClosed(), "closes once its user is done");
+    }
+
+    @Test
+    void closeAllClosesEveryCachedStatement() throws SQLException {
+        StatementCache cache = new StatementCache(physical, 4);
+        prepare(cache, SELECT_ONE).close();
+        prepare(cache, SELECT_TWO).close();
+
+        cache.closeAll();
+
+        assertEquals(2, compiled.size());
+        for (PreparedStatement statement : compiled) {
+            assertTrue(statement.isClosed());
+        }
+    }
+
+    private static PreparedStatement prepare(StatementCache cache, String sql) throws SQLException {
+        return cache.prepare(sql, Statement.NO_GENERATED_KEYS);
+    }
+
+    private static int queryInt(PreparedStatement statement) throws SQLException {
+        try (ResultSet rs = statement.executeQuery()) {
+            assertTrue(rs.next());
+            return rs.getInt(1);
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package com.gym.util;
+
+import com.gym.dao.impl.CachingMemberDAO;
+import com.gym.dao.impl.CachingUserDAO;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Points DatabaseUtil at a scratch database for the whole test JVM. Call reset() before
+ * touching any DAO so the property is set before DatabaseUtil reads it.
+ */
+public final class TestDatabase {
+    private static final Path FILE;
+
+    static {
+        try {
+            FILE = Files.createTempDirectory("gym-test").resolve("gym_test.db");
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        System.setProperty("gym.db.url", "jdbc:sqlite:" + FILE);
+    }
+
+    private TestDatabase() {}
+
+    // Drops every table, re-runs the migrations and empties the shared caches
+    public static void reset() {
+        DatabaseUtil.resetDatabase();
+        CachingMemberDAO.shared().invalidateAll();
+        CachingUserDAO.shared().invalidateAll();
+    }
+
+    public static Path file() {
+        return FILE;
+    }
+}